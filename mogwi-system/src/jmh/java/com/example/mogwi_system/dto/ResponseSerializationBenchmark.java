@@ -0,0 +1,84 @@
+package com.example.mogwi_system.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 문제 목록 응답을 행마다 HashMap으로 만들 때와 record로 만들 때의 생성 + 직렬화 비용을 비교합니다.
+ * 실행: ./gradlew jmh (build.gradle에서 GC 프로파일러를 켜 두었으므로 결과의 gc.alloc.rate.norm으로 행당 할당량을 비교)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResponseSerializationBenchmark {
+
+    @Param({"20", "200"})
+    private int rows;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<Object[]> resultRows;
+
+    @Setup
+    public void setUp() {
+        // 네이티브 쿼리 결과와 같은 형태 (id, title, author, authorId, cardCount, likes, scraps, liked, scrapped)
+        resultRows = new ArrayList<>(rows);
+        for (long id = 1; id <= rows; id++) {
+            resultRows.add(new Object[]{id, "영어 단어 " + id, "작성자" + id, "author" + id, 30, 12L, 4L, 1, 0});
+        }
+    }
+
+    @Benchmark
+    public byte[] hashMapRows() throws JsonProcessingException {
+        List<Map<String, Object>> problems = new ArrayList<>(resultRows.size());
+        for (Object[] row : resultRows) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("id", row[0]);
+            item.put("title", row[1]);
+            item.put("author", row[2]);
+            item.put("authorId", row[3]);
+            item.put("cardCount", row[4]);
+            item.put("likes", row[5]);
+            item.put("scraps", row[6]);
+            item.put("liked", ((Number) row[7]).intValue() == 1);
+            item.put("scrapped", ((Number) row[8]).intValue() == 1);
+            item.put("categories", List.of(Map.of("tag_name", "영어", "color_code", "#FF0000")));
+            problems.add(item);
+        }
+        return objectMapper.writeValueAsBytes(problems);
+    }
+
+    @Benchmark
+    public byte[] recordRows() throws JsonProcessingException {
+        List<CategoryTag> categories = List.of(new CategoryTag("영어", "#FF0000"));
+        List<ProblemSummary> problems = new ArrayList<>(resultRows.size());
+        for (Object[] row : resultRows) {
+            problems.add(new ProblemSummary(
+                    ((Number) row[0]).longValue(),
+                    (String) row[1],
+                    (String) row[2],
+                    (String) row[3],
+                    ((Number) row[4]).intValue(),
+                    ((Number) row[5]).longValue(),
+                    ((Number) row[6]).longValue(),
+                    ((Number) row[7]).intValue() == 1,
+                    ((Number) row[8]).intValue() == 1,
+                    categories,
+                    null));
+        }
+        return objectMapper.writeValueAsBytes(problems);
+    }
+}
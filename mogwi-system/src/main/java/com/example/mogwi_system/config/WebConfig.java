@@ -1,29 +1,70 @@
 package com.example.mogwi_system.config;
 
+import com.example.mogwi_system.service.storage.ImageStorage;
+import com.example.mogwi_system.support.ImageStorageResourceResolver;
+import com.example.mogwi_system.support.SendfileResourceHttpMessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.handler.SimpleUrlHandlerMapping;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
-    // UPLOAD_DIR_PATH를 public static final로 변경하여 외부에서 바로 접근 가능하게 하거나,
-    // static getter를 통해 접근하게 합니다. 여기서는 static getter를 선호합니다.
-    private static final String UPLOAD_DIR_PATH = "file:///E:/internetDB/images/"; // Windows 예시
-    // Linux/macOS 경로: private static final String UPLOAD_DIR_PATH = "file:/home/user/mogwi_uploads/images/";
-    // 또는 private static final String UPLOAD_DIR_PATH = "file:///var/lib/mogwi_uploads/images/";
+    // 업로드 이미지 이름(내용 해시, 이전 UUID, 변환 파일)은 내용이 바뀌면 이름도 바뀌므로 1년 동안 재검증 없이 캐시
+    private static final CacheControl IMAGE_CACHE_CONTROL = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+    // 내용 해시 이름 (sha256 hex, 변환 파일이면 _크기 접미사)
+    private static final Pattern CONTENT_ADDRESSED_NAME = Pattern.compile("[0-9a-f]{64}(_[a-z]+)?(\\.[a-z0-9]{1,5})?");
 
-    // UPLOAD_DIR_PATH의 물리적 경로를 반환하는 static 메서드 추가
-    public static String getUploadDirPath() {
-        // "file:///" 접두사를 제거하고 순수 물리적 경로만 반환
-        return UPLOAD_DIR_PATH.replace("file:///", "").replace("file:/", "");
+    /**
+     * 업로드 이미지(/images/**) 처리기입니다. 긴 immutable 캐시 헤더와 강한 ETag를 붙이고,
+     * 큰 파일의 전체 응답은 sendfile로 보냅니다. (Range 요청은 ResourceHttpRequestHandler가 그대로 처리)
+     * 이미지는 이미 압축된 형식이므로 gzip 압축은 하지 않습니다.
+     * 파일은 설정된 {@link ImageStorage}에서 찾습니다. (S3 저장소면 sendfile 대신 스트림으로 전달)
+     */
+    @Bean
+    public ResourceHttpRequestHandler imageResourceHandler(
+            ImageStorage imageStorage,
+            @Value("${mogwi.image.sendfile-min-bytes:49152}") long minSendfileBytes) {
+        ResourceHttpRequestHandler handler = new ResourceHttpRequestHandler();
+        handler.setResourceResolvers(List.of(new ImageStorageResourceResolver(imageStorage)));
+        handler.setCacheControl(IMAGE_CACHE_CONTROL);
+        handler.setEtagGenerator(WebConfig::imageEtag);
+        handler.setResourceHttpMessageConverter(new SendfileResourceHttpMessageConverter(minSendfileBytes));
+        return handler;
     }
 
-    @Override
-    public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        registry.addResourceHandler("/images/**")
-                .addResourceLocations(UPLOAD_DIR_PATH);
+    @Bean
+    public SimpleUrlHandlerMapping imageHandlerMapping(ResourceHttpRequestHandler imageResourceHandler) {
+        SimpleUrlHandlerMapping mapping = new SimpleUrlHandlerMapping(Map.of("/images/**", imageResourceHandler));
+        // 컨트롤러 매핑 다음, 기본 정적 리소스 매핑(LOWEST_PRECEDENCE - 1)보다 먼저 확인
+        mapping.setOrder(Ordered.LOWEST_PRECEDENCE - 2);
+        return mapping;
+    }
+
+    // 내용 해시 이름이면 이름 자체가 강한 ETag (파일을 읽지 않음), 그 외에는 수정 시각과 크기로 만듦
+    static String imageEtag(Resource resource) {
+        String fileName = resource.getFilename();
+        if (fileName != null && CONTENT_ADDRESSED_NAME.matcher(fileName).matches()) {
+            return fileName;
+        }
+        try {
+            return Long.toHexString(resource.lastModified()) + "-" + Long.toHexString(resource.contentLength());
+        } catch (IOException e) {
+            return null;
+        }
     }
 
     @Override
@@ -32,6 +73,7 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedOrigins("http://localhost:8080") // Vue.js 개발 서버 주소
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                .exposedHeaders("X-Next-Cursor", "ETag") // 문제 목록 커서 페이지네이션, 문제 내용 ETag
                 .allowCredentials(true);
     }
-}
\ No newline at end of file
+}
@@ -1,9 +1,15 @@
 package com.example.mogwi_system.controller; // 패키지명 확인
 
-import com.example.mogwi_system.config.WebConfig; // WebConfig 임포트
+import com.example.mogwi_system.service.ImageProcessingService;
+import com.example.mogwi_system.service.ImageStoreService;
+import com.example.mogwi_system.service.ImageUploadService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -11,62 +17,94 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.InputStream;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.UUID; // UUID 임포트
 
 @RestController
 @RequestMapping("/api")
 @Slf4j
 public class FileUploadController {
 
-    // WebConfig의 static 메서드를 사용하여 업로드 디렉토리의 물리적 경로를 가져옵니다.
-    private final String uploadBaseDir = WebConfig.getUploadDirPath();
+    @Autowired
+    private ImageStoreService imageStoreService;
 
+    @Autowired
+    private ImageProcessingService imageProcessingService;
+
+    @Autowired
+    private ImageUploadService imageUploadService;
+
+    /**
+     * multipart 업로드 (기존 방식). 파일 크기, 클라이언트별 할당량, 동시 업로드 수 제한이 적용됩니다.
+     */
     @PostMapping("/upload-image")
-    public ResponseEntity<Map<String, String>> uploadImage(@RequestParam("file") MultipartFile file) {
-        Map<String, String> response = new HashMap<>();
+    public ResponseEntity<Map<String, String>> uploadImage(@RequestParam("file") MultipartFile file,
+                                                           HttpServletRequest request) {
         if (file.isEmpty()) {
+            Map<String, String> response = new HashMap<>();
             response.put("status", "FAIL");
             response.put("message", "업로드할 파일이 없습니다.");
             return ResponseEntity.badRequest().body(response);
         }
 
-        try {
-            // 파일을 저장할 최종 물리적 경로를 구성합니다.
-            // 예: C:/mogwi_uploads/images/
-            Path uploadPath = Paths.get(uploadBaseDir);
-
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath); // 디렉토리가 없으면 생성
-                log.info("이미지 업로드 디렉토리 생성: {}", uploadPath.toString());
+        return upload(() -> {
+            try (InputStream in = file.getInputStream()) {
+                return imageUploadService.upload(quotaKey(request), in, file.getSize(), file.getOriginalFilename());
             }
+        });
+    }
 
-            // 고유한 파일 이름 생성
-            String originalFilename = file.getOriginalFilename();
-            String fileExtension = "";
-            if (originalFilename != null && originalFilename.contains(".")) {
-                fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-            }
-            String uniqueFileName = UUID.randomUUID().toString() + fileExtension;
-            Path filePath = uploadPath.resolve(uniqueFileName); // 최종 파일 경로
+    /**
+     * 스트리밍 업로드. multipart 파싱/임시 파일 없이 요청 본문(이미지 바이트)을 읽는 대로 저장소에 씁니다.
+     * POST /api/upload-image/stream?filename=photo.jpg (Content-Type: image/*)
+     *
+     * @param filename 확장자를 가져올 원래 파일 이름
+     */
+    @PostMapping(value = "/upload-image/stream", consumes = {"image/*", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<Map<String, String>> streamUploadImage(@RequestParam(required = false) String filename,
+                                                                 HttpServletRequest request) {
+        if (request.getContentLengthLong() == 0) {
+            Map<String, String> response = new HashMap<>();
+            response.put("status", "FAIL");
+            response.put("message", "업로드할 파일이 없습니다.");
+            return ResponseEntity.badRequest().body(response);
+        }
 
-            Files.copy(file.getInputStream(), filePath); // 파일 저장
-            log.info("이미지 파일 저장 성공: {}", filePath.toString());
+        return upload(() -> imageUploadService.upload(quotaKey(request),
+                request.getInputStream(), request.getContentLengthLong(), filename));
+    }
+
+    @FunctionalInterface
+    private interface UploadAction {
+        ImageStoreService.StoredImage run() throws IOException;
+    }
 
-            // 클라이언트에서 접근할 수 있는 URL 반환
-            // WebConfig의 addResourceHandlers에서 설정한 URL 패턴과 일치해야 합니다.
-            // WebConfig가 "/images/**"를 매핑하므로, 여기서는 "/images/"로 시작해야 합니다.
-            String imageUrl = "/images/" + uniqueFileName;
+    // 업로드를 실행하고 결과/거절 사유를 응답으로 변환
+    private ResponseEntity<Map<String, String>> upload(UploadAction action) {
+        Map<String, String> response = new HashMap<>();
+        try {
+            // 내용의 SHA-256을 파일 이름으로 저장 (같은 이미지가 이미 있으면 쓰지 않음), 크기별 변환은 백그라운드에서 수행
+            // 파일은 설정된 ImageStorage(로컬 디스크 또는 S3)에 저장되고, WebConfig의 "/images/**" 처리기가 같은 저장소에서 응답합니다.
+            ImageStoreService.StoredImage image = action.run();
+            log.info("이미지 파일 저장 성공: {} ({} bytes, deduplicated={})", image.fileName(), image.size(), image.deduplicated());
 
             response.put("status", "OK");
-            response.put("imageUrl", imageUrl); // 클라이언트에 반환할 이미지 URL
+            response.put("imageUrl", image.url()); // 클라이언트에 반환할 이미지 URL (내용이 바뀌지 않는 URL)
             response.put("message", "이미지 업로드 성공");
             return ResponseEntity.ok(response);
 
+        } catch (ImageUploadService.UploadRejectedException e) {
+            log.warn("이미지 업로드 거절 ({}): {}", e.getReason(), e.getMessage());
+            response.put("status", "FAIL");
+            response.put("message", e.getMessage());
+            HttpStatus status = switch (e.getReason()) {
+                case TOO_LARGE -> HttpStatus.PAYLOAD_TOO_LARGE;
+                case QUOTA_EXCEEDED -> HttpStatus.TOO_MANY_REQUESTS;
+                case BUSY -> HttpStatus.SERVICE_UNAVAILABLE;
+            };
+            return ResponseEntity.status(status).body(response);
         } catch (IOException e) {
             log.error("이미지 업로드 실패: {}", e.getMessage(), e);
             response.put("status", "FAIL");
@@ -79,4 +117,19 @@ public class FileUploadController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
+
+    // 할당량 키: 클라이언트 IP. 요청 파라미터의 사용자 ID는 누구나 바꿔 보낼 수 있으므로 쓰지 않음
+    // (리버스 프록시 뒤에서는 server.forward-headers-strategy로 실제 클라이언트 IP가 remoteAddr에 오도록 설정)
+    private static String quotaKey(HttpServletRequest request) {
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    // 이미지 업로드/저장/변환 현황 조회 (업로드 처리량과 거절 수, 저장/중복 제거/정리 수, 변환 수, 원본/크기별 평균 바이트)
+    @GetMapping("/upload-image/stats")
+    public ResponseEntity<Map<String, Object>> getImageStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(imageUploadService.getStats());
+        stats.putAll(imageStoreService.getStats());
+        stats.putAll(imageProcessingService.getStats());
+        return ResponseEntity.ok(stats);
+    }
 }
\ No newline at end of file
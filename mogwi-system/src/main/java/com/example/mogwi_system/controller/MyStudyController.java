@@ -1,19 +1,36 @@
 package com.example.mogwi_system.controller;
 
+import com.example.mogwi_system.dto.ProblemSummary;
+import com.example.mogwi_system.dto.StudyProblemDetail;
+import com.example.mogwi_system.dto.StudySummary;
+import com.example.mogwi_system.service.CardStatusService;
+import com.example.mogwi_system.service.CategoryCacheService;
+import com.example.mogwi_system.service.ImageStoreService;
+import com.example.mogwi_system.service.JsonStreamingService;
+import com.example.mogwi_system.service.ProblemContentCacheService;
+import com.example.mogwi_system.service.ProblemProgressService;
+import com.example.mogwi_system.service.ProblemStatsService;
+import com.example.mogwi_system.service.UserProblemStatusService;
+import com.example.mogwi_system.service.search.ProblemSearchService;
+import com.example.mogwi_system.service.UserIdCacheService;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @Slf4j
@@ -24,14 +41,41 @@ public class MyStudyController {
     @PersistenceContext
     private EntityManager entityManager;
 
+    @Autowired
+    private UserIdCacheService userIdCacheService;
+
+    @Autowired
+    private ProblemStatsService problemStatsService;
+
+    @Autowired
+    private ProblemProgressService problemProgressService;
+
+    @Autowired
+    private ProblemSearchService problemSearchService;
+
+    @Autowired
+    private CategoryCacheService categoryCacheService;
+
+    @Autowired
+    private ProblemContentCacheService problemContentCacheService;
+
+    @Autowired
+    private UserProblemStatusService userProblemStatusService;
+
+    @Autowired
+    private CardStatusService cardStatusService;
+
+    @Autowired
+    private JsonStreamingService jsonStreamingService;
+
+    @Autowired
+    private ImageStoreService imageStoreService;
+
     // Helper method: 외부 사용자 ID로 내부 사용자 ID를 조회
     private Long getInternalUserId(String userId) throws NoResultException {
         log.info("MyStudyController: 외부 사용자 ID '{}'에 대한 내부 ID 조회 시도", userId);
         try {
-            Object result = entityManager.createNativeQuery("SELECT id FROM users WHERE userid = ?1")
-                    .setParameter(1, userId)
-                    .getSingleResult();
-            return ((Number) result).longValue();
+            return userIdCacheService.resolve(userId);
         } catch (NoResultException e) {
             log.warn("MyStudyController: 외부 사용자 ID '{}'에 해당하는 내부 사용자를 찾을 수 없음", userId);
             throw e;
@@ -50,7 +94,7 @@ public class MyStudyController {
      * @return 전체 학습 요약 데이터
      */
     @GetMapping("/summary/{userId}")
-    public ResponseEntity<Map<String, Object>> getOverallStudySummary(
+    public ResponseEntity<?> getOverallStudySummary(
             @PathVariable String userId) {
         log.info("MyStudyController - getOverallStudySummary 호출됨: userId={}", userId);
         Long internalUserId;
@@ -82,11 +126,11 @@ public class MyStudyController {
                     .setParameter(1, internalUserId)
                     .getSingleResult();
 
-            Map<String, Object> summary = new HashMap<>();
-            summary.put("perfect", ((Number) result[0]).intValue());
-            summary.put("vague", ((Number) result[1]).intValue());
-            summary.put("forgotten", ((Number) result[2]).intValue());
-            summary.put("total", ((Number) result[3]).intValue());
+            StudySummary summary = new StudySummary(
+                    ((Number) result[0]).intValue(),
+                    ((Number) result[1]).intValue(),
+                    ((Number) result[2]).intValue(),
+                    ((Number) result[3]).intValue());
 
             log.info("MyStudyController - getOverallStudySummary 성공: userId={}, 요약: {}", userId, summary);
             return ResponseEntity.ok(summary);
@@ -98,6 +142,35 @@ public class MyStudyController {
         }
     }
 
+    // 사용자의 문제별 학습 현황 조회 SQL (목록 응답과 스트리밍 응답이 함께 사용)
+    private static final String USER_STUDY_PROBLEMS_SQL = "SELECT " +
+                "p.id AS problem_id, " +
+                "p.title, " +
+                "p.description, " +
+                "p.card_count AS problem_total_cards, " +
+                "u.username AS author_nickname, " +
+                "COALESCE(ups.is_liked, 0) AS is_liked, " +
+                "COALESCE(ups.is_scrapped, 0) AS is_scrapped, " +
+                "IFNULL(ups.problem_status, 'new') AS study_status, " +
+                "COALESCE(ps.like_count, 0) AS total_likes, " +
+                "COALESCE(ps.scrap_count, 0) AS total_scraps, " +
+                "COALESCE(SUM(CASE WHEN ucs.card_status = 'perfect' AND ucs.problem_id = p.id THEN 1 ELSE 0 END), 0) AS perfect_count, " +
+                "COALESCE(SUM(CASE WHEN ucs.card_status = 'vague' AND ucs.problem_id = p.id THEN 1 ELSE 0 END), 0) AS vague_count, " +
+                "COALESCE(SUM(CASE WHEN ucs.card_status = 'forgotten' AND ucs.problem_id = p.id THEN 1 ELSE 0 END), 0) AS forgotten_count, " +
+                "(SELECT GROUP_CONCAT(pc.category_id ORDER BY pc.category_id) FROM problem_categories pc WHERE pc.problem_id = p.id) AS category_ids " +
+                "FROM problems p " +
+                "JOIN users u ON p.author_id = u.id " +
+                "LEFT JOIN problem_stats ps ON ps.problem_id = p.id " +
+                "LEFT JOIN user_problem_status ups ON p.id = ups.problem_id AND ups.user_id = :userId " +
+                "LEFT JOIN user_card_status ucs ON p.id = ucs.problem_id AND ucs.user_id = :userId " +
+                "WHERE p.id IN (" +
+                "SELECT p_all.id FROM problems p_all " +
+                "LEFT JOIN user_problem_status ups_all ON p_all.id = ups_all.problem_id AND ups_all.user_id = :userId " +
+                "WHERE ups_all.user_id IS NULL OR ups_all.problem_status IN ('new', 'ongoing', 'completed')" +
+                ") " +
+                "GROUP BY p.id, p.title, p.description, p.card_count, u.username, ps.like_count, ps.scrap_count, ups.is_liked, ups.is_scrapped, ups.problem_status " +
+                "ORDER BY IFNULL(ups.updated_at, p.created_at) DESC";
+
     /**
      * 특정 사용자의 각 문제별 학습 상세 현황 (카드 상태별 개수, 작성자 닉네임, 태그 포함)을 조회합니다.
      * GET /api/mystudy/problems/detail/{userId}
@@ -106,7 +179,7 @@ public class MyStudyController {
      * @return 사용자의 문제 목록, 각 문제별 카드 학습 현황, 작성자 닉네임, 태그 포함
      */
     @GetMapping("/problems/detail/{userId}")
-    public ResponseEntity<List<Map<String, Object>>> getUserStudyProblemsDetail(
+    public ResponseEntity<List<StudyProblemDetail>> getUserStudyProblemsDetail(
             @PathVariable String userId) {
         log.info("MyStudyController - getUserStudyProblemsDetail 호출됨: userId={}", userId);
         Long internalUserId;
@@ -126,78 +199,31 @@ public class MyStudyController {
         }
 
         try {
-            String problemSql = "SELECT " +
-                    "p.id AS problem_id, " +
-                    "p.title, " +
-                    "p.description, " +
-                    "p.card_count AS problem_total_cards, " +
-                    "u.username AS author_nickname, " +
-                    "COALESCE(ups.is_liked, 0) AS is_liked, " +
-                    "COALESCE(ups.is_scrapped, 0) AS is_scrapped, " +
-                    "IFNULL(ups.problem_status, 'new') AS study_status, " +
-                    "(SELECT COUNT(*) FROM user_problem_status ups_likes WHERE ups_likes.problem_id = p.id AND ups_likes.is_liked = 1) AS total_likes, " +
-                    "(SELECT COUNT(*) FROM user_problem_status ups_scraps WHERE ups_scraps.problem_id = p.id AND ups_scraps.is_scrapped = 1) AS total_scraps, " +
-                    "COALESCE(SUM(CASE WHEN ucs.card_status = 'perfect' AND ucs.problem_id = p.id THEN 1 ELSE 0 END), 0) AS perfect_count, " +
-                    "COALESCE(SUM(CASE WHEN ucs.card_status = 'vague' AND ucs.problem_id = p.id THEN 1 ELSE 0 END), 0) AS vague_count, " +
-                    "COALESCE(SUM(CASE WHEN ucs.card_status = 'forgotten' AND ucs.problem_id = p.id THEN 1 ELSE 0 END), 0) AS forgotten_count " +
-                    "FROM problems p " +
-                    "JOIN users u ON p.author_id = u.id " +
-                    "LEFT JOIN user_problem_status ups ON p.id = ups.problem_id AND ups.user_id = ?1 " +
-                    "LEFT JOIN user_card_status ucs ON p.id = ucs.problem_id AND ucs.user_id = ?2 " +
-                    "WHERE p.id IN (" +
-                    "SELECT p_all.id FROM problems p_all " +
-                    "LEFT JOIN user_problem_status ups_all ON p_all.id = ups_all.problem_id AND ups_all.user_id = ?3 " +
-                    "WHERE ups_all.user_id IS NULL OR ups_all.problem_status IN ('new', 'ongoing', 'completed')" +
-                    ") " +
-                    "GROUP BY p.id, p.title, p.description, p.card_count, u.username, ups.is_liked, ups.is_scrapped, ups.problem_status " +
-                    "ORDER BY IFNULL(ups.updated_at, p.created_at) DESC";
-
-            List<Object[]> problemResults = entityManager.createNativeQuery(problemSql)
-                    .setParameter(1, internalUserId)
-                    .setParameter(2, internalUserId)
-                    .setParameter(3, internalUserId)
+            List<Object[]> problemResults = entityManager.createNativeQuery(USER_STUDY_PROBLEMS_SQL)
+                    .setParameter("userId", internalUserId)
                     .getResultList();
 
-            List<Map<String, Object>> userProblems = new ArrayList<>();
+            List<StudyProblemDetail> userProblems = new ArrayList<>(problemResults.size());
 
             for (Object[] row : problemResults) {
-                Map<String, Object> problem = new HashMap<>();
-                Long problemId = ((Number) row[0]).longValue();
-                problem.put("id", problemId);
-                problem.put("title", row[1]);
-                problem.put("description", row[2]);
-                problem.put("cardCount", ((Number) row[3]).intValue());
-                problem.put("authorNickname", row[4]);
-                problem.put("isLiked", ((Number) row[5]).intValue() == 1);
-                problem.put("isScrapped", ((Number) row[6]).intValue() == 1);
                 String studyStatus = row[7].toString();
-                problem.put("studyStatus", studyStatus);
-                problem.put("isCompleted", "completed".equals(studyStatus));
-                problem.put("totalLikes", ((Number) row[8]).intValue());
-                problem.put("totalScraps", ((Number) row[9]).intValue());
-                problem.put("perfectCount", ((Number) row[10]).intValue());
-                problem.put("vagueCount", ((Number) row[11]).intValue());
-                problem.put("forgottenCount", ((Number) row[12]).intValue());
-
-                // 카테고리 태그와 색상 코드 조회
-                // SQL 쿼리에 color_code 컬럼 추가
-                String tagsSql = "SELECT c.tag_name, c.color_code FROM categories c " +
-                        "JOIN problem_categories pc ON c.id = pc.category_id " +
-                        "WHERE pc.problem_id = ?1";
-                List<Object[]> tagsAndColors = entityManager.createNativeQuery(tagsSql)
-                        .setParameter(1, problemId)
-                        .getResultList();
-
-                List<Map<String, String>> categoriesWithColor = new ArrayList<>();
-                for (Object[] tagRow : tagsAndColors) {
-                    Map<String, String> categoryMap = new HashMap<>();
-                    categoryMap.put("tag_name", tagRow[0].toString());
-                    categoryMap.put("color_code", tagRow[1] != null ? tagRow[1].toString() : "#CCCCCC"); // null 처리 및 기본값 설정
-                    categoriesWithColor.add(categoryMap);
-                }
-                problem.put("categories", categoriesWithColor); // categories를 List<Map<String, String>>으로 변경
-
-                userProblems.add(problem);
+                userProblems.add(new StudyProblemDetail(
+                        ((Number) row[0]).longValue(),
+                        (String) row[1],
+                        (String) row[2],
+                        ((Number) row[3]).intValue(),
+                        (String) row[4],
+                        ((Number) row[5]).intValue() == 1,
+                        ((Number) row[6]).intValue() == 1,
+                        studyStatus,
+                        "completed".equals(studyStatus),
+                        ((Number) row[8]).intValue(),
+                        ((Number) row[9]).intValue(),
+                        ((Number) row[10]).intValue(),
+                        ((Number) row[11]).intValue(),
+                        ((Number) row[12]).intValue(),
+                        // 카테고리 태그와 색상 코드는 카테고리 ID 목록(row[13])을 캐시로 변환
+                        categoryCacheService.toTags(row[13])));
             }
             log.info("MyStudyController - getUserStudyProblemsDetail 성공: userId={}에 대해 {}개의 문제 조회됨.", userId, userProblems.size());
             return ResponseEntity.ok(userProblems);
@@ -209,6 +235,45 @@ public class MyStudyController {
         }
     }
 
+    /**
+     * getUserStudyProblemsDetail과 같은 항목을, 결과를 메모리에 모으지 않고 DB에서 읽는 대로 JSON 배열로 씁니다.
+     * GET /api/mystudy/problems/detail/{userId}/stream
+     *
+     * @param userId 현재 로그인한 사용자의 ID (users 테이블의 userid 필드)
+     * @return 사용자의 문제 목록 (스트리밍)
+     */
+    @GetMapping(value = "/problems/detail/{userId}/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUserStudyProblemsDetail(
+            @PathVariable String userId) {
+        Optional<Long> internalUserId = userIdCacheService.find(userId);
+        if (internalUserId.isEmpty()) {
+            log.warn("MyStudyController - streamUserStudyProblemsDetail: 사용자 ID '{}'를 찾을 수 없음.", userId);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+
+        StreamingResponseBody body = jsonStreamingService.streamArray(
+                USER_STUDY_PROBLEMS_SQL, Map.of("userId", internalUserId.get()),
+                (rs, json) -> {
+                    String studyStatus = rs.getString(8);
+                    json.writeNumberField("id", rs.getLong(1));
+                    json.writeStringField("title", rs.getString(2));
+                    json.writeStringField("description", rs.getString(3));
+                    json.writeNumberField("cardCount", rs.getInt(4));
+                    json.writeStringField("authorNickname", rs.getString(5));
+                    json.writeBooleanField("isLiked", rs.getInt(6) == 1);
+                    json.writeBooleanField("isScrapped", rs.getInt(7) == 1);
+                    json.writeStringField("studyStatus", studyStatus);
+                    json.writeBooleanField("isCompleted", "completed".equals(studyStatus));
+                    json.writeNumberField("totalLikes", rs.getInt(9));
+                    json.writeNumberField("totalScraps", rs.getInt(10));
+                    json.writeNumberField("perfectCount", rs.getInt(11));
+                    json.writeNumberField("vagueCount", rs.getInt(12));
+                    json.writeNumberField("forgottenCount", rs.getInt(13));
+                    json.writeObjectField("categories", categoryCacheService.toTags(rs.getString(14)));
+                });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
     /**
      * 특정 사용자가 스크랩한 문제 목록을 조회합니다.
      * GET /api/mystudy/scrapped/{userId}
@@ -217,7 +282,7 @@ public class MyStudyController {
      * @return 스크랩된 문제 목록
      */
     @GetMapping("/scrapped/{userId}")
-    public ResponseEntity<List<Map<String, Object>>> getScrappedProblems(
+    public ResponseEntity<List<ProblemSummary>> getScrappedProblems(
             @PathVariable String userId) {
         log.info("MyStudyController - getScrappedProblems 호출됨: userId={}", userId);
         Long internalUserId;
@@ -239,13 +304,15 @@ public class MyStudyController {
         try {
             String sql = "SELECT " +
                     "p.id, p.title, u.username AS author_name, u.userid AS author_id, p.card_count, " +
-                    "COALESCE((SELECT COUNT(*) FROM user_problem_status ups2 WHERE ups2.problem_id = p.id AND ups2.is_liked = 1), 0) AS likes, " +
-                    "COALESCE((SELECT COUNT(*) FROM user_problem_status ups2 WHERE ups2.problem_id = p.id AND ups2.is_scrapped = 1), 0) AS scraps, " +
+                    "COALESCE(ps.like_count, 0) AS likes, " +
+                    "COALESCE(ps.scrap_count, 0) AS scraps, " +
                     "IFNULL(ups.is_liked, 0) AS liked, " +
-                    "IFNULL(ups.is_scrapped, 0) AS scrapped " +
+                    "IFNULL(ups.is_scrapped, 0) AS scrapped, " +
+                    "(SELECT GROUP_CONCAT(pc.category_id ORDER BY pc.category_id) FROM problem_categories pc WHERE pc.problem_id = p.id) AS category_ids " +
                     "FROM problems p " +
                     "JOIN users u ON p.author_id = u.id " +
                     "JOIN user_problem_status ups ON p.id = ups.problem_id " +
+                    "LEFT JOIN problem_stats ps ON ps.problem_id = p.id " +
                     "WHERE ups.user_id = ?1 AND ups.is_scrapped = 1 " +
                     "ORDER BY ups.updated_at DESC";
 
@@ -253,38 +320,21 @@ public class MyStudyController {
                     .setParameter(1, internalUserId)
                     .getResultList();
 
-            List<Map<String, Object>> scrappedProblems = new ArrayList<>();
+            List<ProblemSummary> scrappedProblems = new ArrayList<>(results.size());
             for (Object[] row : results) {
-                Map<String, Object> item = new HashMap<>();
-                Long problemId = ((Number) row[0]).longValue();
-                item.put("id", problemId);
-                item.put("title", row[1]);
-                item.put("author", row[2]);
-                item.put("authorId", row[3]);
-                item.put("cardCount", row[4]);
-                item.put("likes", row[5]);
-                item.put("scraps", row[6]);
-                item.put("liked", ((Number) row[7]).intValue() == 1);
-                item.put("scrapped", ((Number) row[8]).intValue() == 1);
-
-                // 카테고리 태그와 색상 코드 조회
-                String tagsSql = "SELECT c.tag_name, c.color_code FROM categories c " +
-                        "JOIN problem_categories pc ON c.id = pc.category_id " +
-                        "WHERE pc.problem_id = ?1";
-                List<Object[]> tagsAndColors = entityManager.createNativeQuery(tagsSql)
-                        .setParameter(1, problemId)
-                        .getResultList();
-
-                List<Map<String, String>> categoriesWithColor = new ArrayList<>();
-                for (Object[] tagRow : tagsAndColors) {
-                    Map<String, String> categoryMap = new HashMap<>();
-                    categoryMap.put("tag_name", tagRow[0].toString());
-                    categoryMap.put("color_code", tagRow[1] != null ? tagRow[1].toString() : "#CCCCCC");
-                    categoriesWithColor.add(categoryMap);
-                }
-                item.put("categories", categoriesWithColor);
-
-                scrappedProblems.add(item);
+                scrappedProblems.add(new ProblemSummary(
+                        ((Number) row[0]).longValue(),
+                        (String) row[1],
+                        (String) row[2],
+                        (String) row[3],
+                        row[4] != null ? ((Number) row[4]).intValue() : 0,
+                        ((Number) row[5]).longValue(),
+                        ((Number) row[6]).longValue(),
+                        ((Number) row[7]).intValue() == 1,
+                        ((Number) row[8]).intValue() == 1,
+                        // 카테고리 태그와 색상 코드는 카테고리 ID 목록(row[9])을 캐시로 변환
+                        categoryCacheService.toTags(row[9]),
+                        null));
             }
 
             log.info("MyStudyController - getScrappedProblems 성공: userId={}에 대해 {}개의 스크랩 문제 조회됨.", userId, scrappedProblems.size());
@@ -339,36 +389,11 @@ public class MyStudyController {
         }
 
         try {
-            // user_problem_status 테이블에 해당 레코드가 있는지 확인
-            String checkSql = "SELECT COUNT(*) FROM user_problem_status WHERE user_id = ?1 AND problem_id = ?2";
-            Long count = ((Number) entityManager.createNativeQuery(checkSql)
-                    .setParameter(1, internalUserId)
-                    .setParameter(2, problemId)
-                    .getSingleResult()).longValue();
-
-            if (count > 0) {
-                // 기존 레코드가 있으면 업데이트
-                String updateSql = "UPDATE user_problem_status SET problem_status = ?1, updated_at = NOW() WHERE user_id = ?2 AND problem_id = ?3";
-                entityManager.createNativeQuery(updateSql)
-                        .setParameter(1, newStatus)
-                        .setParameter(2, internalUserId)
-                        .setParameter(3, problemId)
-                        .executeUpdate();
-                log.info("MyStudyController - updateProblemStatus: 문제 학습 상태 업데이트 성공. problemId={}, userId={}, newStatus={}", problemId, userId, newStatus);
-                response.put("status", "OK");
-                response.put("message", "문제 학습 상태가 업데이트되었습니다.");
-            } else {
-                // 기존 레코드가 없으면 삽입 (problem_status와 updated_at만 설정)
-                String insertSql = "INSERT INTO user_problem_status (user_id, problem_id, problem_status, created_at, updated_at) VALUES (?1, ?2, ?3, NOW(), NOW())";
-                entityManager.createNativeQuery(insertSql)
-                        .setParameter(1, internalUserId)
-                        .setParameter(2, problemId)
-                        .setParameter(3, newStatus)
-                        .executeUpdate();
-                log.info("MyStudyController - updateProblemStatus: 새 문제 학습 상태 삽입 성공. problemId={}, userId={}, newStatus={}", problemId, userId, newStatus);
-                response.put("status", "OK");
-                response.put("message", "새 문제 학습 상태가 생성되었습니다.");
-            }
+            // 레코드가 없으면 생성, 있으면 상태만 갱신 (단일 문장)
+            userProblemStatusService.saveProblemStatus(internalUserId, problemId, newStatus);
+            log.info("MyStudyController - updateProblemStatus: 문제 학습 상태 저장 성공. problemId={}, userId={}, newStatus={}", problemId, userId, newStatus);
+            response.put("status", "OK");
+            response.put("message", "문제 학습 상태가 저장되었습니다.");
             return ResponseEntity.ok(response);
 
         } catch (Exception e) {
@@ -403,6 +428,12 @@ public class MyStudyController {
             response.put("message", "필수 입력값(userId, status, cardId)이 누락되었습니다.");
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
         }
+        if (!CardStatusService.CARD_STATUSES.contains(newStatus)) {
+            log.warn("MyStudyController - updateCardStatus: 유효하지 않은 카드 상태. cardId={}, userId={}, newStatus={}", cardId, userId, newStatus);
+            response.put("status", "ERROR");
+            response.put("message", "유효하지 않은 카드 상태입니다. (perfect, vague, forgotten)");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
 
         Long internalUserId;
         try {
@@ -427,39 +458,12 @@ public class MyStudyController {
                     .setParameter(1, cardId)
                     .getSingleResult()).longValue();
 
-            // user_card_status 테이블에 해당 레코드가 있는지 확인
-            String checkSql = "SELECT COUNT(*) FROM user_card_status WHERE user_id = ?1 AND card_id = ?2 AND problem_id = ?3";
-            Long count = ((Number) entityManager.createNativeQuery(checkSql)
-                    .setParameter(1, internalUserId)
-                    .setParameter(2, cardId)
-                    .setParameter(3, problemId)
-                    .getSingleResult()).longValue();
-
-            if (count > 0) {
-                // 기존 레코드가 있으면 업데이트
-                String updateSql = "UPDATE user_card_status SET card_status = ?1, updated_at = NOW() WHERE user_id = ?2 AND card_id = ?3 AND problem_id = ?4";
-                entityManager.createNativeQuery(updateSql)
-                        .setParameter(1, newStatus)
-                        .setParameter(2, internalUserId)
-                        .setParameter(3, cardId)
-                        .setParameter(4, problemId)
-                        .executeUpdate();
-                log.info("MyStudyController - updateCardStatus: 카드 학습 상태 업데이트 성공. cardId={}, userId={}, newStatus={}", cardId, userId, newStatus);
-                response.put("status", "OK");
-                response.put("message", "카드 학습 상태가 업데이트되었습니다.");
-            } else {
-                // 기존 레코드가 없으면 삽입
-                String insertSql = "INSERT INTO user_card_status (user_id, problem_id, card_id, card_status, created_at, updated_at) VALUES (?1, ?2, ?3, ?4, NOW(), NOW())";
-                entityManager.createNativeQuery(insertSql)
-                        .setParameter(1, internalUserId)
-                        .setParameter(2, problemId)
-                        .setParameter(3, cardId)
-                        .setParameter(4, newStatus)
-                        .executeUpdate();
-                log.info("MyStudyController - updateCardStatus: 새 카드 학습 상태 삽입 성공. cardId={}, userId={}, newStatus={}", cardId, userId, newStatus);
-                response.put("status", "OK");
-                response.put("message", "새 카드 학습 상태가 생성되었습니다.");
-            }
+            // 이전 상태 조회, 카드 상태 upsert, 진행 카운터/학습 이벤트/문제 상태 반영을 한 곳에서 처리
+            String problemStatus = cardStatusService.applyCardStatuses(internalUserId, problemId,
+                    List.of(new CardStatusService.CardAnswer(cardId, newStatus)));
+            log.info("MyStudyController - updateCardStatus: 카드 학습 상태 저장 성공. cardId={}, userId={}, newStatus={}, problemStatus={}", cardId, userId, newStatus, problemStatus);
+            response.put("status", "OK");
+            response.put("message", "카드 학습 상태가 저장되었습니다.");
             return ResponseEntity.ok(response);
 
         } catch (NoResultException e) {
@@ -537,7 +541,8 @@ public class MyStudyController {
                     .executeUpdate();
             log.info("MyStudyController - deleted {} user_problem_status entries for problemId={}", deletedGlobalProblemStatusCount, problemId);
 
-            // 3. Delete cards associated with this problem
+            // 3. Delete cards associated with this problem (release their image references first)
+            imageStoreService.releaseReferences(problemId);
             String deleteCardsSql = "DELETE FROM cards WHERE problem_id = ?1";
             int deletedCardsCount = entityManager.createNativeQuery(deleteCardsSql)
                     .setParameter(1, problemId)
@@ -552,7 +557,11 @@ public class MyStudyController {
                     .executeUpdate();
             log.info("MyStudyController - deleted {} problem_categories entries for problemId={}", deletedCategoriesCount, problemId);
 
-            // 5. Finally, delete the problem itself
+            // 5. Delete the precomputed like/scrap counters and per-user progress counters
+            problemStatsService.remove(problemId);
+            problemProgressService.remove(problemId);
+
+            // 6. Finally, delete the problem itself
             String deleteProblemSql = "DELETE FROM problems WHERE id = ?1";
             int deletedProblemCount = entityManager.createNativeQuery(deleteProblemSql)
                     .setParameter(1, problemId)
@@ -561,6 +570,8 @@ public class MyStudyController {
 
 
             if (deletedProblemCount > 0) {
+                problemSearchService.removeProblem(problemId);
+                problemContentCacheService.invalidate(problemId);
                 response.put("status", "OK");
                 response.put("message", "문제 및 모든 관련 데이터가 시스템에서 성공적으로 삭제되었습니다.");
                 return ResponseEntity.ok(response);
@@ -620,51 +631,18 @@ public class MyStudyController {
         }
 
         try {
-            // user_problem_status 테이블에 해당 레코드가 있는지 확인
-            String checkSql = "SELECT COUNT(*) FROM user_problem_status WHERE user_id = ?1 AND problem_id = ?2";
-            Long count = ((Number) entityManager.createNativeQuery(checkSql)
-                    .setParameter(1, internalUserId)
-                    .setParameter(2, problemId)
-                    .getSingleResult()).longValue();
+            // 좋아요 상태를 한 문장으로 토글 (레코드가 없으면 좋아요 상태로 생성)
+            boolean isLiked = userProblemStatusService.toggleFlag(internalUserId, problemId, UserProblemStatusService.Flag.LIKED);
 
-            boolean isCurrentlyLiked = false;
-            if (count > 0) {
-                // 현재 좋아요 상태 조회
-                String currentLikedStatusSql = "SELECT is_liked FROM user_problem_status WHERE user_id = ?1 AND problem_id = ?2";
-                Object result = entityManager.createNativeQuery(currentLikedStatusSql)
-                        .setParameter(1, internalUserId)
-                        .setParameter(2, problemId)
-                        .getSingleResult();
-                isCurrentlyLiked = ((Number) result).intValue() == 1;
-
-                // 좋아요 상태 토글
-                String updateSql = "UPDATE user_problem_status SET is_liked = ?, updated_at = NOW() WHERE user_id = ?2 AND problem_id = ?3";
-                entityManager.createNativeQuery(updateSql)
-                        .setParameter(1, isCurrentlyLiked ? 0 : 1) // 0: 취소, 1: 좋아요
-                        .setParameter(2, internalUserId)
-                        .setParameter(3, problemId)
-                        .executeUpdate();
-            } else {
-                // 레코드가 없으면 새로 삽입하고 좋아요 상태를 1로 설정
-                String insertSql = "INSERT INTO user_problem_status (user_id, problem_id, is_liked, problem_status, created_at, updated_at) VALUES (?1, ?2, 1, 'new', NOW(), NOW())";
-                entityManager.createNativeQuery(insertSql)
-                        .setParameter(1, internalUserId)
-                        .setParameter(2, problemId)
-                        .executeUpdate();
-                isCurrentlyLiked = false; // 새로 추가된 것이므로 이전 상태는 'false'로 간주
-            }
-
-            // 업데이트된 좋아요 총 개수 조회
-            String totalLikesSql = "SELECT COUNT(*) FROM user_problem_status WHERE problem_id = ?1 AND is_liked = 1";
-            Long totalLikes = ((Number) entityManager.createNativeQuery(totalLikesSql)
-                    .setParameter(1, problemId)
-                    .getSingleResult()).longValue();
+            // problem_stats 카운터 반영 후 업데이트된 좋아요 총 개수 조회
+            problemStatsService.adjust(problemId, (isLiked ? 1 : -1), 0);
+            Long totalLikes = problemStatsService.getCounts(problemId)[0];
 
             response.put("status", "OK");
-            response.put("isLiked", !isCurrentlyLiked); // 토글된 최종 상태 반환
+            response.put("isLiked", isLiked); // 토글된 최종 상태 반환
             response.put("totalLikes", totalLikes);
-            response.put("message", isCurrentlyLiked ? "좋아요가 취소되었습니다." : "문제를 좋아요했습니다.");
-            log.info("MyStudyController - toggleProblemLike 성공: problemId={}, userId={}, isLiked={}, totalLikes={}", problemId, userId, !isCurrentlyLiked, totalLikes);
+            response.put("message", isLiked ? "문제를 좋아요했습니다." : "좋아요가 취소되었습니다.");
+            log.info("MyStudyController - toggleProblemLike 성공: problemId={}, userId={}, isLiked={}, totalLikes={}", problemId, userId, isLiked, totalLikes);
             return ResponseEntity.ok(response);
 
         } catch (Exception e) {
@@ -717,51 +695,18 @@ public class MyStudyController {
         }
 
         try {
-            // user_problem_status 테이블에 해당 레코드가 있는지 확인
-            String checkSql = "SELECT COUNT(*) FROM user_problem_status WHERE user_id = ?1 AND problem_id = ?2";
-            Long count = ((Number) entityManager.createNativeQuery(checkSql)
-                    .setParameter(1, internalUserId)
-                    .setParameter(2, problemId)
-                    .getSingleResult()).longValue();
+            // 스크랩 상태를 한 문장으로 토글 (레코드가 없으면 스크랩 상태로 생성)
+            boolean isScrapped = userProblemStatusService.toggleFlag(internalUserId, problemId, UserProblemStatusService.Flag.SCRAPPED);
 
-            boolean isCurrentlyScrapped = false;
-            if (count > 0) {
-                // 현재 스크랩 상태 조회
-                String currentScrappedStatusSql = "SELECT is_scrapped FROM user_problem_status WHERE user_id = ?1 AND problem_id = ?2";
-                Object result = entityManager.createNativeQuery(currentScrappedStatusSql)
-                        .setParameter(1, internalUserId)
-                        .setParameter(2, problemId)
-                        .getSingleResult();
-                isCurrentlyScrapped = ((Number) result).intValue() == 1;
-
-                // 스크랩 상태 토글
-                String updateSql = "UPDATE user_problem_status SET is_scrapped = ?, updated_at = NOW() WHERE user_id = ?2 AND problem_id = ?3";
-                entityManager.createNativeQuery(updateSql)
-                        .setParameter(1, isCurrentlyScrapped ? 0 : 1) // 0: 취소, 1: 스크랩
-                        .setParameter(2, internalUserId)
-                        .setParameter(3, problemId)
-                        .executeUpdate();
-            } else {
-                // 레코드가 없으면 새로 삽입하고 스크랩 상태를 1로 설정
-                String insertSql = "INSERT INTO user_problem_status (user_id, problem_id, is_scrapped, problem_status, created_at, updated_at) VALUES (?1, ?2, 1, 'new', NOW(), NOW())";
-                entityManager.createNativeQuery(insertSql)
-                        .setParameter(1, internalUserId)
-                        .setParameter(2, problemId)
-                        .executeUpdate();
-                isCurrentlyScrapped = false; // 새로 추가된 것이므로 이전 상태는 'false'로 간주
-            }
-
-            // 업데이트된 스크랩 총 개수 조회
-            String totalScrapsSql = "SELECT COUNT(*) FROM user_problem_status WHERE problem_id = ?1 AND is_scrapped = 1";
-            Long totalScraps = ((Number) entityManager.createNativeQuery(totalScrapsSql)
-                    .setParameter(1, problemId)
-                    .getSingleResult()).longValue();
+            // problem_stats 카운터 반영 후 업데이트된 스크랩 총 개수 조회
+            problemStatsService.adjust(problemId, 0, (isScrapped ? 1 : -1));
+            Long totalScraps = problemStatsService.getCounts(problemId)[1];
 
             response.put("status", "OK");
-            response.put("isScrapped", !isCurrentlyScrapped); // 토글된 최종 상태 반환
+            response.put("isScrapped", isScrapped); // 토글된 최종 상태 반환
             response.put("totalScraps", totalScraps);
-            response.put("message", isCurrentlyScrapped ? "스크랩이 취소되었습니다." : "문제를 스크랩했습니다.");
-            log.info("MyStudyController - toggleProblemScrap 성공: problemId={}, userId={}, isScrapped={}, totalScraps={}", problemId, userId, !isCurrentlyScrapped, totalScraps);
+            response.put("message", isScrapped ? "문제를 스크랩했습니다." : "스크랩이 취소되었습니다.");
+            log.info("MyStudyController - toggleProblemScrap 성공: problemId={}, userId={}, isScrapped={}, totalScraps={}", problemId, userId, isScrapped, totalScraps);
             return ResponseEntity.ok(response);
 
         } catch (Exception e) {
@@ -1,12 +1,33 @@
 package com.example.mogwi_system.controller;
 
+import com.example.mogwi_system.dto.CategoryItem;
+import com.example.mogwi_system.dto.ProblemDetail;
+import com.example.mogwi_system.dto.ProblemSummary;
+import com.example.mogwi_system.dto.ProblemUserStatus;
+import com.example.mogwi_system.dto.TrendingProblem;
+import com.example.mogwi_system.service.CategoryCacheService;
+import com.example.mogwi_system.service.JsonStreamingService;
+import com.example.mogwi_system.service.ProblemContentCacheService;
+import com.example.mogwi_system.service.ProblemImportService;
+import com.example.mogwi_system.service.ProblemStatsService;
+import com.example.mogwi_system.service.TrendingService;
+import com.example.mogwi_system.service.UserProblemStatusService;
+import com.example.mogwi_system.service.search.InvertedIndex;
+import com.example.mogwi_system.service.search.ProblemSearchService;
+import com.example.mogwi_system.service.UserIdCacheService;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigInteger;
 import java.util.*;
@@ -20,82 +41,113 @@ public class ProblemController {
     @PersistenceContext
     private EntityManager entityManager;
 
+    @Autowired
+    private UserIdCacheService userIdCacheService;
+
+    @Autowired
+    private ProblemStatsService problemStatsService;
+
+    @Autowired
+    private ProblemSearchService problemSearchService;
+
+    @Autowired
+    private ProblemImportService problemImportService;
+
+    @Autowired
+    private CategoryCacheService categoryCacheService;
+
+    @Autowired
+    private ProblemContentCacheService problemContentCacheService;
+
+    @Autowired
+    private UserProblemStatusService userProblemStatusService;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private JsonStreamingService jsonStreamingService;
+
+    // 커서 페이지네이션 기본/최대 페이지 크기
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    // 다음 페이지 커서(마지막 문제 ID)를 전달하는 응답 헤더
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     // --- 문제 목록 조회 API (color_code 추가) ---
+    // afterId 또는 limit이 주어지면 커서(keyset) 페이지네이션 모드로 동작합니다.
+    // p.id < afterId 인 문제를 최대 limit개 반환하고, 다음 페이지가 있으면 X-Next-Cursor 헤더에 커서를 담습니다.
     @GetMapping("/api/problems")
-    public ResponseEntity<List<Map<String, Object>>> getProblems(
+    public ResponseEntity<List<ProblemSummary>> getProblems(
             @RequestParam(required = false) String query,
             @RequestParam(required = false) String category,
-            @RequestParam(required = false) String currentUserId
+            @RequestParam(required = false) String currentUserId,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer limit
     ) {
         try {
-            // SQL 쿼리에 c.color_code 추가
-            StringBuilder sql = new StringBuilder(
-                    "SELECT p.id, p.title, u.username AS author_name, u.userid AS author_id, p.card_count, " +
-                            "COALESCE((SELECT COUNT(*) FROM user_problem_status ups2 WHERE ups2.problem_id = p.id AND ups2.is_liked = 1), 0) AS likes, " +
-                            "COALESCE((SELECT COUNT(*) FROM user_problem_status ups2 WHERE ups2.problem_id = p.id AND ups2.is_scrapped = 1), 0) AS scraps, " +
-                            "IFNULL(ups.is_liked, 0) AS liked, " +
-                            "IFNULL(ups.is_scrapped, 0) AS scrapped, " +
-                            "c.tag_name AS category_name, " + // category_name으로 컬럼명 변경
-                            "c.color_code AS category_color " + // category_color 컬럼 추가
-                            "FROM problems p " +
-                            "JOIN users u ON p.author_id = u.id " +
-                            "LEFT JOIN user_problem_status ups ON ups.problem_id = p.id AND ups.user_id = (SELECT id FROM users WHERE userid = :currentUserId) " +
-                            "LEFT JOIN problem_categories pc ON p.id = pc.problem_id " +
-                            "LEFT JOIN categories c ON pc.category_id = c.id " +
-                            "WHERE p.is_public = true "
-            );
-
-            if (query != null && !query.isEmpty()) {
-                sql.append("AND p.title LIKE :query ");
-            }
+            // 카테고리 필터는 캐시에서 ID로 변환하여 categories 조인 없이 problem_categories만 확인
+            Long categoryId = null;
             if (category != null && !category.equals("#전체")) {
-                sql.append("AND c.tag_name = :category ");
+                Optional<CategoryCacheService.Category> filter = categoryCacheService.findByTagName(category);
+                if (filter.isEmpty()) {
+                    return ResponseEntity.ok(new ArrayList<>());
+                }
+                categoryId = filter.get().id();
             }
 
-            // GROUP BY 절에 category_name, category_color 추가
-            sql.append("GROUP BY p.id, p.title, u.username, u.userid, p.card_count, ups.is_liked, ups.is_scrapped, category_name, category_color ");
-            sql.append("ORDER BY p.id DESC");
+            boolean paged = afterId != null || limit != null;
+            List<Long> pageIds = null;
+            String nextCursor = null;
 
-            var queryObj = entityManager.createNativeQuery(sql.toString());
+            if (paged) {
+                int pageSize = Math.min(Math.max(limit != null ? limit : DEFAULT_PAGE_SIZE, 1), MAX_PAGE_SIZE);
 
-            if (query != null && !query.isEmpty()) {
-                queryObj.setParameter("query", "%" + query + "%");
-            }
-            if (category != null && !category.equals("#전체")) {
-                queryObj.setParameter("category", category);
-            }
-            if (currentUserId == null) currentUserId = "";
-            queryObj.setParameter("currentUserId", currentUserId);
-
-            List<Object[]> results = queryObj.getResultList();
-            Map<Long, Map<String, Object>> problemMap = new LinkedHashMap<>();
-
-            for (Object[] row : results) {
-                Long problemId = ((Number) row[0]).longValue();
-
-                if (!problemMap.containsKey(problemId)) {
-                    Map<String, Object> item = new HashMap<>();
-                    item.put("id", problemId);
-                    item.put("title", row[1]);
-                    item.put("author", row[2]);
-                    item.put("authorId", row[3]);
-                    item.put("cardCount", row[4]);
-                    item.put("likes", row[5]);
-                    item.put("scraps", row[6]);
-                    item.put("liked", ((Number) row[7]).intValue() == 1);
-                    item.put("scrapped", ((Number) row[8]).intValue() == 1);
-                    item.put("categories", new ArrayList<Map<String, String>>()); // List<Map<String, String>>으로 변경
-                    problemMap.put(problemId, item);
+                // 1단계: 인덱스(PK) 순서로 현재 페이지의 문제 ID만 조회 (pageSize + 1개로 다음 페이지 존재 여부 확인)
+                StringBuilder pageSql = new StringBuilder("SELECT p.id FROM problems p WHERE p.is_public = true ");
+                if (query != null && !query.isEmpty()) {
+                    pageSql.append("AND p.title LIKE :query ");
+                }
+                if (categoryId != null) {
+                    pageSql.append("AND EXISTS (SELECT 1 FROM problem_categories pc WHERE pc.problem_id = p.id AND pc.category_id = :categoryId) ");
+                }
+                if (afterId != null) {
+                    pageSql.append("AND p.id < :afterId ");
+                }
+                pageSql.append("ORDER BY p.id DESC");
+
+                var pageQuery = entityManager.createNativeQuery(pageSql.toString());
+                if (query != null && !query.isEmpty()) {
+                    pageQuery.setParameter("query", "%" + query + "%");
+                }
+                if (categoryId != null) {
+                    pageQuery.setParameter("categoryId", categoryId);
                 }
-                // row[9]는 tag_name, row[10]은 color_code
-                if (row[9] != null) {
-                    Map<String, String> categoryMap = new HashMap<>();
-                    categoryMap.put("tag_name", row[9].toString());
-                    categoryMap.put("color_code", row[10] != null ? row[10].toString() : "#CCCCCC"); // null 처리 및 기본값
-                    ((List<Map<String, String>>) problemMap.get(problemId).get("categories")).add(categoryMap);
+                if (afterId != null) {
+                    pageQuery.setParameter("afterId", afterId);
+                }
+                pageQuery.setMaxResults(pageSize + 1);
+
+                pageIds = new ArrayList<>();
+                for (Object id : pageQuery.getResultList()) {
+                    pageIds.add(((Number) id).longValue());
+                }
+                if (pageIds.size() > pageSize) {
+                    pageIds = pageIds.subList(0, pageSize);
+                    nextCursor = String.valueOf(pageIds.get(pageSize - 1));
+                }
+                if (pageIds.isEmpty()) {
+                    return ResponseEntity.ok(new ArrayList<>());
                 }
             }
 
+            Map<Long, ProblemSummary> problemMap = loadProblemSummaries(query, categoryId, currentUserId, pageIds);
+
+            if (nextCursor != null) {
+                return ResponseEntity.ok()
+                        .header(NEXT_CURSOR_HEADER, nextCursor)
+                        .body(new ArrayList<>(problemMap.values()));
+            }
             return ResponseEntity.ok(new ArrayList<>(problemMap.values()));
         } catch (Exception e) {
             log.error("문제 목록 조회 중 오류 발생: {}", e.getMessage(), e);
@@ -104,6 +156,150 @@ public class ProblemController {
     }
 
 
+    // --- 문제 목록 스트리밍 API ---
+    // /api/problems(페이지네이션 없음)와 같은 항목을 반환하되, 결과를 메모리에 모으지 않고 DB에서 읽는 대로 JSON 배열로 씁니다.
+    @GetMapping(value = "/api/problems/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamProblems(
+            @RequestParam(required = false) String query,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String currentUserId
+    ) {
+        Long categoryId = null;
+        if (category != null && !category.equals("#전체")) {
+            Optional<CategoryCacheService.Category> filter = categoryCacheService.findByTagName(category);
+            if (filter.isEmpty()) {
+                return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(outputStream -> outputStream.write("[]".getBytes()));
+            }
+            categoryId = filter.get().id();
+        }
+
+        StreamingResponseBody body = jsonStreamingService.streamArray(
+                problemSummarySql(query, categoryId, null),
+                problemSummaryParams(query, categoryId, currentUserId, null),
+                (rs, json) -> {
+                    json.writeNumberField("id", rs.getLong(1));
+                    json.writeStringField("title", rs.getString(2));
+                    json.writeStringField("author", rs.getString(3));
+                    json.writeStringField("authorId", rs.getString(4));
+                    json.writeNumberField("cardCount", rs.getInt(5));
+                    json.writeNumberField("likes", rs.getInt(6));
+                    json.writeNumberField("scraps", rs.getInt(7));
+                    json.writeBooleanField("liked", rs.getInt(8) == 1);
+                    json.writeBooleanField("scrapped", rs.getInt(9) == 1);
+                    json.writeObjectField("categories", categoryCacheService.toTags(rs.getString(10)));
+                });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+
+    // --- 문제 검색 API (제목/설명/카드 질문·정답 역색인 검색, 관련도순) ---
+    @GetMapping("/api/problems/search")
+    public ResponseEntity<List<ProblemSummary>> searchProblems(
+            @RequestParam String q,
+            @RequestParam(required = false) String currentUserId,
+            @RequestParam(required = false) Integer limit
+    ) {
+        try {
+            int size = Math.min(Math.max(limit != null ? limit : DEFAULT_PAGE_SIZE, 1), MAX_PAGE_SIZE);
+            List<InvertedIndex.Hit> hits = problemSearchService.search(q, size);
+            if (hits.isEmpty()) {
+                return ResponseEntity.ok(new ArrayList<>());
+            }
+
+            List<Long> ids = hits.stream().map(InvertedIndex.Hit::docId).collect(Collectors.toList());
+            Map<Long, ProblemSummary> summaries = loadProblemSummaries(null, null, currentUserId, ids);
+
+            // 색인 점수 순서대로 정렬하여 반환 (색인 반영 전 삭제/비공개된 문제는 제외)
+            List<ProblemSummary> results = new ArrayList<>(hits.size());
+            for (InvertedIndex.Hit hit : hits) {
+                ProblemSummary summary = summaries.get(hit.docId());
+                if (summary != null) {
+                    results.add(summary.withScore(hit.score()));
+                }
+            }
+            return ResponseEntity.ok(results);
+        } catch (Exception e) {
+            log.error("문제 검색 중 오류 발생: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+        }
+    }
+
+    // 문제 목록 항목(작성자, 좋아요/스크랩 수, 사용자별 상태, 카테고리)을 조회하여 ID 내림차순으로 반환합니다.
+    // ids가 주어지면 해당 문제들로 조회 범위를 제한합니다. 카테고리 이름/색상은 카테고리 캐시에서 채웁니다.
+    private Map<Long, ProblemSummary> loadProblemSummaries(String query, Long categoryId, String currentUserId, List<Long> ids) {
+        var queryObj = entityManager.createNativeQuery(problemSummarySql(query, categoryId, ids));
+        problemSummaryParams(query, categoryId, currentUserId, ids).forEach(queryObj::setParameter);
+
+        List<Object[]> results = queryObj.getResultList();
+        Map<Long, ProblemSummary> problemMap = new LinkedHashMap<>();
+
+        for (Object[] row : results) {
+            long problemId = ((Number) row[0]).longValue();
+            // row[9]는 "1,3,7" 형태의 카테고리 ID 목록 -> 캐시로 tag_name, color_code 변환
+            problemMap.put(problemId, new ProblemSummary(
+                    problemId,
+                    (String) row[1],
+                    (String) row[2],
+                    (String) row[3],
+                    row[4] != null ? ((Number) row[4]).intValue() : 0,
+                    ((Number) row[5]).longValue(),
+                    ((Number) row[6]).longValue(),
+                    ((Number) row[7]).intValue() == 1,
+                    ((Number) row[8]).intValue() == 1,
+                    categoryCacheService.toTags(row[9]),
+                    null));
+        }
+
+        return problemMap;
+    }
+
+    // 문제 목록 항목 SQL (loadProblemSummaries와 스트리밍 응답이 함께 사용)
+    private String problemSummarySql(String query, Long categoryId, List<Long> ids) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT p.id, p.title, u.username AS author_name, u.userid AS author_id, p.card_count, " +
+                        "COALESCE(ps.like_count, 0) AS likes, " +
+                        "COALESCE(ps.scrap_count, 0) AS scraps, " +
+                        "IFNULL(ups.is_liked, 0) AS liked, " +
+                        "IFNULL(ups.is_scrapped, 0) AS scrapped, " +
+                        "(SELECT GROUP_CONCAT(pc.category_id ORDER BY pc.category_id) FROM problem_categories pc WHERE pc.problem_id = p.id) AS category_ids " +
+                        "FROM problems p " +
+                        "JOIN users u ON p.author_id = u.id " +
+                        "LEFT JOIN problem_stats ps ON ps.problem_id = p.id " +
+                        "LEFT JOIN user_problem_status ups ON ups.problem_id = p.id AND ups.user_id = :currentUserInternalId " +
+                        "WHERE p.is_public = true "
+        );
+
+        if (query != null && !query.isEmpty()) {
+            sql.append("AND p.title LIKE :query ");
+        }
+        if (categoryId != null) {
+            sql.append("AND EXISTS (SELECT 1 FROM problem_categories pcf WHERE pcf.problem_id = p.id AND pcf.category_id = :categoryId) ");
+        }
+        if (ids != null) {
+            // 지정된 문제들(현재 페이지, 검색 결과)에 대해서만 상세 정보 조회
+            sql.append("AND p.id IN (:ids) ");
+        }
+        sql.append("ORDER BY p.id DESC");
+        return sql.toString();
+    }
+
+    private Map<String, Object> problemSummaryParams(String query, Long categoryId, String currentUserId, List<Long> ids) {
+        Map<String, Object> params = new HashMap<>();
+        if (query != null && !query.isEmpty()) {
+            params.put("query", "%" + query + "%");
+        }
+        if (categoryId != null) {
+            params.put("categoryId", categoryId);
+        }
+        // 비로그인/존재하지 않는 사용자는 어떤 user_problem_status 행과도 매칭되지 않도록 -1 사용
+        params.put("currentUserInternalId", userIdCacheService.find(currentUserId).orElse(-1L));
+        if (ids != null) {
+            params.put("ids", ids);
+        }
+        return params;
+    }
+
+
     // --- 기존 좋아요 상태 변경 API (변경 없음) ---
     @PostMapping("/api/like/{problemId}")
     public ResponseEntity<Map<String, Object>> toggleLike(
@@ -118,37 +314,17 @@ public class ProblemController {
         }
 
         try {
-            List<?> userResult = entityManager.createNativeQuery("SELECT id FROM users WHERE userid = ?1")
-                    .setParameter(1, userId)
-                    .getResultList();
+            Optional<Long> userResult = userIdCacheService.find(userId);
 
             if (userResult.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("status", "ERROR", "message", "사용자 없음"));
             }
 
-            Long internalUserId = ((Number) userResult.get(0)).longValue();
-
-            List<?> existing = entityManager.createNativeQuery(
-                            "SELECT id FROM user_problem_status WHERE user_id = ?1 AND problem_id = ?2")
-                    .setParameter(1, internalUserId)
-                    .setParameter(2, problemId)
-                    .getResultList();
-
-            if (existing.isEmpty()) {
-                entityManager.createNativeQuery(
-                                "INSERT INTO user_problem_status (user_id, problem_id, is_liked) VALUES (?1, ?2, ?3)")
-                        .setParameter(1, internalUserId)
-                        .setParameter(2, problemId)
-                        .setParameter(3, liked ? 1 : 0)
-                        .executeUpdate();
-            } else {
-                entityManager.createNativeQuery(
-                                "UPDATE user_problem_status SET is_liked = ?1 WHERE user_id = ?2 AND problem_id = ?3")
-                        .setParameter(1, liked ? 1 : 0)
-                        .setParameter(2, internalUserId)
-                        .setParameter(3, problemId)
-                        .executeUpdate();
-            }
+            Long internalUserId = userResult.get();
+
+            // 값이 실제로 바뀐 경우에만 problem_stats 증감분이 생김 (동시 요청에도 한 번만 반영)
+            int likeDelta = userProblemStatusService.setFlag(internalUserId, problemId, UserProblemStatusService.Flag.LIKED, liked);
+            problemStatsService.adjust(problemId, likeDelta, 0);
 
             return ResponseEntity.ok(Map.of("status", "OK"));
         } catch (Exception e) {
@@ -171,37 +347,17 @@ public class ProblemController {
         }
 
         try {
-            List<?> userResult = entityManager.createNativeQuery("SELECT id FROM users WHERE userid = ?1")
-                    .setParameter(1, userId)
-                    .getResultList();
+            Optional<Long> userResult = userIdCacheService.find(userId);
 
             if (userResult.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("status", "ERROR", "message", "사용자 없음"));
             }
 
-            Long internalUserId = ((Number) userResult.get(0)).longValue();
-
-            List<?> existing = entityManager.createNativeQuery(
-                            "SELECT id FROM user_problem_status WHERE user_id = ?1 AND problem_id = ?2")
-                    .setParameter(1, internalUserId)
-                    .setParameter(2, problemId)
-                    .getResultList();
-
-            if (existing.isEmpty()) {
-                entityManager.createNativeQuery(
-                                "INSERT INTO user_problem_status (user_id, problem_id, is_scrapped) VALUES (?1, ?2, ?3)")
-                        .setParameter(1, internalUserId)
-                        .setParameter(2, problemId)
-                        .setParameter(3, scrapped ? 1 : 0)
-                        .executeUpdate();
-            } else {
-                entityManager.createNativeQuery(
-                                "UPDATE user_problem_status SET is_scrapped = ?1 WHERE user_id = ?2 AND problem_id = ?3")
-                        .setParameter(1, scrapped ? 1 : 0)
-                        .setParameter(2, internalUserId)
-                        .setParameter(3, problemId)
-                        .executeUpdate();
-            }
+            Long internalUserId = userResult.get();
+
+            // 값이 실제로 바뀐 경우에만 problem_stats 증감분이 생김 (동시 요청에도 한 번만 반영)
+            int scrapDelta = userProblemStatusService.setFlag(internalUserId, problemId, UserProblemStatusService.Flag.SCRAPPED, scrapped);
+            problemStatsService.adjust(problemId, 0, scrapDelta);
 
             return ResponseEntity.ok(Map.of("status", "OK"));
         } catch (Exception e) {
@@ -210,108 +366,131 @@ public class ProblemController {
         }
     }
 
+    // 인기 문제 순위 기본/최대 문제 수
+    private static final int DEFAULT_TRENDING_LIMIT = 10;
+    private static final int MAX_TRENDING_LIMIT = 50;
+
+    // --- 인기 문제 순위 API (좋아요/스크랩 수 기준, 메모리에서 응답) ---
+    // metric: likes(기본) 또는 scraps, category: 태그 이름 (없거나 #전체면 전체 순위)
+    @GetMapping("/api/problems/trending")
+    public ResponseEntity<List<TrendingProblem>> getTrendingProblems(
+            @RequestParam(defaultValue = "likes") String metric,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Integer limit
+    ) {
+        TrendingService.Metric rankingMetric;
+        if ("likes".equals(metric)) {
+            rankingMetric = TrendingService.Metric.LIKES;
+        } else if ("scraps".equals(metric)) {
+            rankingMetric = TrendingService.Metric.SCRAPS;
+        } else {
+            return ResponseEntity.badRequest().body(null);
+        }
+
+        Long categoryId = null;
+        if (category != null && !category.equals("#전체")) {
+            Optional<CategoryCacheService.Category> filter = categoryCacheService.findByTagName(category);
+            if (filter.isEmpty()) {
+                return ResponseEntity.ok(new ArrayList<>());
+            }
+            categoryId = filter.get().id();
+        }
+
+        int size = Math.min(Math.max(limit != null ? limit : DEFAULT_TRENDING_LIMIT, 1), MAX_TRENDING_LIMIT);
+        return ResponseEntity.ok(trendingService.top(rankingMetric, categoryId, size));
+    }
+
     // --- 문제 상세 조회 API (color_code 추가) ---
+    // 문제 내용(제목, 설명, 카테고리, 카드)은 캐시에서, 좋아요/스크랩 수와 사용자별 상태는 DB에서 조회하여 합칩니다.
     @GetMapping("/api/problems/{id}")
-    public ResponseEntity<Map<String, Object>> getProblemDetail(
+    public ResponseEntity<?> getProblemDetail(
             @PathVariable Long id,
             @RequestParam(required = false) String currentUserId) {
         try {
-            StringBuilder sql = new StringBuilder(
-                    "SELECT p.id, p.title, p.description, u.username AS author_name, u.userid AS author_id, p.card_count, " +
-                            "COALESCE((SELECT COUNT(*) FROM user_problem_status ups2 WHERE ups2.problem_id = p.id AND ups2.is_liked = 1), 0) AS likes, " +
-                            "COALESCE((SELECT COUNT(*) FROM user_problem_status ups2 WHERE ups2.problem_id = p.id AND ups2.is_scrapped = 1), 0) AS scraps, " +
-                            "IFNULL(ups.is_liked, 0) AS liked, " +
-                            "IFNULL(ups.is_scrapped, 0) AS scrapped " +
-                            "FROM problems p " +
-                            "JOIN users u ON p.author_id = u.id " +
-                            "LEFT JOIN user_problem_status ups ON ups.problem_id = p.id AND ups.user_id = (SELECT id FROM users WHERE userid = :currentUserId) " +
-                            "WHERE p.id = :id"
-            );
-
-            var queryObj = entityManager.createNativeQuery(sql.toString());
-            queryObj.setParameter("id", id);
-            if (currentUserId == null) currentUserId = "";
-            queryObj.setParameter("currentUserId", currentUserId);
-
-            List<Object[]> problemResults = queryObj.getResultList();
-            if (problemResults.isEmpty()) {
+            Optional<ProblemContentCacheService.CachedContent> content = problemContentCacheService.get(id);
+            if (content.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("status", "ERROR", "message", "문제를 찾을 수 없음"));
             }
 
-            Object[] row = problemResults.get(0);
-            Map<String, Object> response = new HashMap<>();
-            response.put("id", ((Number) row[0]).longValue());
-            response.put("title", row[1]);
-            response.put("description", row[2]);
-            response.put("author", row[3]);
-            response.put("authorId", row[4]);
-            response.put("cardCount", row[5]);
-            response.put("likes", row[6]);
-            response.put("scraps", row[7]);
-            response.put("liked", ((Number) row[8]).intValue() == 1);
-            response.put("scrapped", ((Number) row[9]).intValue() == 1);
-
-            // 카테고리 조회 (tag_name과 color_code 포함)
-            List<?> categoryResults = entityManager.createNativeQuery(
-                            "SELECT c.tag_name, c.color_code FROM problem_categories pc " +
-                                    "JOIN categories c ON pc.category_id = c.id " +
-                                    "WHERE pc.problem_id = ?1")
-                    .setParameter(1, id)
-                    .getResultList();
-
-            // List<Map<String, String>> 형태로 변환
-            List<Map<String, String>> categoriesWithColor = new ArrayList<>();
-            for (Object result : categoryResults) {
-                Object[] categoryRow = (Object[]) result;
-                Map<String, String> categoryMap = new HashMap<>();
-                categoryMap.put("tag_name", categoryRow[0].toString());
-                categoryMap.put("color_code", categoryRow[1] != null ? categoryRow[1].toString() : "#CCCCCC"); // null 처리 및 기본값
-                categoriesWithColor.add(categoryMap);
+            return ResponseEntity.ok(new ProblemDetail(content.get().content(), loadUserProblemStatus(id, currentUserId)));
+
+        } catch (Exception e) {
+            log.error("문제 상세 조회 중 오류 발생: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("status", "ERROR", "message", "서버 오류"));
+        }
+    }
+
+    // --- 문제 내용 조회 API (사용자와 무관한 내용만, ETag / If-None-Match 지원) ---
+    // 내용이 바뀌지 않았으면 304 Not Modified를 본문 없이 반환하므로 재조회 시 DB 조회와 전송량이 없습니다.
+    @GetMapping("/api/problems/{id}/content")
+    public ResponseEntity<byte[]> getProblemContent(@PathVariable Long id, WebRequest webRequest) {
+        try {
+            Optional<ProblemContentCacheService.CachedContent> content = problemContentCacheService.get(id);
+            if (content.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
             }
-            response.put("categories", categoriesWithColor);
-
-            // 카드 리스트 조회 (정답 컬럼은 'correct'임, 'answer' 아님)
-            List<?> cardResults = entityManager.createNativeQuery(
-                            "SELECT question, correct, image_url FROM cards WHERE problem_id = ?1 ORDER BY id ASC")
-                    .setParameter(1, id)
-                    .getResultList();
-
-            List<Map<String, Object>> cards = new ArrayList<>();
-            for (Object result : cardResults) {
-                Object[] cardRow = (Object[]) result;
-                Map<String, Object> card = new HashMap<>();
-                card.put("question", cardRow[0]);
-                card.put("answer", cardRow[1]);
-                card.put("image_url", cardRow[2]);
-                cards.add(card);
+            if (webRequest.checkNotModified(content.get().etag())) {
+                return null; // 304 응답은 checkNotModified가 작성
             }
+            return ResponseEntity.ok()
+                    .eTag(content.get().etag())
+                    .cacheControl(CacheControl.noCache())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(content.get().json());
+        } catch (Exception e) {
+            log.error("문제 내용 조회 중 오류 발생: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
 
-            response.put("cards", cards);
-            return ResponseEntity.ok(response);
-
+    // --- 문제별 사용자 상태 조회 API (좋아요/스크랩 수, 현재 사용자의 좋아요/스크랩 여부) ---
+    @GetMapping("/api/problems/{id}/user-status")
+    public ResponseEntity<?> getProblemUserStatus(
+            @PathVariable Long id,
+            @RequestParam(required = false) String currentUserId) {
+        try {
+            return ResponseEntity.ok(loadUserProblemStatus(id, currentUserId));
         } catch (Exception e) {
-            log.error("문제 상세 조회 중 오류 발생: {}", e.getMessage(), e);
+            log.error("문제 사용자 상태 조회 중 오류 발생: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("status", "ERROR", "message", "서버 오류"));
         }
     }
 
+    // 문제의 좋아요/스크랩 수와 현재 사용자의 좋아요/스크랩 여부를 조회합니다.
+    private ProblemUserStatus loadUserProblemStatus(Long id, String currentUserId) {
+        List<Object[]> results = entityManager.createNativeQuery(
+                        "SELECT COALESCE(ps.like_count, 0) AS likes, " +
+                                "COALESCE(ps.scrap_count, 0) AS scraps, " +
+                                "IFNULL(ups.is_liked, 0) AS liked, " +
+                                "IFNULL(ups.is_scrapped, 0) AS scrapped " +
+                                "FROM problems p " +
+                                "LEFT JOIN problem_stats ps ON ps.problem_id = p.id " +
+                                "LEFT JOIN user_problem_status ups ON ups.problem_id = p.id AND ups.user_id = :currentUserInternalId " +
+                                "WHERE p.id = :id")
+                .setParameter("id", id)
+                .setParameter("currentUserInternalId", userIdCacheService.find(currentUserId).orElse(-1L))
+                .getResultList();
+
+        if (results.isEmpty()) {
+            return ProblemUserStatus.NONE;
+        }
+        Object[] row = results.get(0);
+        return new ProblemUserStatus(
+                ((Number) row[0]).longValue(),
+                ((Number) row[1]).longValue(),
+                ((Number) row[2]).intValue() == 1,
+                ((Number) row[3]).intValue() == 1);
+    }
+
     // --- 새로운 API: 카테고리 목록 조회 (color_code 추가) ---
     @GetMapping("/api/categories")
-    public ResponseEntity<List<Map<String, Object>>> getAllCategories() {
+    public ResponseEntity<List<CategoryItem>> getAllCategories() {
         try {
-            // SQL 쿼리에 color_code 컬럼 추가
-            List<?> results = entityManager.createNativeQuery("SELECT id, tag_name, color_code FROM categories ORDER BY tag_name ASC")
-                    .getResultList();
-
-            List<Map<String, Object>> categories = new ArrayList<>();
-            for (Object result : results) {
-                Object[] row = (Object[]) result;
-                Map<String, Object> categoryMap = new HashMap<>();
-                categoryMap.put("id", ((Number) row[0]).longValue());
-                categoryMap.put("tag_name", row[1].toString());
-                // color_code 추가
-                categoryMap.put("color_code", row[2] != null ? row[2].toString() : "#CCCCCC"); // null 처리 및 기본값 설정
-                categories.add(categoryMap);
+            // 카테고리 캐시에서 조회 (tag_name 오름차순)
+            List<CategoryCacheService.Category> all = categoryCacheService.getAll();
+            List<CategoryItem> categories = new ArrayList<>(all.size());
+            for (CategoryCacheService.Category category : all) {
+                categories.add(new CategoryItem(category.id(), category.tagName(), category.colorCode()));
             }
             return ResponseEntity.ok(categories);
         } catch (Exception e) {
@@ -320,130 +499,187 @@ public class ProblemController {
         }
     }
 
-    // --- 새로운 API: 문제 생성 (변경 없음) ---
+    // --- 새로운 API: 문제 생성 (카드/카테고리는 JDBC 배치로 저장) ---
     @PostMapping("/api/problems")
     public ResponseEntity<Map<String, String>> createProblem(@RequestBody Map<String, Object> requestBody) {
         Map<String, String> response = new HashMap<>();
         try {
             // 1. 요청 데이터 파싱 및 기본 유효성 검사
-            String title = (String) requestBody.get("title");
             String authorIdString = (String) requestBody.get("author_id");
-            String description = (String) requestBody.get("description");
-
-            Integer isPublicInt = (Integer) requestBody.get("is_public");
-            boolean isPublic = (isPublicInt != null && isPublicInt == 1);
-
-
-            @SuppressWarnings("unchecked")
-            List<Integer> categoryIds = (List<Integer>) requestBody.get("categories");
-            @SuppressWarnings("unchecked")
-            List<Map<String, Object>> cards = (List<Map<String, Object>>) requestBody.get("cards");
-
-            // --- 유효성 검사 로직 (변경 없음) ---
-            if (title == null || title.trim().isEmpty()) {
-                response.put("status", "FAIL");
-                response.put("message", "문제 제목은 필수입니다.");
-                return ResponseEntity.badRequest().body(response);
-            }
             if (authorIdString == null || authorIdString.trim().isEmpty()) {
                 response.put("status", "FAIL");
                 response.put("message", "작성자 정보가 누락되었습니다.");
                 return ResponseEntity.badRequest().body(response);
             }
-            if (categoryIds == null || categoryIds.isEmpty()) {
+            String validationError = validateProblem(requestBody);
+            if (validationError != null) {
                 response.put("status", "FAIL");
-                response.put("message", "태그는 최소 1개 이상 선택해야 합니다.");
+                response.put("message", validationError);
                 return ResponseEntity.badRequest().body(response);
             }
-            if (categoryIds.size() > 3) {
+
+            // 2. Vue의 author_id (userid 문자열)를 실제 users 테이블의 id (Long)로 변환
+            Optional<Long> userResult = userIdCacheService.find(authorIdString);
+            if (userResult.isEmpty()) {
                 response.put("status", "FAIL");
-                response.put("message", "태그는 최대 3개까지 선택할 수 있습니다.");
+                response.put("message", "존재하지 않는 사용자입니다.");
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            }
+
+            // 3. problems, problem_categories, cards 저장
+            Long problemId = problemImportService.create(userResult.get(), toDraft(requestBody));
+
+            response.put("status", "OK");
+            response.put("message", "문제가 성공적으로 생성되었습니다.");
+            response.put("problemId", String.valueOf(problemId));
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+
+        } catch (ClassCastException e) {
+            log.error("문제 생성 중 데이터 타입 캐스팅 오류 발생: {}", e.getMessage(), e);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            response.put("status", "ERROR");
+            response.put("message", "전달된 데이터의 형식이 올바르지 않습니다. (예: 공개 여부, 숫자 캐스팅 오류)");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (Exception e) {
+            log.error("문제 생성 중 서버 오류 발생: {}", e.getMessage(), e);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            response.put("status", "ERROR");
+            response.put("message", "문제 생성 중 서버 오류가 발생했습니다: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    // --- 새로운 API: 문제 일괄 생성 (여러 문제 세트를 한 트랜잭션으로 저장) ---
+    // 요청: { "author_id": "...", "problems": [ { title, description, is_public, categories, cards }, ... ] }
+    @PostMapping("/api/problems/bulk")
+    public ResponseEntity<Map<String, Object>> createProblemsInBulk(@RequestBody Map<String, Object> requestBody) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            String authorIdString = (String) requestBody.get("author_id");
+            @SuppressWarnings("unchecked")
+            List<Map<String, Object>> problems = (List<Map<String, Object>>) requestBody.get("problems");
+
+            if (authorIdString == null || authorIdString.trim().isEmpty()) {
+                response.put("status", "FAIL");
+                response.put("message", "작성자 정보가 누락되었습니다.");
                 return ResponseEntity.badRequest().body(response);
             }
-            if (cards == null || cards.isEmpty()) {
+            if (problems == null || problems.isEmpty()) {
                 response.put("status", "FAIL");
-                response.put("message", "카드는 최소 1개 이상 추가해야 합니다.");
+                response.put("message", "문제는 최소 1개 이상 포함해야 합니다.");
                 return ResponseEntity.badRequest().body(response);
             }
-            for (Map<String, Object> card : cards) {
-                String question = (String) card.get("question");
-                String answer = (String) card.get("answer");
-                if (question == null || question.trim().isEmpty() || answer == null || answer.trim().isEmpty()) {
+
+            // 전체 유효성 검사를 먼저 수행하여 일부만 저장되는 일이 없도록 함
+            List<ProblemImportService.ProblemDraft> drafts = new ArrayList<>(problems.size());
+            for (int i = 0; i < problems.size(); i++) {
+                String validationError = validateProblem(problems.get(i));
+                if (validationError != null) {
                     response.put("status", "FAIL");
-                    response.put("message", "모든 카드에 질문과 정답을 입력해주세요.");
+                    response.put("index", i);
+                    response.put("message", validationError);
                     return ResponseEntity.badRequest().body(response);
                 }
+                drafts.add(toDraft(problems.get(i)));
             }
-            // --- 유효성 검사 로직 끝 ---
-
-            // 2. Vue의 author_id (userid 문자열)를 실제 users 테이블의 id (Long)로 변환
-            Long authorInternalId;
-            List<?> userResult = entityManager.createNativeQuery("SELECT id FROM users WHERE userid = ?1")
-                    .setParameter(1, authorIdString)
-                    .getResultList();
 
+            Optional<Long> userResult = userIdCacheService.find(authorIdString);
             if (userResult.isEmpty()) {
                 response.put("status", "FAIL");
                 response.put("message", "존재하지 않는 사용자입니다.");
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
             }
-            authorInternalId = ((Number) userResult.get(0)).longValue();
-
-            // 3. problems 테이블에 문제 삽입
-            String insertProblemSql = "INSERT INTO problems (title, description, author_id, card_count, is_public) VALUES (?1, ?2, ?3, ?4, ?5)";
-            entityManager.createNativeQuery(insertProblemSql)
-                    .setParameter(1, title)
-                    .setParameter(2, description != null && !description.isEmpty() ? description : null)
-                    .setParameter(3, authorInternalId)
-                    .setParameter(4, cards.size())
-                    .setParameter(5, isPublic ? 1 : 0)
-                    .executeUpdate();
-
-            // 삽입된 문제의 ID 조회 (auto_increment 된 ID)
-            // Long으로 직접 캐스팅하거나 Number로 받은 후 longValue()를 사용
-            // 기존: BigInteger problemIdBigInt = (BigInteger) entityManager.createNativeQuery("SELECT LAST_INSERT_ID()").getSingleResult();
-            Number lastInsertId = (Number) entityManager.createNativeQuery("SELECT LAST_INSERT_ID()").getSingleResult();
-            Long problemId = lastInsertId.longValue(); // Number에서 longValue()를 호출하여 안전하게 Long으로 변환
-
-
-            // 4. problem_categories 테이블에 카테고리 연결
-            String insertProblemCategorySql = "INSERT INTO problem_categories (problem_id, category_id) VALUES (?1, ?2)";
-            for (Integer categoryId : categoryIds) {
-                entityManager.createNativeQuery(insertProblemCategorySql)
-                        .setParameter(1, problemId)
-                        .setParameter(2, categoryId.longValue())
-                        .executeUpdate();
-            }
 
-            // 5. cards 테이블에 학습 카드 삽입
-            String insertCardSql = "INSERT INTO cards (problem_id, question, correct, image_url) VALUES (?1, ?2, ?3, ?4)";
-            for (Map<String, Object> card : cards) {
-                String question = (String) card.get("question");
-                String correct = (String) card.get("answer");
-                String imageUrl = (String) card.get("image_url");
-
-                entityManager.createNativeQuery(insertCardSql)
-                        .setParameter(1, problemId)
-                        .setParameter(2, question)
-                        .setParameter(3, correct)
-                        .setParameter(4, imageUrl != null && !imageUrl.isEmpty() ? imageUrl : null)
-                        .executeUpdate();
-            }
+            long startedAt = System.nanoTime();
+            List<Long> problemIds = problemImportService.createAll(userResult.get(), drafts);
+            long elapsedNanos = Math.max(System.nanoTime() - startedAt, 1);
+
+            int cardCount = drafts.stream().mapToInt(draft -> draft.cards().size()).sum();
+            long cardsPerSecond = Math.round(cardCount * 1_000_000_000.0 / elapsedNanos);
+            log.info("문제 일괄 생성 완료: problems={}, cards={}, elapsed={}ms, throughput={} cards/s",
+                    problemIds.size(), cardCount, elapsedNanos / 1_000_000, cardsPerSecond);
 
             response.put("status", "OK");
-            response.put("message", "문제가 성공적으로 생성되었습니다.");
+            response.put("message", problemIds.size() + "개의 문제가 성공적으로 생성되었습니다.");
+            response.put("problemIds", problemIds);
+            response.put("cardCount", cardCount);
+            response.put("elapsedMs", elapsedNanos / 1_000_000);
+            response.put("cardsPerSecond", cardsPerSecond);
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
 
         } catch (ClassCastException e) {
-            log.error("문제 생성 중 데이터 타입 캐스팅 오류 발생: {}", e.getMessage(), e);
+            log.error("문제 일괄 생성 중 데이터 타입 캐스팅 오류 발생: {}", e.getMessage(), e);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             response.put("status", "ERROR");
             response.put("message", "전달된 데이터의 형식이 올바르지 않습니다. (예: 공개 여부, 숫자 캐스팅 오류)");
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
         } catch (Exception e) {
-            log.error("문제 생성 중 서버 오류 발생: {}", e.getMessage(), e);
+            log.error("문제 일괄 생성 중 서버 오류 발생: {}", e.getMessage(), e);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             response.put("status", "ERROR");
-            response.put("message", "문제 생성 중 서버 오류가 발생했습니다: " + e.getMessage());
+            response.put("message", "문제 일괄 생성 중 서버 오류가 발생했습니다: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
-}
\ No newline at end of file
+
+    // 문제 한 세트의 유효성을 검사하고, 오류가 있으면 사용자에게 보여줄 메시지를 반환합니다. (문제가 없으면 null)
+    @SuppressWarnings("unchecked")
+    private String validateProblem(Map<String, Object> problem) {
+        String title = (String) problem.get("title");
+        List<Integer> categoryIds = (List<Integer>) problem.get("categories");
+        List<Map<String, Object>> cards = (List<Map<String, Object>>) problem.get("cards");
+
+        if (title == null || title.trim().isEmpty()) {
+            return "문제 제목은 필수입니다.";
+        }
+        if (categoryIds == null || categoryIds.isEmpty()) {
+            return "태그는 최소 1개 이상 선택해야 합니다.";
+        }
+        if (categoryIds.size() > 3) {
+            return "태그는 최대 3개까지 선택할 수 있습니다.";
+        }
+        for (Integer categoryId : categoryIds) {
+            if (categoryCacheService.findById(categoryId.longValue()).isEmpty()) {
+                return "존재하지 않는 태그입니다.";
+            }
+        }
+        if (cards == null || cards.isEmpty()) {
+            return "카드는 최소 1개 이상 추가해야 합니다.";
+        }
+        for (Map<String, Object> card : cards) {
+            String question = (String) card.get("question");
+            String answer = (String) card.get("answer");
+            if (question == null || question.trim().isEmpty() || answer == null || answer.trim().isEmpty()) {
+                return "모든 카드에 질문과 정답을 입력해주세요.";
+            }
+        }
+        return null;
+    }
+
+    // 요청 맵을 저장용 ProblemDraft로 변환합니다. (validateProblem 통과 후 호출)
+    @SuppressWarnings("unchecked")
+    private ProblemImportService.ProblemDraft toDraft(Map<String, Object> problem) {
+        Integer isPublicInt = (Integer) problem.get("is_public");
+        boolean isPublic = (isPublicInt != null && isPublicInt == 1);
+
+        List<Long> categoryIds = new ArrayList<>();
+        for (Integer categoryId : (List<Integer>) problem.get("categories")) {
+            categoryIds.add(categoryId.longValue());
+        }
+
+        List<ProblemImportService.CardDraft> cards = new ArrayList<>();
+        for (Map<String, Object> card : (List<Map<String, Object>>) problem.get("cards")) {
+            cards.add(new ProblemImportService.CardDraft(
+                    (String) card.get("question"),
+                    (String) card.get("answer"),
+                    (String) card.get("image_url")));
+        }
+
+        return new ProblemImportService.ProblemDraft(
+                (String) problem.get("title"),
+                (String) problem.get("description"),
+                isPublic,
+                categoryIds,
+                cards);
+    }
+}
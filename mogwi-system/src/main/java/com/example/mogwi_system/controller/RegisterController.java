@@ -1,17 +1,20 @@
 package com.example.mogwi_system.controller;
 
+import com.example.mogwi_system.service.MailDispatchService;
+import com.example.mogwi_system.service.UserIdCacheService;
+import com.example.mogwi_system.service.verification.VerificationCodeStore;
+import com.example.mogwi_system.support.TransactionCallbacks;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.Query;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.LocalDateTime;
+import java.time.Duration;
 import java.util.*;
 
 @RestController
@@ -23,9 +26,16 @@ public class RegisterController {
     private EntityManager entityManager;
 
     @Autowired
-    private JavaMailSender mailSender;
+    private MailDispatchService mailDispatchService;
 
-    private final Map<String, VerificationInfo> verificationMap = new HashMap<>();
+    @Autowired
+    private UserIdCacheService userIdCacheService;
+
+    @Autowired
+    private VerificationCodeStore verificationCodeStore;
+
+    // 인증코드 유효 시간
+    private static final Duration CODE_TTL = Duration.ofMinutes(3);
 
     // 이메일 인증코드 전송
     @PostMapping("/api/send-email-code")
@@ -44,26 +54,29 @@ public class RegisterController {
 
         // 인증코드 : 숫자 + 대문자 영어 6자리 생성
         String code = generateCode();
-        LocalDateTime expire = LocalDateTime.now().plusMinutes(3);
-
-        verificationMap.put(usermail, new VerificationInfo(code, expire));
+        verificationCodeStore.save(usermail, code, CODE_TTL);
+
+        // 이메일 발송은 메일 디스패처 큐에 등록하고 바로 응답 (클라이언트는 jobId로 발송 상태를 조회할 수 있음)
+        String jobId = mailDispatchService.submit(
+                usermail,
+                "[모귀] 회원가입 인증코드",
+                "인증코드는 다음과 같습니다:\n\n" + code + "\n\n3분 내에 입력해주세요.");
+        if (jobId == null) {
+            return ResponseEntity.ok(Map.of("status", "FAIL", "message", "인증코드 전송 요청이 많습니다. 잠시 후 다시 시도해주세요."));
+        }
 
-        // 이메일 발송
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(usermail);
-            message.setSubject("[모귀] 회원가입 인증코드");
-            message.setText("인증코드는 다음과 같습니다:\n\n" + code + "\n\n3분 내에 입력해주세요.");
-            mailSender.send(message);
-
-            log.info("인증코드 발송 완료 - {} : {}", usermail, code);
-            return ResponseEntity.ok(Map.of("status", "OK"));
-        } catch (Exception e) {
-            log.error("인증코드 전송 실패)", e);
-            System.out.println("ENV USER: " + System.getenv("SPRING_MAIL_USERMAIL"));
+        log.info("인증코드 발송 요청 등록 - {} (jobId: {})", usermail, jobId);
+        return ResponseEntity.ok(Map.of("status", "OK", "jobId", jobId));
+    }
 
-            return ResponseEntity.ok(Map.of("status", "FAIL", "message", "인증코드 전송 실패"));
+    // 인증코드 메일 발송 상태 조회 (QUEUED, SENDING, SENT, FAILED)
+    @GetMapping("/api/send-email-code/{jobId}")
+    public ResponseEntity<?> getEmailCodeStatus(@PathVariable String jobId) {
+        MailDispatchService.MailStatus mailStatus = mailDispatchService.getStatus(jobId);
+        if (mailStatus == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("status", "NOT_FOUND"));
         }
+        return ResponseEntity.ok(Map.of("status", "OK", "mailStatus", mailStatus.name()));
     }
 
     // 인증 코드 생성
@@ -77,35 +90,25 @@ public class RegisterController {
         return sb.toString();
     }
 
-    // ⚙️ 내부 인증정보 클래스
-    static class VerificationInfo {
-        String code;
-        LocalDateTime expire;
-
-        VerificationInfo(String code, LocalDateTime expire) {
-            this.code = code;
-            this.expire = expire;
-        }
-    }
-
     // 인증코드 확인
     @PostMapping("/api/verify-email-code")
     public ResponseEntity<?> verifyEmailCode(@RequestBody Map<String, String> body) {
         String usermail = body.get("usermail");
         String inputCode = body.get("code");
 
-        VerificationInfo info = verificationMap.get(usermail);
-        // 정보 비어있는 경우 또는 타이머 오버
-        if (info == null || LocalDateTime.now().isAfter(info.expire)) {
-            return ResponseEntity.ok(Map.of("status", "EXPIRED"));
-        }
+        // 정보 비어있는 경우 또는 타이머 오버 -> EXPIRED, 코드 불일치 -> FAIL (일치한 코드는 일회용으로 제거됨)
+        VerificationCodeStore.VerifyResult result = verificationCodeStore.verify(usermail, inputCode);
+        return switch (result) {
+            case OK -> ResponseEntity.ok(Map.of("status", "OK"));
+            case MISMATCH -> ResponseEntity.ok(Map.of("status", "FAIL"));
+            case EXPIRED -> ResponseEntity.ok(Map.of("status", "EXPIRED"));
+        };
+    }
 
-        // 사용자가 입력한 코드가 동일한 경우
-        if (info.code.equals(inputCode)) {
-            return ResponseEntity.ok(Map.of("status", "OK"));
-        } else {
-            return ResponseEntity.ok(Map.of("status", "FAIL"));
-        }
+    // 인증코드 저장소 상태 조회 (항목 수, 적중률, 만료/제거 수)
+    @GetMapping("/api/verify-email-code/stats")
+    public ResponseEntity<?> getVerificationStats() {
+        return ResponseEntity.ok(verificationCodeStore.getStats());
     }
 
     // 회원가입
@@ -137,6 +140,9 @@ public class RegisterController {
 
             int result = insertQuery.executeUpdate();
             if (result > 0) {
+                // "존재하지 않는 사용자"로 캐시된 항목이 남지 않도록 무효화 (커밋 전 재조회 대비 커밋 후에도 한 번 더)
+                userIdCacheService.invalidate(userid);
+                TransactionCallbacks.afterCommit(() -> userIdCacheService.invalidate(userid));
                 return ResponseEntity.ok(Map.of("status", "OK"));
             } else {
                 return ResponseEntity.ok(Map.of("status", "FAIL"));
@@ -1,10 +1,16 @@
 package com.example.mogwi_system.controller;
 
+import com.example.mogwi_system.dto.DailyStudyRecord;
+import com.example.mogwi_system.dto.MonthlyStudyRecord;
+import com.example.mogwi_system.dto.StudySummary;
+import com.example.mogwi_system.dto.WeeklyStudyRecord;
+import com.example.mogwi_system.service.UserIdCacheService;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -29,14 +35,14 @@ public class ReportController {
     @PersistenceContext
     private EntityManager entityManager;
 
+    @Autowired
+    private UserIdCacheService userIdCacheService;
+
     // Helper method: 외부 사용자 ID로 내부 사용자 ID를 조회
     private Long getInternalUserId(String userId) throws NoResultException {
         log.info("ReportController: 외부 사용자 ID '{}'에 대한 내부 ID 조회 시도", userId);
         try {
-            Object result = entityManager.createNativeQuery("SELECT id FROM users WHERE userid = ?1")
-                    .setParameter(1, userId)
-                    .getSingleResult();
-            return ((Number) result).longValue();
+            return userIdCacheService.resolve(userId);
         } catch (NoResultException e) {
             log.warn("ReportController: 외부 사용자 ID '{}'에 해당하는 내부 사용자를 찾을 수 없음", userId);
             throw e;
@@ -54,10 +60,9 @@ public class ReportController {
      * @return 학습 요약 데이터 (perfect, vague, forgotten, total 카드 수)
      */
     @GetMapping("/summary/{userId}")
-    public ResponseEntity<Map<String, Object>> getOverallStudySummary(
+    public ResponseEntity<?> getOverallStudySummary(
             @PathVariable String userId) {
         log.info("ReportController - getOverallStudySummary 호출됨: userId={}", userId);
-        Map<String, Object> response = new HashMap<>();
         Long internalUserId;
 
         try {
@@ -88,14 +93,14 @@ public class ReportController {
                     .setParameter(1, internalUserId)
                     .getSingleResult();
 
-            response.put("perfect", result[0] != null ? ((Number) result[0]).intValue() : 0);
-            response.put("vague", result[1] != null ? ((Number) result[1]).intValue() : 0);
-            response.put("forgotten", result[2] != null ? ((Number) result[2]).intValue() : 0);
-            response.put("total", result[3] != null ? ((Number) result[3]).intValue() : 0);
+            StudySummary summary = new StudySummary(
+                    result[0] != null ? ((Number) result[0]).intValue() : 0,
+                    result[1] != null ? ((Number) result[1]).intValue() : 0,
+                    result[2] != null ? ((Number) result[2]).intValue() : 0,
+                    result[3] != null ? ((Number) result[3]).intValue() : 0);
 
-            log.info("ReportController - getOverallStudySummary 성공: userId={}, perfect={}, vague={}, forgotten={}, total={}",
-                    userId, response.get("perfect"), response.get("vague"), response.get("forgotten"), response.get("total"));
-            return ResponseEntity.ok(response);
+            log.info("ReportController - getOverallStudySummary 성공: userId={}, {}", userId, summary);
+            return ResponseEntity.ok(summary);
 
         } catch (Exception e) {
             log.error("ReportController - getOverallStudySummary: 학습 요약 조회 중 오류 발생 (internalUserId: {}): {}", internalUserId, e.getMessage(), e);
@@ -112,10 +117,10 @@ public class ReportController {
      * @return 일별 학습 기록 목록 (date, perfect, vague, forgotten)
      */
     @GetMapping("/daily-records/{userId}")
-    public ResponseEntity<List<Map<String, Object>>> getDailyStudyRecords(
+    public ResponseEntity<List<DailyStudyRecord>> getDailyStudyRecords(
             @PathVariable String userId) {
         log.info("ReportController - getDailyStudyRecords 호출됨: userId={}", userId);
-        List<Map<String, Object>> dailyRecords = new ArrayList<>();
+        List<DailyStudyRecord> dailyRecords = new ArrayList<>();
         Long internalUserId;
 
         try {
@@ -134,32 +139,24 @@ public class ReportController {
         }
 
         try {
-            // 최근 1년간의 데이터만 조회하도록 제한 (성능 고려)
+            // 최근 1년간의 데이터만 조회하도록 제한 (user_daily_study 기본 키 범위 조회)
             LocalDate oneYearAgo = LocalDate.now().minusYears(1);
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
             String sql = "SELECT " +
-                    "DATE_FORMAT(updated_at, '%Y-%m-%d') AS record_date, " +
-                    "SUM(CASE WHEN card_status = 'perfect' THEN 1 ELSE 0 END) AS perfect_count, " +
-                    "SUM(CASE WHEN card_status = 'vague' THEN 1 ELSE 0 END) AS vague_count, " +
-                    "SUM(CASE WHEN card_status = 'forgotten' THEN 1 ELSE 0 END) AS forgotten_count " +
-                    "FROM user_card_status " +
-                    "WHERE user_id = ?1 AND updated_at >= ?2 " +
-                    "GROUP BY record_date " +
-                    "ORDER BY record_date ASC";
+                    "DATE_FORMAT(study_date, '%Y-%m-%d') AS record_date, " +
+                    "perfect_count, vague_count, forgotten_count " +
+                    "FROM user_daily_study " +
+                    "WHERE user_id = ?1 AND study_date >= ?2 " +
+                    "ORDER BY study_date ASC";
 
             List<Object[]> results = entityManager.createNativeQuery(sql)
                     .setParameter(1, internalUserId)
-                    .setParameter(2, oneYearAgo.format(formatter))
+                    .setParameter(2, oneYearAgo.format(DATE_FORMAT))
                     .getResultList();
 
             for (Object[] row : results) {
-                Map<String, Object> record = new HashMap<>();
-                record.put("date", row[0].toString());
-                record.put("perfect", ((Number) row[1]).intValue());
-                record.put("vague", ((Number) row[2]).intValue());
-                record.put("forgotten", ((Number) row[3]).intValue());
-                dailyRecords.add(record);
+                dailyRecords.add(new DailyStudyRecord(row[0].toString(),
+                        ((Number) row[1]).intValue(), ((Number) row[2]).intValue(), ((Number) row[3]).intValue()));
             }
 
             log.info("ReportController - getDailyStudyRecords 성공: userId={}에 대해 {}개의 일별 기록 조회됨.", userId, dailyRecords.size());
@@ -172,18 +169,29 @@ public class ReportController {
         }
     }
 
+    // 주간/월간 리포트 기본 및 최대 조회 기간
+    private static final int DEFAULT_WEEKS = 5;
+    private static final int MAX_WEEKS = 52;
+    private static final int DEFAULT_MONTHS = 6;
+    private static final int MAX_MONTHS = 24;
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    // 학습 기록이 없는 기간은 0으로 채움 (읽기 전용)
+    private static final int[] NO_STUDY = {0, 0, 0};
+
     /**
-     * 특정 사용자의 주간 학습 기록을 조회합니다. (최근 5주)
-     * GET /api/report/weekly-records/{userId}
+     * 특정 사용자의 주간 학습 기록을 조회합니다. (기본 최근 5주, 일요일 시작)
+     * GET /api/report/weekly-records/{userId}?weeks=5
      *
      * @param userId 현재 로그인한 사용자의 ID (users 테이블의 userid 필드)
+     * @param weeks  조회할 주 수 (1 ~ 52, 이번 주 포함)
      * @return 주간 학습 기록 목록 (weekStart, perfect, vague, forgotten, total)
      */
     @GetMapping("/weekly-records/{userId}")
-    public ResponseEntity<List<Map<String, Object>>> getWeeklyStudyRecords(
-            @PathVariable String userId) {
-        log.info("ReportController - getWeeklyStudyRecords 호출됨: userId={}", userId);
-        List<Map<String, Object>> weeklyRecords = new ArrayList<>();
+    public ResponseEntity<List<WeeklyStudyRecord>> getWeeklyStudyRecords(
+            @PathVariable String userId,
+            @RequestParam(value = "weeks", required = false) Integer weeks) {
+        log.info("ReportController - getWeeklyStudyRecords 호출됨: userId={}, weeks={}", userId, weeks);
         Long internalUserId;
 
         try {
@@ -202,48 +210,21 @@ public class ReportController {
         }
 
         try {
-            // 현재 날짜를 기준으로 지난 5주를 계산
-            LocalDate today = LocalDate.now();
-            List<LocalDate> weekStarts = new ArrayList<>();
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-
-            // 지난 5주차의 일요일부터 계산
-            for (int i = 0; i < 5; i++) { // Fetch data for the last 5 weeks
-                // Go back 'i' weeks from today
-                // 해당 주의 일요일을 찾습니다. (이전 또는 현재 일요일)
-                LocalDate weekStart = today.minusWeeks(i).with(TemporalAdjusters.previousOrSame(DayOfWeek.SUNDAY));
-                weekStarts.add(weekStart);
-            }
-            // 가장 오래된 주부터 정렬
-            weekStarts.sort(null);
-
-            for (LocalDate weekStart : weekStarts) {
-                // 해당 주의 토요일을 찾습니다. (다음 또는 현재 토요일)
-                LocalDate weekEnd = weekStart.with(TemporalAdjusters.nextOrSame(DayOfWeek.SATURDAY));
-
-                String sql = "SELECT " +
-                        "SUM(CASE WHEN card_status = 'perfect' THEN 1 ELSE 0 END) AS perfect_count, " +
-                        "SUM(CASE WHEN card_status = 'vague' THEN 1 ELSE 0 END) AS vague_count, " +
-                        "SUM(CASE WHEN card_status = 'forgotten' THEN 1 ELSE 0 END) AS forgotten_count " +
-                        "FROM user_card_status " +
-                        "WHERE user_id = ?1 AND updated_at BETWEEN ?2 AND ?3";
-
-                Object[] result = (Object[]) entityManager.createNativeQuery(sql)
-                        .setParameter(1, internalUserId)
-                        .setParameter(2, weekStart.format(formatter) + " 00:00:00") // 시작일 00:00:00
-                        .setParameter(3, weekEnd.format(formatter) + " 23:59:59") // 종료일 23:59:59
-                        .getSingleResult();
-
-                Map<String, Object> record = new HashMap<>();
-                record.put("weekStart", weekStart.format(formatter));
-                int perfect = result[0] != null ? ((Number) result[0]).intValue() : 0;
-                int vague = result[1] != null ? ((Number) result[1]).intValue() : 0;
-                int forgotten = result[2] != null ? ((Number) result[2]).intValue() : 0;
-                record.put("perfect", perfect);
-                record.put("vague", vague);
-                record.put("forgotten", forgotten);
-                record.put("total", perfect + vague + forgotten); // 주간 총 학습 카드 수 추가
-                weeklyRecords.add(record);
+            int weekCount = clamp(weeks, DEFAULT_WEEKS, MAX_WEEKS);
+
+            // 이번 주 일요일부터 거슬러 올라가 가장 오래된 주의 일요일을 계산
+            LocalDate thisWeekStart = LocalDate.now().with(TemporalAdjusters.previousOrSame(DayOfWeek.SUNDAY));
+            LocalDate firstWeekStart = thisWeekStart.minusWeeks(weekCount - 1);
+
+            // 모든 주를 한 번의 GROUP BY 쿼리로 집계 (DAYOFWEEK: 일요일 = 1)
+            Map<LocalDate, int[]> counts = aggregateDailyStudy(internalUserId,
+                    "DATE_SUB(study_date, INTERVAL DAYOFWEEK(study_date) - 1 DAY)",
+                    firstWeekStart, thisWeekStart.plusWeeks(1));
+
+            List<WeeklyStudyRecord> weeklyRecords = new ArrayList<>(weekCount);
+            for (LocalDate weekStart = firstWeekStart; !weekStart.isAfter(thisWeekStart); weekStart = weekStart.plusWeeks(1)) {
+                int[] c = counts.getOrDefault(weekStart, NO_STUDY);
+                weeklyRecords.add(new WeeklyStudyRecord(weekStart.format(DATE_FORMAT), c[0], c[1], c[2], c[0] + c[1] + c[2]));
             }
 
             log.info("ReportController - getWeeklyStudyRecords 성공: userId={}에 대해 {}개의 주간 기록 조회됨.", userId, weeklyRecords.size());
@@ -255,4 +236,95 @@ public class ReportController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ArrayList<>());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 특정 사용자의 월간 학습 기록을 조회합니다. (기본 최근 6개월)
+     * GET /api/report/monthly-records/{userId}?months=6
+     *
+     * @param userId 현재 로그인한 사용자의 ID (users 테이블의 userid 필드)
+     * @param months 조회할 개월 수 (1 ~ 24, 이번 달 포함)
+     * @return 월간 학습 기록 목록 (monthStart, perfect, vague, forgotten, total)
+     */
+    @GetMapping("/monthly-records/{userId}")
+    public ResponseEntity<List<MonthlyStudyRecord>> getMonthlyStudyRecords(
+            @PathVariable String userId,
+            @RequestParam(value = "months", required = false) Integer months) {
+        log.info("ReportController - getMonthlyStudyRecords 호출됨: userId={}, months={}", userId, months);
+        Long internalUserId;
+
+        try {
+            if (userId == null || userId.trim().isEmpty()) {
+                log.warn("ReportController - getMonthlyStudyRecords: userId가 null이거나 비어있습니다.");
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ArrayList<>());
+            }
+            internalUserId = getInternalUserId(userId);
+        } catch (NoResultException e) {
+            log.warn("ReportController - getMonthlyStudyRecords: 사용자 ID '{}'를 찾을 수 없음.", userId);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ArrayList<>());
+        } catch (Exception e) {
+            log.error("ReportController - getMonthlyStudyRecords: 사용자 ID 조회 중 예상치 못한 오류 (userId: {}): {}", userId, e.getMessage(), e);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ArrayList<>());
+        }
+
+        try {
+            int monthCount = clamp(months, DEFAULT_MONTHS, MAX_MONTHS);
+
+            LocalDate thisMonthStart = LocalDate.now().withDayOfMonth(1);
+            LocalDate firstMonthStart = thisMonthStart.minusMonths(monthCount - 1);
+
+            Map<LocalDate, int[]> counts = aggregateDailyStudy(internalUserId,
+                    "DATE_FORMAT(study_date, '%Y-%m-01')",
+                    firstMonthStart, thisMonthStart.plusMonths(1));
+
+            List<MonthlyStudyRecord> monthlyRecords = new ArrayList<>(monthCount);
+            for (LocalDate monthStart = firstMonthStart; !monthStart.isAfter(thisMonthStart); monthStart = monthStart.plusMonths(1)) {
+                int[] c = counts.getOrDefault(monthStart, NO_STUDY);
+                monthlyRecords.add(new MonthlyStudyRecord(monthStart.format(DATE_FORMAT), c[0], c[1], c[2], c[0] + c[1] + c[2]));
+            }
+
+            log.info("ReportController - getMonthlyStudyRecords 성공: userId={}에 대해 {}개의 월간 기록 조회됨.", userId, monthlyRecords.size());
+            return ResponseEntity.ok(monthlyRecords);
+
+        } catch (Exception e) {
+            log.error("ReportController - getMonthlyStudyRecords: 월간 학습 기록 조회 중 오류 발생 (internalUserId: {}): {}", internalUserId, e.getMessage(), e);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ArrayList<>());
+        }
+    }
+
+    // [from, toExclusive) 기간의 일별 집계를 bucketExpr 단위로 묶어 한 번에 합산 (버킷 시작일 -> {perfect, vague, forgotten})
+    private Map<LocalDate, int[]> aggregateDailyStudy(Long internalUserId, String bucketExpr, LocalDate from, LocalDate toExclusive) {
+        String sql = "SELECT " +
+                bucketExpr + " AS bucket_start, " +
+                "SUM(perfect_count) AS perfect_count, " +
+                "SUM(vague_count) AS vague_count, " +
+                "SUM(forgotten_count) AS forgotten_count " +
+                "FROM user_daily_study " +
+                "WHERE user_id = ?1 AND study_date >= ?2 AND study_date < ?3 " +
+                "GROUP BY bucket_start";
+
+        List<Object[]> results = entityManager.createNativeQuery(sql)
+                .setParameter(1, internalUserId)
+                .setParameter(2, from.format(DATE_FORMAT))
+                .setParameter(3, toExclusive.format(DATE_FORMAT))
+                .getResultList();
+
+        Map<LocalDate, int[]> counts = new HashMap<>();
+        for (Object[] row : results) {
+            LocalDate bucketStart = LocalDate.parse(row[0].toString().substring(0, 10));
+            counts.put(bucketStart, new int[]{
+                    row[1] != null ? ((Number) row[1]).intValue() : 0,
+                    row[2] != null ? ((Number) row[2]).intValue() : 0,
+                    row[3] != null ? ((Number) row[3]).intValue() : 0});
+        }
+        return counts;
+    }
+
+    private int clamp(Integer requested, int defaultValue, int max) {
+        if (requested == null || requested < 1) {
+            return defaultValue;
+        }
+        return Math.min(requested, max);
+    }
+}
@@ -2,15 +2,25 @@
 
 package com.example.mogwi_system.controller;
 
+import com.example.mogwi_system.dto.CardView;
+import com.example.mogwi_system.dto.DueCard;
+import com.example.mogwi_system.service.CardStatusService;
+import com.example.mogwi_system.service.ImageProcessingService;
+import com.example.mogwi_system.service.JsonStreamingService;
+import com.example.mogwi_system.service.UserIdCacheService;
+import com.example.mogwi_system.service.UserProblemStatusService;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -26,14 +36,26 @@ public class SolveController {
     @PersistenceContext
     private EntityManager entityManager;
 
+    @Autowired
+    private UserIdCacheService userIdCacheService;
+
+    @Autowired
+    private CardStatusService cardStatusService;
+
+    @Autowired
+    private UserProblemStatusService userProblemStatusService;
+
+    @Autowired
+    private JsonStreamingService jsonStreamingService;
+
+    @Autowired
+    private ImageProcessingService imageProcessingService;
+
     // Helper method to get internal user ID from userid
     private Long getInternalUserId(String userId) throws NoResultException {
         log.info("Attempting to get internal ID for external userId: {}", userId);
         try {
-            Object result = entityManager.createNativeQuery("SELECT id FROM users WHERE userid = ?1")
-                    .setParameter(1, userId)
-                    .getSingleResult();
-            return ((Number) result).longValue();
+            return userIdCacheService.resolve(userId);
         } catch (NoResultException e) {
             log.warn("No internal user found for external userId: {}", userId);
             throw e;
@@ -45,60 +67,36 @@ public class SolveController {
 
     /**
      * 특정 문제(problemId)에 속한 카드 목록과 해당 사용자의 학습 상태를 조회합니다.
-     * GET /api/study/{problemId}/solve
+     * GET /api/study/{problemId}/solve?dueOnly=true
      *
      * @param problemId 조회할 문제의 ID
      * @param currentUserId 현재 로그인한 사용자의 ID (users 테이블의 userid 필드)
+     * @param dueOnly true이면 아직 학습하지 않았거나 복습 시점이 지난 카드만 반환 (사용자를 알 때만 적용)
      * @return 문제 카드 목록과 각 카드의 학습 상태를 포함하는 응답
      */
     @GetMapping("/study/{problemId}/solve")
-    public ResponseEntity<List<Map<String, Object>>> getCardsForProblem(
+    public ResponseEntity<List<CardView>> getCardsForProblem(
             @PathVariable Long problemId,
-            @RequestParam(required = false) String currentUserId
+            @RequestParam(required = false) String currentUserId,
+            @RequestParam(defaultValue = "false") boolean dueOnly
     ) {
         try {
             String effectiveCurrentUserId = (currentUserId != null) ? currentUserId : "";
 
-            Long internalUserId = null;
-            if (!effectiveCurrentUserId.isEmpty()) {
-                List<?> userResult = entityManager.createNativeQuery("SELECT id FROM users WHERE userid = ?1")
-                        .setParameter(1, effectiveCurrentUserId)
-                        .getResultList();
-                if (!userResult.isEmpty()) {
-                    internalUserId = ((Number) userResult.get(0)).longValue();
-                }
-            }
-
-            StringBuilder sql = new StringBuilder(
-                    "SELECT c.id, c.question, c.correct, c.image_url, " +
-                            "IFNULL(ucs.card_status, 'new') AS card_status " +
-                            "FROM cards c " +
-                            "LEFT JOIN user_card_status ucs ON c.id = ucs.card_id AND c.problem_id = ucs.problem_id ");
-
-            if (internalUserId != null) {
-                sql.append("AND ucs.user_id = ?2 ");
-            }
-
-            sql.append("WHERE c.problem_id = ?1 " +
-                    "ORDER BY c.id ASC");
+            Long internalUserId = userIdCacheService.find(effectiveCurrentUserId).orElse(null);
 
-            var queryObj = entityManager.createNativeQuery(sql.toString());
-            queryObj.setParameter(1, problemId);
+            var queryObj = entityManager.createNativeQuery(problemCardsSql(internalUserId != null, dueOnly));
+            queryObj.setParameter("problemId", problemId);
             if (internalUserId != null) {
-                queryObj.setParameter(2, internalUserId);
+                queryObj.setParameter("userId", internalUserId);
             }
 
             List<Object[]> results = queryObj.getResultList();
-            List<Map<String, Object>> cards = new ArrayList<>();
+            List<CardView> cards = new ArrayList<>(results.size());
 
             for (Object[] row : results) {
-                Map<String, Object> card = new HashMap<>();
-                card.put("id", ((Number) row[0]).longValue());
-                card.put("question", row[1]);
-                card.put("correct", row[2]);
-                card.put("imageUrl", row[3]);
-                card.put("cardStatus", row[4].toString());
-                cards.add(card);
+                cards.add(CardView.of(((Number) row[0]).longValue(), (String) row[1], (String) row[2],
+                        imageProcessingService.resolve((String) row[3]), row[4].toString()));
             }
 
             if (cards.isEmpty()) {
@@ -112,6 +110,89 @@ public class SolveController {
         }
     }
 
+    /**
+     * getCardsForProblem과 같은 카드 목록을, 결과를 메모리에 모으지 않고 DB에서 읽는 대로 JSON 배열로 씁니다.
+     * 카드가 없으면 204 대신 빈 배열을 반환합니다.
+     * GET /api/study/{problemId}/solve/stream?currentUserId=...&dueOnly=true
+     */
+    @GetMapping(value = "/study/{problemId}/solve/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamCardsForProblem(
+            @PathVariable Long problemId,
+            @RequestParam(required = false) String currentUserId,
+            @RequestParam(defaultValue = "false") boolean dueOnly
+    ) {
+        Long internalUserId = userIdCacheService.find(currentUserId != null ? currentUserId : "").orElse(null);
+        Map<String, Object> params = new HashMap<>();
+        params.put("problemId", problemId);
+        if (internalUserId != null) {
+            params.put("userId", internalUserId);
+        }
+
+        StreamingResponseBody body = jsonStreamingService.streamArray(
+                problemCardsSql(internalUserId != null, dueOnly), params,
+                (rs, json) -> {
+                    json.writeNumberField("id", rs.getLong(1));
+                    json.writeStringField("question", rs.getString(2));
+                    json.writeStringField("correct", rs.getString(3));
+                    ImageProcessingService.VariantUrls image = imageProcessingService.resolve(rs.getString(4));
+                    json.writeStringField("imageUrl", image.card());
+                    json.writeStringField("thumbnailUrl", image.thumbnail());
+                    json.writeStringField("fullImageUrl", image.full());
+                    json.writeStringField("cardStatus", rs.getString(5));
+                });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    // 문제의 카드와 사용자 카드 상태 조회 SQL (사용자를 모르면 모든 카드가 'new')
+    private String problemCardsSql(boolean withUser, boolean dueOnly) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT c.id, c.question, c.correct, c.image_url, " +
+                        "IFNULL(ucs.card_status, 'new') AS card_status " +
+                        "FROM cards c " +
+                        "LEFT JOIN user_card_status ucs ON c.id = ucs.card_id AND c.problem_id = ucs.problem_id ");
+
+        if (withUser) {
+            sql.append("AND ucs.user_id = :userId ");
+        }
+
+        sql.append("WHERE c.problem_id = :problemId ");
+        if (withUser && dueOnly) {
+            sql.append("AND (ucs.id IS NULL OR ucs.due_at <= CURRENT_TIMESTAMP) ");
+        }
+        sql.append("ORDER BY c.id ASC");
+        return sql.toString();
+    }
+
+    // 복습 카드 조회 시 최대 카드 수
+    private static final int MAX_DUE_CARDS = 200;
+
+    /**
+     * 사용자의 복습 시점이 지난 카드를 오래 기다린 순으로 조회합니다. 덱 전체 대신 복습할 카드만 받을 때 사용합니다.
+     * GET /api/study/due-cards/{userId}?problemId=1&limit=50
+     *
+     * @param userId    사용자 ID (users 테이블의 userid 필드)
+     * @param problemId 특정 문제로 한정할 때의 문제 ID (선택)
+     * @param limit     최대 카드 수 (기본 50, 최대 MAX_DUE_CARDS)
+     * @return 복습할 카드 목록 (cards)
+     */
+    @GetMapping("/study/due-cards/{userId}")
+    public ResponseEntity<Map<String, Object>> getDueCards(
+            @PathVariable String userId,
+            @RequestParam(required = false) Long problemId,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            Long internalUserId = getInternalUserId(userId);
+            List<DueCard> cards = cardStatusService.findDueCards(
+                    internalUserId, problemId, Math.min(Math.max(limit, 1), MAX_DUE_CARDS));
+            return ResponseEntity.ok(Map.of("status", "OK", "cards", cards));
+        } catch (NoResultException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("status", "ERROR", "message", "사용자를 찾을 수 없습니다."));
+        } catch (Exception e) {
+            log.error("복습 카드 조회 중 오류 발생 (userId: {}): {}", userId, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("status", "ERROR", "message", "서버 오류: " + e.getMessage()));
+        }
+    }
+
     /**
      * 특정 카드의 사용자 학습 상태를 업데이트합니다.
      * POST /api/solve/{cardId}/status
@@ -124,13 +205,14 @@ public class SolveController {
     public ResponseEntity<Map<String, Object>> updateCardStatus(
             @PathVariable Long cardId,
             @RequestBody Map<String, Object> data) {
+        long startedAt = System.nanoTime();
 
         String userId = (String) data.get("userId");
         String cardStatus = (String) data.get("cardStatus");
         Long problemId = ((Number) data.get("problemId")).longValue();
 
         if (userId == null || cardStatus == null || cardId == null || problemId == null ||
-                (!cardStatus.equals("perfect") && !cardStatus.equals("vague") && !cardStatus.equals("forgotten"))) {
+                !CardStatusService.CARD_STATUSES.contains(cardStatus)) {
             log.warn("updateCardStatus: 유효하지 않은 입력값입니다. userId: {}, cardStatus: {}, cardId: {}, problemId: {}", userId, cardStatus, cardId, problemId);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("status", "ERROR", "message", "유효하지 않은 카드 상태 또는 입력값입니다."));
         }
@@ -148,87 +230,114 @@ public class SolveController {
         }
 
         try {
-            List<?> existingCardStatus = entityManager.createNativeQuery(
-                            "SELECT id FROM user_card_status WHERE user_id = ?1 AND card_id = ?2 AND problem_id = ?3")
-                    .setParameter(1, internalUserId)
-                    .setParameter(2, cardId)
-                    .setParameter(3, problemId)
-                    .getResultList();
+            // 카드 상태 저장, 진행 카운터/학습 이벤트 반영, 문제 상태 저장
+            String newProblemStatus = cardStatusService.applyCardStatuses(internalUserId, problemId,
+                    List.of(new CardStatusService.CardAnswer(cardId, cardStatus)));
+            // 일괄 반영 API(status-batch)와 같은 기준으로 처리량 집계 (/api/solve/status/stats)
+            long elapsedNanos = Math.max(System.nanoTime() - startedAt, 1);
+            cardStatusService.recordThroughput(CardStatusService.WritePath.SINGLE, 1, elapsedNanos);
+            log.debug("카드 상태 단건 반영 완료: cardId={}, elapsed={}µs", cardId, elapsedNanos / 1_000);
 
-            if (existingCardStatus.isEmpty()) {
-                entityManager.createNativeQuery(
-                                "INSERT INTO user_card_status (user_id, card_id, problem_id, card_status, created_at, updated_at) VALUES (?1, ?2, ?3, ?4, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)")
-                        .setParameter(1, internalUserId)
-                        .setParameter(2, cardId)
-                        .setParameter(3, problemId)
-                        .setParameter(4, cardStatus)
-                        .executeUpdate();
-                log.info("user_card_status INSERT됨: userId={}, cardId={}, problemId={}, cardStatus={}", internalUserId, cardId, problemId, cardStatus);
-            } else {
-                entityManager.createNativeQuery(
-                                "UPDATE user_card_status SET card_status = ?1, updated_at = CURRENT_TIMESTAMP WHERE user_id = ?2 AND card_id = ?3 AND problem_id = ?4")
-                        .setParameter(1, cardStatus)
-                        .setParameter(2, internalUserId)
-                        .setParameter(3, cardId)
-                        .setParameter(4, problemId)
-                        .executeUpdate();
-                log.info("user_card_status UPDATE됨: userId={}, cardId={}, problemId={}, cardStatus={}", internalUserId, cardId, problemId, cardStatus);
-            }
+            return ResponseEntity.ok(Map.of("status", "OK", "problemStatus", newProblemStatus));
+        } catch (Exception e) {
+            log.error("카드 학습 상태 및 문제 상태 업데이트 중 오류 발생 (SolveController): {}", e.getMessage(), e);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("status", "ERROR", "message", "서버 오류: " + e.getMessage()));
+        }
+    }
 
-            String checkProblemStatusSql = "SELECT IFNULL(ucs.card_status, 'new') FROM cards c " +
-                    "LEFT JOIN user_card_status ucs ON c.id = ucs.card_id AND ucs.user_id = ?1 " +
-                    "WHERE c.problem_id = ?2";
-            List<String> currentProblemCardStatuses = entityManager.createNativeQuery(checkProblemStatusSql, String.class)
-                    .setParameter(1, internalUserId)
-                    .setParameter(2, problemId)
-                    .getResultList();
+    // 한 번에 반영할 수 있는 최대 카드 답 수
+    private static final int MAX_BATCH_ANSWERS = 1000;
+
+    /**
+     * 한 문제에 대한 여러 카드의 학습 상태를 한 번에 업데이트합니다. (오프라인/빠른 넘기기 클라이언트용)
+     * 이전 상태 조회, 카드 상태 쓰기, 문제 상태 재계산을 카드 수와 관계없이 일정한 수의 쿼리로 처리합니다.
+     * POST /api/solve/problems/{problemId}/status-batch
+     *
+     * @param problemId 문제 ID
+     * @param data      사용자 ID (userId), 입력 순서대로 반영할 답 목록 (answers: [{cardId, cardStatus}, ...])
+     * @return 처리 결과 상태, 문제 상태, 반영 건수와 처리 시간/처리량
+     */
+    @PostMapping("/solve/problems/{problemId}/status-batch")
+    @SuppressWarnings("unchecked")
+    public ResponseEntity<Map<String, Object>> updateCardStatuses(
+            @PathVariable Long problemId,
+            @RequestBody Map<String, Object> data) {
+        long startedAt = System.nanoTime();
+        String userId = (String) data.get("userId");
+        List<Map<String, Object>> rawAnswers = (List<Map<String, Object>>) data.get("answers");
 
-            String newProblemStatus = "completed";
-            boolean hasAnyCardsForProblem = !currentProblemCardStatuses.isEmpty();
+        if (userId == null || rawAnswers == null || rawAnswers.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("status", "ERROR", "message", "사용자 ID 또는 답 목록이 누락되었습니다."));
+        }
+        if (rawAnswers.size() > MAX_BATCH_ANSWERS) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("status", "ERROR", "message", "한 번에 최대 " + MAX_BATCH_ANSWERS + "개의 답까지 반영할 수 있습니다."));
+        }
 
-            if (!hasAnyCardsForProblem) {
-                newProblemStatus = "new";
-            } else {
-                for (String status : currentProblemCardStatuses) {
-                    if (!"perfect".equals(status)) {
-                        newProblemStatus = "ongoing";
-                        break;
-                    }
-                }
+        List<CardStatusService.CardAnswer> answers = new ArrayList<>(rawAnswers.size());
+        for (Map<String, Object> rawAnswer : rawAnswers) {
+            Number cardId = (Number) rawAnswer.get("cardId");
+            String cardStatus = (String) rawAnswer.get("cardStatus");
+            if (cardId == null || cardStatus == null || !CardStatusService.CARD_STATUSES.contains(cardStatus)) {
+                log.warn("updateCardStatuses: 유효하지 않은 답입니다. problemId: {}, answer: {}", problemId, rawAnswer);
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("status", "ERROR", "message", "유효하지 않은 카드 상태 또는 입력값입니다."));
             }
+            answers.add(new CardStatusService.CardAnswer(cardId.longValue(), cardStatus));
+        }
 
-            List<?> existingProblemStatus = entityManager.createNativeQuery(
-                            "SELECT id FROM user_problem_status WHERE user_id = ?1 AND problem_id = ?2")
-                    .setParameter(1, internalUserId)
-                    .setParameter(2, problemId)
-                    .getResultList();
+        Long internalUserId;
+        try {
+            internalUserId = getInternalUserId(userId);
+        } catch (NoResultException e) {
+            log.warn("updateCardStatuses: 사용자 ID '{}'를 찾을 수 없음.", userId);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("status", "ERROR", "message", "사용자를 찾을 수 없습니다."));
+        } catch (Exception e) {
+            log.error("updateCardStatuses: 사용자 ID 조회 중 예상치 못한 오류 (userId: {}): {}", userId, e.getMessage(), e);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("status", "ERROR", "message", "서버 오류: " + e.getMessage()));
+        }
 
-            if (existingProblemStatus.isEmpty()) {
-                entityManager.createNativeQuery(
-                                "INSERT INTO user_problem_status (user_id, problem_id, problem_status, is_liked, is_scrapped, created_at, updated_at) VALUES (?1, ?2, ?3, 0, 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)")
-                        .setParameter(1, internalUserId)
-                        .setParameter(2, problemId)
-                        .setParameter(3, newProblemStatus)
-                        .executeUpdate();
-                log.info("user_problem_status INSERT됨 (카드 상태 기반): userId={}, problemId={}, problemStatus={}", internalUserId, problemId, newProblemStatus);
-            } else {
-                entityManager.createNativeQuery(
-                                "UPDATE user_problem_status SET problem_status = ?1, updated_at = CURRENT_TIMESTAMP WHERE user_id = ?2 AND problem_id = ?3")
-                        .setParameter(1, newProblemStatus)
-                        .setParameter(2, internalUserId)
-                        .setParameter(3, problemId)
-                        .executeUpdate();
-                log.info("user_problem_status UPDATE됨 (카드 상태 기반): userId={}, problemId={}, problemStatus={}", internalUserId, problemId, newProblemStatus);
+        try {
+            // 모든 카드가 해당 문제의 카드인지 한 번에 확인
+            List<Long> cardIds = answers.stream().map(CardStatusService.CardAnswer::cardId).distinct().toList();
+            List<?> problemCardIds = entityManager.createNativeQuery(
+                            "SELECT id FROM cards WHERE problem_id = :problemId AND id IN (:cardIds)")
+                    .setParameter("problemId", problemId)
+                    .setParameter("cardIds", cardIds)
+                    .getResultList();
+            if (problemCardIds.size() != cardIds.size()) {
+                log.warn("updateCardStatuses: 문제에 속하지 않은 카드가 포함됨. problemId={}, requested={}, found={}", problemId, cardIds.size(), problemCardIds.size());
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("status", "ERROR", "message", "문제에 속하지 않은 카드가 포함되어 있습니다."));
             }
 
-            return ResponseEntity.ok(Map.of("status", "OK", "problemStatus", newProblemStatus));
+            String newProblemStatus = cardStatusService.applyCardStatuses(internalUserId, problemId, answers);
+
+            long elapsedNanos = Math.max(System.nanoTime() - startedAt, 1);
+            long answersPerSecond = Math.round(answers.size() * 1_000_000_000.0 / elapsedNanos);
+            cardStatusService.recordThroughput(CardStatusService.WritePath.BATCH, answers.size(), elapsedNanos);
+            log.info("카드 상태 일괄 반영 완료: userId={}, problemId={}, answers={}, elapsed={}ms, throughput={} answers/s",
+                    internalUserId, problemId, answers.size(), elapsedNanos / 1_000_000, answersPerSecond);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "OK");
+            response.put("problemStatus", newProblemStatus);
+            response.put("applied", answers.size());
+            response.put("elapsedMs", elapsedNanos / 1_000_000);
+            response.put("answersPerSecond", answersPerSecond);
+            return ResponseEntity.ok(response);
         } catch (Exception e) {
-            log.error("카드 학습 상태 및 문제 상태 업데이트 중 오류 발생 (SolveController): {}", e.getMessage(), e);
+            log.error("카드 학습 상태 일괄 반영 중 오류 발생 (problemId: {}): {}", problemId, e.getMessage(), e);
             TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("status", "ERROR", "message", "서버 오류: " + e.getMessage()));
         }
     }
 
+    // 카드 상태 단건/일괄 반영 처리량 비교 (경로별 요청 수, 답 수, 요청당 평균 시간, 초당 답 수)
+    @GetMapping("/solve/status/stats")
+    public ResponseEntity<Map<String, Object>> getCardStatusStats() {
+        return ResponseEntity.ok(cardStatusService.getStats());
+    }
+
     // ⭐⭐ ADDED NEW ENDPOINT: /api/solve/set-ongoing ⭐⭐
     // This endpoint handles the transition from 'new' to 'ongoing' when "문제 바로 풀기" is clicked.
     @PostMapping("/solve/set-ongoing")
@@ -314,30 +423,8 @@ public class SolveController {
         }
 
         try {
-            // user_problem_status에서 해당 사용자와 문제에 대한 레코드가 있는지 확인
-            // 단일 컬럼(problem_status)을 선택하므로 String.class를 명시하여 List<String>으로 받도록 변경
-            List<String> existingProblemStatusResult = entityManager.createNativeQuery(
-                            "SELECT problem_status FROM user_problem_status WHERE user_id = ?1 AND problem_id = ?2", String.class) // <--- 이 부분 수정
-                    .setParameter(1, internalUserId)
-                    .setParameter(2, problemId)
-                    .getResultList();
-
-            String currentProblemStatus;
-            if (existingProblemStatusResult.isEmpty()) {
-                // 레코드가 없으면 새로 생성 (problem_status는 'new', is_liked/is_scrapped는 0으로 기본값 설정)
-                entityManager.createNativeQuery(
-                                "INSERT INTO user_problem_status (user_id, problem_id, problem_status, is_liked, is_scrapped, created_at, updated_at) VALUES (?1, ?2, 'new', 0, 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)")
-                        .setParameter(1, internalUserId)
-                        .setParameter(2, problemId)
-                        .executeUpdate();
-                currentProblemStatus = "new";
-                log.info("새로운 user_problem_status 레코드 생성됨: userId={}, problemId={}, status='new'", internalUserId, problemId);
-            } else {
-                // 레코드가 이미 존재하면 현재 상태 반환
-                // 이미 List<String>으로 받으므로 직접 첫 번째 요소 사용
-                currentProblemStatus = existingProblemStatusResult.get(0); // <--- 이 부분 수정
-                log.info("기존 user_problem_status 레코드 조회됨: userId={}, problemId={}, status='{}'", internalUserId, problemId, currentProblemStatus);
-            }
+            // 레코드가 없으면 'new' 상태로 생성 (동시 요청에도 유니크 인덱스로 한 행만 유지)
+            String currentProblemStatus = userProblemStatusService.getOrCreateProblemStatus(internalUserId, problemId);
 
             log.info("initiateProblemStudy 응답: problemStatus='{}'", currentProblemStatus);
             return ResponseEntity.ok(Map.of("status", "OK", "problemStatus", currentProblemStatus));
@@ -0,0 +1,138 @@
+package com.example.mogwi_system.controller;
+
+import com.example.mogwi_system.dto.CardView;
+import com.example.mogwi_system.service.StudySessionService;
+import com.example.mogwi_system.service.UserIdCacheService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// 답 저장은 StudySessionService가 CardStatusService 트랜잭션으로 묶어서 처리하므로,
+// 저장 실패가 세션 요청 전체를 롤백시키지 않도록 컨트롤러에는 @Transactional을 두지 않습니다.
+@RestController
+@Slf4j
+@RequestMapping("/api/study/sessions")
+public class StudySessionController {
+
+    // 세션 시작 및 다음 카드 요청 시 기본/최대 카드 수
+    private static final int DEFAULT_PREFETCH = 20;
+    private static final int MAX_PREFETCH = 100;
+
+    @Autowired
+    private StudySessionService studySessionService;
+
+    @Autowired
+    private UserIdCacheService userIdCacheService;
+
+    /**
+     * 학습 세션을 시작하고 첫 카드들을 반환합니다.
+     * POST /api/study/sessions
+     *
+     * @param data 사용자 ID (userId), 문제 ID (problemId), 미리 받을 카드 수 (prefetch, 선택),
+     *             복습할 카드만 받을지 여부 (dueOnly, 선택, 기본 false)
+     * @return sessionId, totalCards, cards
+     */
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> openSession(@RequestBody Map<String, Object> data) {
+        String userId = (String) data.get("userId");
+        Number problemId = (Number) data.get("problemId");
+        if (userId == null || userId.trim().isEmpty() || problemId == null) {
+            log.warn("openSession: 유효하지 않은 입력값입니다. userId: {}, problemId: {}", userId, problemId);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("status", "ERROR", "message", "사용자 ID 또는 문제 ID가 누락되었습니다."));
+        }
+
+        try {
+            Optional<Long> internalUserId = userIdCacheService.find(userId);
+            if (internalUserId.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("status", "ERROR", "message", "사용자를 찾을 수 없습니다."));
+            }
+
+            Optional<Map<String, Object>> session = studySessionService.open(
+                    internalUserId.get(), problemId.longValue(), prefetchSize((Number) data.get("prefetch")),
+                    Boolean.TRUE.equals(data.get("dueOnly")));
+            if (session.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("status", "ERROR", "message", "학습 세션을 시작할 수 없습니다. (학습할 카드가 없거나 세션이 너무 많습니다)"));
+            }
+
+            Map<String, Object> response = new HashMap<>(session.get());
+            response.put("status", "OK");
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("학습 세션 시작 중 오류 발생: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("status", "ERROR", "message", "서버 오류: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 세션에서 아직 받지 않은 다음 카드들을 반환합니다.
+     * GET /api/study/sessions/{sessionId}/cards?count=20
+     */
+    @GetMapping("/{sessionId}/cards")
+    public ResponseEntity<List<CardView>> getNextCards(
+            @PathVariable String sessionId,
+            @RequestParam(required = false) Integer count) {
+        return studySessionService.nextCards(sessionId, prefetchSize(count))
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(null));
+    }
+
+    /**
+     * 카드 답을 세션에 기록합니다. 답은 모아서 한 번에 저장됩니다.
+     * POST /api/study/sessions/{sessionId}/answers
+     *
+     * @param data 카드 ID (cardId), 카드 상태 (cardStatus: perfect, vague, forgotten)
+     */
+    @PostMapping("/{sessionId}/answers")
+    public ResponseEntity<Map<String, Object>> submitAnswer(
+            @PathVariable String sessionId,
+            @RequestBody Map<String, Object> data) {
+        Number cardId = (Number) data.get("cardId");
+        String cardStatus = (String) data.get("cardStatus");
+        if (cardId == null || cardStatus == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("status", "ERROR", "message", "카드 ID 또는 카드 상태가 누락되었습니다."));
+        }
+
+        try {
+            Optional<Map<String, Object>> progress = studySessionService.answer(sessionId, cardId.longValue(), cardStatus);
+            if (progress.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("status", "ERROR", "message", "학습 세션을 찾을 수 없습니다."));
+            }
+            Map<String, Object> response = new HashMap<>(progress.get());
+            response.put("status", "OK");
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("status", "ERROR", "message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("status", "ERROR", "message", e.getMessage()));
+        }
+    }
+
+    /**
+     * 남은 답을 저장하고 세션을 종료합니다.
+     * DELETE /api/study/sessions/{sessionId}
+     *
+     * @return 저장 후 문제 상태 (problemStatus)
+     */
+    @DeleteMapping("/{sessionId}")
+    public ResponseEntity<Map<String, Object>> closeSession(@PathVariable String sessionId) {
+        try {
+            return studySessionService.close(sessionId)
+                    .map(problemStatus -> ResponseEntity.ok(Map.<String, Object>of("status", "OK", "problemStatus", problemStatus)))
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("status", "ERROR", "message", "학습 세션을 찾을 수 없습니다.")));
+        } catch (Exception e) {
+            log.error("학습 세션 종료 중 오류 발생 (sessionId: {}): {}", sessionId, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("status", "ERROR", "message", "서버 오류: " + e.getMessage()));
+        }
+    }
+
+    private int prefetchSize(Number requested) {
+        return Math.min(Math.max(requested != null ? requested.intValue() : DEFAULT_PREFETCH, 1), MAX_PREFETCH);
+    }
+}
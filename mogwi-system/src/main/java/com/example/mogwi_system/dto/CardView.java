@@ -0,0 +1,19 @@
+package com.example.mogwi_system.dto;
+
+import com.example.mogwi_system.service.ImageProcessingService;
+
+/**
+ * 학습 화면에 내려주는 카드 한 장과 사용자의 카드 상태입니다.
+ *
+ * @param imageUrl     학습 화면용 크기(card)의 이미지 URL
+ * @param thumbnailUrl 목록용 작은 이미지 URL
+ * @param fullImageUrl 확대 보기용 이미지 URL
+ * @param cardStatus   'new', 'perfect', 'vague', 'forgotten'
+ */
+public record CardView(long id, String question, String correct, String imageUrl, String thumbnailUrl, String fullImageUrl,
+                       String cardStatus) {
+
+    public static CardView of(long id, String question, String correct, ImageProcessingService.VariantUrls image, String cardStatus) {
+        return new CardView(id, question, correct, image.card(), image.thumbnail(), image.full(), cardStatus);
+    }
+}
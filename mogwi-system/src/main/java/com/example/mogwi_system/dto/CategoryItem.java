@@ -0,0 +1,12 @@
+package com.example.mogwi_system.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * 카테고리 목록 항목입니다. ({id, tag_name, color_code})
+ */
+public record CategoryItem(
+        long id,
+        @JsonProperty("tag_name") String tagName,
+        @JsonProperty("color_code") String colorCode) {
+}
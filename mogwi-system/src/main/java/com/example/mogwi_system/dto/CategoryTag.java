@@ -0,0 +1,11 @@
+package com.example.mogwi_system.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * 문제 목록 항목에 붙는 카테고리 태그입니다. ({tag_name, color_code})
+ */
+public record CategoryTag(
+        @JsonProperty("tag_name") String tagName,
+        @JsonProperty("color_code") String colorCode) {
+}
@@ -0,0 +1,9 @@
+package com.example.mogwi_system.dto;
+
+/**
+ * 일별 학습 기록입니다.
+ *
+ * @param date 학습 날짜 (yyyy-MM-dd)
+ */
+public record DailyStudyRecord(String date, int perfect, int vague, int forgotten) {
+}
@@ -0,0 +1,18 @@
+package com.example.mogwi_system.dto;
+
+import com.example.mogwi_system.service.ImageProcessingService;
+
+/**
+ * 복습 시점이 지난 카드 한 장입니다.
+ *
+ * @param imageUrl 학습 화면용 크기(card)의 이미지 URL
+ * @param dueAt    복습 예정 시각
+ */
+public record DueCard(long id, long problemId, String question, String correct, String imageUrl, String thumbnailUrl,
+                      String fullImageUrl, String cardStatus, String dueAt) {
+
+    public static DueCard of(long id, long problemId, String question, String correct, ImageProcessingService.VariantUrls image,
+                             String cardStatus, String dueAt) {
+        return new DueCard(id, problemId, question, correct, image.card(), image.thumbnail(), image.full(), cardStatus, dueAt);
+    }
+}
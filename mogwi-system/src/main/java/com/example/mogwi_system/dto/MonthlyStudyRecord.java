@@ -0,0 +1,9 @@
+package com.example.mogwi_system.dto;
+
+/**
+ * 월간 학습 기록입니다.
+ *
+ * @param monthStart 월 시작일 (yyyy-MM-01)
+ */
+public record MonthlyStudyRecord(String monthStart, int perfect, int vague, int forgotten, int total) {
+}
@@ -0,0 +1,44 @@
+package com.example.mogwi_system.dto;
+
+import com.example.mogwi_system.service.ImageProcessingService;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * 문제 세트의 변하지 않는 내용입니다. (문제 내용 캐시에 보관)
+ */
+public record ProblemContent(
+        long id,
+        String title,
+        String description,
+        String author,
+        String authorId,
+        int cardCount,
+        List<CategoryTag> categories,
+        List<Card> cards) {
+
+    public ProblemContent withCards(List<Card> cards) {
+        return new ProblemContent(id, title, description, author, authorId, cardCount, categories, cards);
+    }
+
+    /**
+     * 문제 상세 화면의 카드입니다.
+     *
+     * @param imageUrl     카드 크기(card)의 이미지 URL (캐시에는 원본 URL)
+     * @param thumbnailUrl 목록용 작은 이미지 URL (이미지가 없으면 생략)
+     * @param fullImageUrl 확대 보기용 이미지 URL (이미지가 없으면 생략)
+     */
+    public record Card(
+            String question,
+            String answer,
+            @JsonProperty("image_url") String imageUrl,
+            @JsonInclude(JsonInclude.Include.NON_NULL) String thumbnailUrl,
+            @JsonInclude(JsonInclude.Include.NON_NULL) String fullImageUrl) {
+
+        public Card withImage(ImageProcessingService.VariantUrls image) {
+            return new Card(question, answer, image.card(), image.thumbnail(), image.full());
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.mogwi_system.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+/**
+ * 문제 상세 응답입니다. 캐시된 문제 내용과 사용자별 상태를 한 객체로 펼쳐서 내려줍니다.
+ */
+public record ProblemDetail(
+        @JsonUnwrapped ProblemContent content,
+        @JsonUnwrapped ProblemUserStatus userStatus) {
+}
@@ -0,0 +1,30 @@
+package com.example.mogwi_system.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * 문제 목록(피드, 검색 결과) 항목입니다.
+ *
+ * @param liked    현재 사용자가 좋아요한 문제인지 여부
+ * @param scrapped 현재 사용자가 스크랩한 문제인지 여부
+ * @param score    검색 관련도 점수 (검색 결과에만 포함)
+ */
+public record ProblemSummary(
+        long id,
+        String title,
+        String author,
+        String authorId,
+        int cardCount,
+        long likes,
+        long scraps,
+        boolean liked,
+        boolean scrapped,
+        List<CategoryTag> categories,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Float score) {
+
+    public ProblemSummary withScore(float score) {
+        return new ProblemSummary(id, title, author, authorId, cardCount, likes, scraps, liked, scrapped, categories, score);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.mogwi_system.dto;
+
+/**
+ * 문제의 좋아요/스크랩 수와 현재 사용자의 좋아요/스크랩 여부입니다.
+ */
+public record ProblemUserStatus(long likes, long scraps, boolean liked, boolean scrapped) {
+
+    public static final ProblemUserStatus NONE = new ProblemUserStatus(0, 0, false, false);
+}
@@ -0,0 +1,28 @@
+package com.example.mogwi_system.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * 내 학습 화면의 문제별 학습 현황 항목입니다.
+ *
+ * @param studyStatus 'new', 'ongoing', 'completed'
+ */
+public record StudyProblemDetail(
+        long id,
+        String title,
+        String description,
+        int cardCount,
+        String authorNickname,
+        @JsonProperty("isLiked") boolean isLiked,
+        @JsonProperty("isScrapped") boolean isScrapped,
+        String studyStatus,
+        @JsonProperty("isCompleted") boolean isCompleted,
+        int totalLikes,
+        int totalScraps,
+        int perfectCount,
+        int vagueCount,
+        int forgottenCount,
+        List<CategoryTag> categories) {
+}
@@ -0,0 +1,7 @@
+package com.example.mogwi_system.dto;
+
+/**
+ * 사용자의 전체 카드 상태별 개수입니다. (내 학습, 리포트 요약)
+ */
+public record StudySummary(int perfect, int vague, int forgotten, int total) {
+}
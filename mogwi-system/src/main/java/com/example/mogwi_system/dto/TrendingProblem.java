@@ -0,0 +1,16 @@
+package com.example.mogwi_system.dto;
+
+import java.util.List;
+
+/**
+ * 인기 문제 순위 항목입니다.
+ */
+public record TrendingProblem(
+        long id,
+        String title,
+        String author,
+        int cardCount,
+        int likes,
+        int scraps,
+        List<CategoryTag> categories) {
+}
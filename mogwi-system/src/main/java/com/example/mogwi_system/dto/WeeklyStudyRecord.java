@@ -0,0 +1,9 @@
+package com.example.mogwi_system.dto;
+
+/**
+ * 주간 학습 기록입니다.
+ *
+ * @param weekStart 주 시작일 (일요일, yyyy-MM-dd)
+ */
+public record WeeklyStudyRecord(String weekStart, int perfect, int vague, int forgotten, int total) {
+}
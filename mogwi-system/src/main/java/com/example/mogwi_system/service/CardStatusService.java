@@ -0,0 +1,215 @@
+package com.example.mogwi_system.service;
+
+import com.example.mogwi_system.dto.DueCard;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 사용자의 카드 학습 상태(user_card_status)와 그에 따른 문제 상태(user_problem_status)를 저장하는 서비스입니다.
+ * 한 문제에 대한 여러 카드의 답을 한 번에 받아, 이전 상태 조회와 상태 쓰기, 진행 카운터/학습 이벤트 반영을
+ * 카드 수와 관계없이 일정한 수의 쿼리(배치)로 처리합니다.
+ * 카드 상태를 쓸 때 {@link SpacedRepetitionScheduler}로 다음 복습 시점(due_at)도 함께 계산해 저장합니다.
+ * 단건/일괄 반영 API의 처리량을 같은 기준(요청 시작부터 반영 완료까지)으로 집계해 비교할 수 있게 합니다.
+ */
+@Service
+@Slf4j
+@Transactional
+public class CardStatusService {
+
+    public static final Set<String> CARD_STATUSES = Set.of("perfect", "vague", "forgotten");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProblemProgressService problemProgressService;
+
+    @Autowired
+    private StudyEventService studyEventService;
+
+    @Autowired
+    private UserProblemStatusService userProblemStatusService;
+
+    @Autowired
+    private SpacedRepetitionScheduler spacedRepetitionScheduler;
+
+    @Autowired
+    private ImageProcessingService imageProcessingService;
+
+    /**
+     * 카드 상태 반영 경로입니다. (단건 API, 일괄 API)
+     */
+    public enum WritePath { SINGLE, BATCH }
+
+    // 경로별 [요청 수, 반영한 답 수, 처리 시간 합(ns)]
+    private final Map<WritePath, AtomicLong[]> throughput = Map.of(
+            WritePath.SINGLE, new AtomicLong[]{new AtomicLong(), new AtomicLong(), new AtomicLong()},
+            WritePath.BATCH, new AtomicLong[]{new AtomicLong(), new AtomicLong(), new AtomicLong()});
+
+    /**
+     * 카드 하나의 답입니다.
+     *
+     * @param cardStatus 'perfect', 'vague', 'forgotten'
+     */
+    public record CardAnswer(Long cardId, String cardStatus) {
+    }
+
+    /**
+     * 한 문제에 대한 카드 답 목록을 입력 순서대로 반영하고, 계산된 문제 상태를 반환합니다.
+     * 같은 카드의 답이 여러 번 있으면 학습 이벤트는 모두 기록하고, 카드 상태는 마지막 답으로 저장합니다.
+     *
+     * @return 문제 상태 ('new', 'ongoing', 'completed')
+     */
+    public String applyCardStatuses(Long userId, Long problemId, List<CardAnswer> answers) {
+        if (answers.isEmpty()) {
+            return problemProgressService.getProblemStatus(userId, problemId);
+        }
+
+        // 1. 이전 카드 상태를 한 번에 조회 (기존 행을 잠가 같은 카드에 대한 동시 답이 전이를 중복 계산하지 않도록 함)
+        List<Long> cardIds = answers.stream().map(CardAnswer::cardId).distinct().toList();
+        List<Object[]> existing = entityManager.createNativeQuery(
+                        "SELECT card_id, card_status, repetitions, interval_days, ease_factor FROM user_card_status " +
+                                "WHERE user_id = :userId AND problem_id = :problemId AND card_id IN (:cardIds) FOR UPDATE")
+                .setParameter("userId", userId)
+                .setParameter("problemId", problemId)
+                .setParameter("cardIds", cardIds)
+                .getResultList();
+        Map<Long, String> previousStatuses = new HashMap<>();
+        Map<Long, SpacedRepetitionScheduler.ReviewState> reviewStates = new HashMap<>();
+        for (Object[] row : existing) {
+            Long cardId = ((Number) row[0]).longValue();
+            previousStatuses.put(cardId, (String) row[1]);
+            reviewStates.put(cardId, new SpacedRepetitionScheduler.ReviewState(
+                    ((Number) row[2]).intValue(), ((Number) row[3]).intValue(), ((Number) row[4]).doubleValue()));
+        }
+
+        // 2. 입력 순서대로 상태 전이를 계산 (카운터 증감분, 학습 이벤트, 카드별 최종 상태와 복습 스케줄)
+        Map<Long, String> currentStatuses = new HashMap<>(previousStatuses);
+        Map<Long, String> finalStatuses = new LinkedHashMap<>();
+        List<StudyEventService.StudyEvent> events = new ArrayList<>(answers.size());
+        int perfectDelta = 0;
+        int studiedDelta = 0;
+        for (CardAnswer answer : answers) {
+            String previous = currentStatuses.get(answer.cardId());
+            perfectDelta += ("perfect".equals(answer.cardStatus()) ? 1 : 0) - ("perfect".equals(previous) ? 1 : 0);
+            studiedDelta += previous == null ? 1 : 0;
+            events.add(new StudyEventService.StudyEvent(answer.cardId(), previous, answer.cardStatus()));
+            currentStatuses.put(answer.cardId(), answer.cardStatus());
+            finalStatuses.put(answer.cardId(), answer.cardStatus());
+            reviewStates.put(answer.cardId(), spacedRepetitionScheduler.next(reviewStates.get(answer.cardId()), answer.cardStatus()));
+        }
+
+        // 3. 카드 상태 배치 upsert ((user_id, card_id) 유니크 인덱스 기준으로 새 카드는 INSERT, 기존 카드는 UPDATE)
+        List<Object[]> rows = new ArrayList<>(finalStatuses.size());
+        finalStatuses.forEach((cardId, status) -> {
+            SpacedRepetitionScheduler.ReviewState review = reviewStates.get(cardId);
+            rows.add(new Object[]{userId, cardId, problemId, status,
+                    review.repetitions(), review.intervalDays(), review.easeFactor(), review.intervalDays()});
+        });
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO user_card_status (user_id, card_id, problem_id, card_status, repetitions, interval_days, ease_factor, due_at, created_at, updated_at) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, DATE_ADD(CURRENT_TIMESTAMP, INTERVAL ? DAY), CURRENT_TIMESTAMP, CURRENT_TIMESTAMP) " +
+                        "ON DUPLICATE KEY UPDATE card_status = VALUES(card_status), repetitions = VALUES(repetitions), " +
+                        "interval_days = VALUES(interval_days), ease_factor = VALUES(ease_factor), due_at = VALUES(due_at), updated_at = CURRENT_TIMESTAMP",
+                rows);
+        long inserted = finalStatuses.keySet().stream().filter(cardId -> !previousStatuses.containsKey(cardId)).count();
+
+        // 4. 진행 카운터, 학습 이벤트, 문제 상태 반영
+        String problemStatus = problemProgressService.applyDelta(userId, problemId, perfectDelta, studiedDelta);
+        studyEventService.recordAll(userId, problemId, events);
+        userProblemStatusService.saveProblemStatus(userId, problemId, problemStatus);
+
+        log.info("카드 상태 {}건 반영: userId={}, problemId={}, inserted={}, updated={}, problemStatus={}",
+                answers.size(), userId, problemId, inserted, finalStatuses.size() - inserted, problemStatus);
+        return problemStatus;
+    }
+
+    /**
+     * 반영 경로의 처리 결과를 집계합니다.
+     *
+     * @param answers      반영한 답 수
+     * @param elapsedNanos 요청을 받은 뒤 반영을 마칠 때까지 걸린 시간
+     */
+    public void recordThroughput(WritePath path, int answers, long elapsedNanos) {
+        AtomicLong[] counters = throughput.get(path);
+        counters[0].incrementAndGet();
+        counters[1].addAndGet(answers);
+        counters[2].addAndGet(elapsedNanos);
+    }
+
+    /**
+     * 경로별 요청 수, 반영한 답 수, 요청당 평균 처리 시간, 초당 반영한 답 수를 반환합니다.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (WritePath path : WritePath.values()) {
+            AtomicLong[] counters = throughput.get(path);
+            long requests = counters[0].get();
+            long answers = counters[1].get();
+            long nanos = counters[2].get();
+            Map<String, Object> pathStats = new LinkedHashMap<>();
+            pathStats.put("requests", requests);
+            pathStats.put("answers", answers);
+            pathStats.put("avgElapsedMs", requests > 0 ? nanos / requests / 1_000_000.0 : 0);
+            pathStats.put("answersPerSecond", nanos > 0 ? Math.round(answers * 1_000_000_000.0 / nanos) : 0);
+            stats.put(path.name().toLowerCase(), pathStats);
+        }
+        return stats;
+    }
+
+    /**
+     * 사용자의 복습 시점이 지난 카드를 오래 기다린 순으로 조회합니다. (user_id, due_at) 인덱스 범위 조회로 처리됩니다.
+     *
+     * @param problemId 특정 문제로 한정할 때의 문제 ID (전체면 null)
+     * @param limit     최대 카드 수
+     * @return 카드 목록
+     */
+    public List<DueCard> findDueCards(Long userId, Long problemId, int limit) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT c.id, c.problem_id, c.question, c.correct, c.image_url, ucs.card_status, ucs.due_at " +
+                        "FROM user_card_status ucs " +
+                        "JOIN cards c ON c.id = ucs.card_id " +
+                        "WHERE ucs.user_id = :userId AND ucs.due_at <= CURRENT_TIMESTAMP ");
+        if (problemId != null) {
+            sql.append("AND ucs.problem_id = :problemId ");
+        }
+        sql.append("ORDER BY ucs.due_at ASC LIMIT :limit");
+
+        var query = entityManager.createNativeQuery(sql.toString())
+                .setParameter("userId", userId)
+                .setParameter("limit", limit);
+        if (problemId != null) {
+            query.setParameter("problemId", problemId);
+        }
+
+        List<Object[]> rows = query.getResultList();
+        List<DueCard> cards = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            cards.add(DueCard.of(
+                    ((Number) row[0]).longValue(),
+                    ((Number) row[1]).longValue(),
+                    (String) row[2],
+                    (String) row[3],
+                    imageProcessingService.resolve((String) row[4]),
+                    (String) row[5],
+                    row[6] != null ? row[6].toString() : null));
+        }
+        return cards;
+    }
+}
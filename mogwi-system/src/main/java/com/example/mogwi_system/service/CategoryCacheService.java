@@ -0,0 +1,157 @@
+package com.example.mogwi_system.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import com.example.mogwi_system.dto.CategoryTag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 카테고리 목록(categories)을 메모리에 보관하는 캐시입니다.
+ * 기동 시 전체를 읽어 두고, 조회는 불변 스냅샷에서만 수행합니다.
+ * 카테고리 변경 시 {@link #invalidate()}를 호출하면 다음 조회 때 새 버전의 스냅샷을 만들고,
+ * DB를 직접 수정한 경우에 대비해 주기적으로도 다시 읽습니다.
+ */
+@Service
+@Slf4j
+public class CategoryCacheService {
+
+    // color_code가 없는 카테고리의 기본 색상
+    public static final String DEFAULT_COLOR = "#CCCCCC";
+
+    // 없는 ID 조회로 인한 재적재는 이 간격에 한 번만 허용
+    private static final long MISS_RELOAD_INTERVAL_MILLIS = 10_000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Snapshot snapshot;
+    private volatile long lastMissReloadAt;
+    private long version;
+
+    public record Category(Long id, String tagName, String colorCode) {
+
+        /**
+         * API 응답 형식({tag_name, color_code})으로 변환합니다.
+         */
+        public CategoryTag toTag() {
+            return new CategoryTag(tagName, colorCode);
+        }
+    }
+
+    // 한 번 만들어지면 변경되지 않는 카테고리 스냅샷 (tag_name 오름차순 목록 포함)
+    private record Snapshot(long version, Map<Long, Category> byId, Map<String, Category> byTagName, List<Category> sorted) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        reload();
+    }
+
+    /**
+     * 캐시를 무효화합니다. 다음 조회 시 DB에서 다시 읽습니다.
+     */
+    public void invalidate() {
+        snapshot = null;
+    }
+
+    @Scheduled(fixedDelayString = "${mogwi.category-cache.refresh-interval-ms:600000}",
+            initialDelayString = "${mogwi.category-cache.refresh-interval-ms:600000}")
+    public void refresh() {
+        reload();
+    }
+
+    /**
+     * 전체 카테고리를 tag_name 오름차순으로 반환합니다.
+     */
+    public List<Category> getAll() {
+        return current().sorted();
+    }
+
+    public Optional<Category> findById(Long id) {
+        Category category = current().byId().get(id);
+        if (category == null && System.currentTimeMillis() - lastMissReloadAt > MISS_RELOAD_INTERVAL_MILLIS) {
+            // 캐시 이후 추가된 카테고리일 수 있으므로 한 번 다시 읽음
+            lastMissReloadAt = System.currentTimeMillis();
+            category = reload().byId().get(id);
+        }
+        return Optional.ofNullable(category);
+    }
+
+    public Optional<Category> findByTagName(String tagName) {
+        return Optional.ofNullable(current().byTagName().get(tagName));
+    }
+
+    /**
+     * GROUP_CONCAT(category_id) 결과("1,3,7")를 태그 목록({tag_name, color_code})으로 변환합니다.
+     * 캐시에 없는 ID는 건너뜁니다.
+     */
+    public List<CategoryTag> toTags(Object concatenatedIds) {
+        List<Category> categories = resolveAll(concatenatedIds);
+        List<CategoryTag> tags = new ArrayList<>(categories.size());
+        for (Category category : categories) {
+            tags.add(category.toTag());
+        }
+        return tags;
+    }
+
+    private List<Category> resolveAll(Object concatenatedIds) {
+        List<Category> categories = new ArrayList<>();
+        if (concatenatedIds == null) {
+            return categories;
+        }
+        String ids = concatenatedIds instanceof byte[] bytes
+                ? new String(bytes, StandardCharsets.UTF_8)
+                : concatenatedIds.toString();
+        for (String id : ids.split(",")) {
+            if (!id.isBlank()) {
+                findById(Long.valueOf(id.trim())).ifPresent(categories::add);
+            }
+        }
+        return categories;
+    }
+
+    public long getVersion() {
+        return current().version();
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        return current != null ? current : reload();
+    }
+
+    private synchronized Snapshot reload() {
+        List<Object[]> rows = entityManager.createNativeQuery(
+                        "SELECT id, tag_name, color_code FROM categories ORDER BY tag_name ASC")
+                .getResultList();
+
+        Map<Long, Category> byId = new HashMap<>();
+        Map<String, Category> byTagName = new LinkedHashMap<>();
+        List<Category> sorted = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Category category = new Category(((Number) row[0]).longValue(), row[1].toString(),
+                    row[2] != null ? row[2].toString() : DEFAULT_COLOR);
+            byId.put(category.id(), category);
+            byTagName.put(category.tagName(), category);
+            sorted.add(category);
+        }
+
+        Snapshot next = new Snapshot(++version,
+                Collections.unmodifiableMap(byId), Collections.unmodifiableMap(byTagName), Collections.unmodifiableList(sorted));
+        snapshot = next;
+        log.debug("카테고리 캐시 갱신: version={}, size={}", next.version(), sorted.size());
+        return next;
+    }
+}
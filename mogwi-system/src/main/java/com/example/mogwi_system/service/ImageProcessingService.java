@@ -0,0 +1,402 @@
+package com.example.mogwi_system.service;
+
+import com.example.mogwi_system.service.storage.ImageStorage;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOException;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * 업로드된 카드 이미지를 요청 스레드 밖에서 여러 크기(thumb, card, full)의 JPEG로 다시 인코딩하는 서비스입니다.
+ * 원본은 그대로 두고 저장소의 variants/ 아래에 "{원본 이름}_{크기}.jpg"로 저장하며, 카드 API는 {@link #resolve(String)}로
+ * 준비된 크기의 URL을 받습니다. 아직 변환되지 않은 이미지(기존 업로드 포함)는 원본 URL을 돌려주고 변환을 예약합니다.
+ */
+@Service
+@Slf4j
+public class ImageProcessingService {
+
+    /**
+     * 변환 크기 (긴 변 기준 최대 픽셀, 더 작은 이미지는 확대하지 않음)
+     */
+    public enum Variant {
+        THUMB("thumb", 240),
+        CARD("card", 960),
+        FULL("full", 2048);
+
+        private final String suffix;
+        private final int maxSize;
+
+        Variant(String suffix, int maxSize) {
+            this.suffix = suffix;
+            this.maxSize = maxSize;
+        }
+    }
+
+    /**
+     * 이미지 하나의 크기별 URL입니다. 변환 전이면 세 URL 모두 원본 URL입니다.
+     */
+    public record VariantUrls(String thumbnail, String card, String full) {
+
+        public static final VariantUrls NONE = new VariantUrls(null, null, null);
+    }
+
+    private static final String URL_PREFIX = "/images/";
+    private static final String VARIANT_DIR = "variants";
+    // 업로드 컨트롤러가 만드는 파일 이름 형식 (경로 조작 방지)
+    private static final Pattern FILE_NAME = Pattern.compile("[A-Za-z0-9_-]+(\\.[A-Za-z0-9]+)?");
+
+    @Autowired
+    private ImageStorage imageStorage;
+
+    @Value("${mogwi.image.workers:2}")
+    private int workerCount;
+
+    @Value("${mogwi.image.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${mogwi.image.jpeg-quality:0.82}")
+    private float jpegQuality;
+
+    // 이보다 픽셀 수가 많은 이미지는 디코딩하지 않음 (압축 폭탄 방지)
+    @Value("${mogwi.image.max-pixels:40000000}")
+    private long maxPixels;
+
+    // 변환되지 않은 이미지의 저장소 상태를 다시 확인하기까지의 시간
+    @Value("${mogwi.image.not-ready-recheck-ms:30000}")
+    private long notReadyRecheckMillis;
+
+    private ThreadPoolExecutor workers;
+
+    // 세 크기가 모두 준비된 원본 파일 이름
+    private final Set<String> ready = ConcurrentHashMap.newKeySet();
+    // 변환 대기/진행 중인 원본 파일 이름과, 디코딩할 수 없어 다시 시도하지 않는 원본 파일 이름
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final Set<String> unsupported = ConcurrentHashMap.newKeySet();
+    // 저장소를 확인했지만 아직 변환되지 않은 원본 파일 이름과 다시 확인할 시각
+    // (변환 큐가 가득 찼거나, 원본이 아직 없거나, 저장소 장애로 변환이 실패했을 때
+    //  목록 요청마다 저장소 조회(S3면 HEAD)를 반복하지 않고 잠시 뒤 다시 확인해 변환을 예약함)
+    private final Map<String, Long> recheckAt = new ConcurrentHashMap<>();
+
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong originalBytes = new AtomicLong();
+    private final Map<Variant, AtomicLong> variantBytes = new EnumMap<>(Variant.class);
+
+    @PostConstruct
+    void start() {
+        // 디코딩 중 디스크 임시 파일을 쓰지 않음
+        ImageIO.setUseCache(false);
+        for (Variant variant : Variant.values()) {
+            variantBytes.put(variant, new AtomicLong());
+        }
+        workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "image-processor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("이미지 변환기 시작: workers={}, queueCapacity={}, quality={}", workerCount, queueCapacity, jpegQuality);
+    }
+
+    @PreDestroy
+    void stop() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * 저장소에 있는 원본 파일의 변환을 예약합니다. 큐가 가득 차면 다음 {@link #resolve(String)} 때 다시 예약됩니다.
+     *
+     * @param fileName 저장소 안의 원본 파일 이름
+     */
+    public void submit(String fileName) {
+        if (!FILE_NAME.matcher(fileName).matches() || ready.contains(fileName)
+                || unsupported.contains(fileName) || !inFlight.add(fileName)) {
+            return;
+        }
+        try {
+            workers.execute(() -> {
+                try {
+                    process(fileName);
+                } finally {
+                    inFlight.remove(fileName);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(fileName);
+            rejected.incrementAndGet();
+            log.warn("이미지 변환 큐가 가득 차 변환을 미룹니다: {}", fileName);
+        }
+    }
+
+    /**
+     * 카드의 image_url을 크기별 URL로 바꿉니다. (변환이 끝나기 전이면 원본 URL)
+     * 이 서버에 업로드되지 않은 외부 URL은 그대로 돌려줍니다.
+     */
+    public VariantUrls resolve(String imageUrl) {
+        if (imageUrl == null || imageUrl.isEmpty()) {
+            return VariantUrls.NONE;
+        }
+        String fileName = imageUrl.startsWith(URL_PREFIX) ? imageUrl.substring(URL_PREFIX.length()) : null;
+        if (fileName == null || !FILE_NAME.matcher(fileName).matches()) {
+            return new VariantUrls(imageUrl, imageUrl, imageUrl);
+        }
+
+        if (!ready.contains(fileName)) {
+            if (inFlight.contains(fileName) || unsupported.contains(fileName) || recentlyChecked(fileName)) {
+                return new VariantUrls(imageUrl, imageUrl, imageUrl);
+            }
+            try {
+                // 재시작 전(또는 다른 서버)에서 변환된 이미지는 마지막에 쓰는 THUMB 파일로 확인
+                if (imageStorage.exists(variantKey(fileName, Variant.THUMB))) {
+                    ready.add(fileName);
+                } else {
+                    // 원본이 없어도 (다른 서버의 업로드가 아직 반영되지 않았을 수 있으므로) 잠시 뒤 다시 확인
+                    markChecked(fileName);
+                    if (imageStorage.exists(fileName)) {
+                        submit(fileName);
+                    }
+                    return new VariantUrls(imageUrl, imageUrl, imageUrl);
+                }
+            } catch (IOException e) {
+                // 저장소 일시 장애면 원본 URL을 주고 잠시 뒤 다시 확인
+                markChecked(fileName);
+                log.warn("이미지 변환 상태 확인 실패: {}: {}", fileName, e.getMessage());
+                return new VariantUrls(imageUrl, imageUrl, imageUrl);
+            }
+        }
+        return new VariantUrls(variantUrl(fileName, Variant.THUMB), variantUrl(fileName, Variant.CARD), variantUrl(fileName, Variant.FULL));
+    }
+
+    /**
+     * 원본이 삭제된 이미지의 변환 파일을 지우고 상태를 잊습니다. (같은 이름으로 다시 업로드되면 다시 변환)
+     */
+    public void discard(String fileName) throws IOException {
+        ready.remove(fileName);
+        unsupported.remove(fileName);
+        recheckAt.remove(fileName);
+        for (Variant variant : Variant.values()) {
+            imageStorage.delete(variantKey(fileName, variant));
+        }
+    }
+
+    /**
+     * 변환 현황과 크기별 평균 파일 크기를 반환합니다. 카드 한 장을 볼 때 내려가는 바이트를 원본과 비교하는 데 씁니다.
+     */
+    public Map<String, Object> getStats() {
+        long count = processed.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("processed", count);
+        stats.put("failed", failed.get());
+        stats.put("rejected", rejected.get());
+        stats.put("queued", workers.getQueue().size());
+        stats.put("avgOriginalBytes", count > 0 ? originalBytes.get() / count : 0);
+        for (Variant variant : Variant.values()) {
+            stats.put("avg" + Character.toUpperCase(variant.suffix.charAt(0)) + variant.suffix.substring(1) + "Bytes",
+                    count > 0 ? variantBytes.get(variant).get() / count : 0);
+        }
+        return stats;
+    }
+
+    private void process(String fileName) {
+        long startedAt = System.currentTimeMillis();
+        Resource original = imageStorage.resource(fileName);
+        try {
+            BufferedImage source = decode(original);
+            if (source == null) {
+                unsupported.add(fileName);
+                return;
+            }
+
+            // 큰 크기부터 만들고, 작은 크기는 바로 앞 결과에서 줄임 (THUMB가 마지막 = 완료 표시)
+            long[] sizes = new long[Variant.values().length];
+            BufferedImage previous = source;
+            for (Variant variant : new Variant[]{Variant.FULL, Variant.CARD, Variant.THUMB}) {
+                previous = downscale(previous, variant.maxSize);
+                sizes[variant.ordinal()] = writeJpeg(previous, variantKey(fileName, variant));
+            }
+
+            originalBytes.addAndGet(original.contentLength());
+            for (Variant variant : Variant.values()) {
+                variantBytes.get(variant).addAndGet(sizes[variant.ordinal()]);
+            }
+            processed.incrementAndGet();
+            ready.add(fileName);
+            recheckAt.remove(fileName);
+            log.info("이미지 변환 완료: {} ({}x{}), full={}B, card={}B, thumb={}B, elapsed={}ms", fileName,
+                    source.getWidth(), source.getHeight(), sizes[Variant.FULL.ordinal()], sizes[Variant.CARD.ordinal()],
+                    sizes[Variant.THUMB.ordinal()], System.currentTimeMillis() - startedAt);
+        } catch (IOException | RuntimeException e) {
+            // 저장소 읽기/쓰기 실패는 일시적일 수 있으므로 잠시 뒤 resolve에서 다시 예약
+            failed.incrementAndGet();
+            markChecked(fileName);
+            log.error("이미지 변환 실패 (잠시 뒤 다시 시도): {}: {}", fileName, e.getMessage(), e);
+        }
+    }
+
+    private boolean recentlyChecked(String fileName) {
+        Long until = recheckAt.get(fileName);
+        return until != null && until > System.currentTimeMillis();
+    }
+
+    private void markChecked(String fileName) {
+        long now = System.currentTimeMillis();
+        // 오래된 항목이 쌓이지 않도록 클 때만 정리
+        if (recheckAt.size() >= 10_000) {
+            recheckAt.values().removeIf(until -> until <= now);
+        }
+        recheckAt.put(fileName, now + notReadyRecheckMillis);
+    }
+
+    // 디코딩할 수 없는 형식이거나, 손상되었거나, 너무 큰 이미지면 null (저장소 읽기 오류는 IOException)
+    private BufferedImage decode(Resource original) throws IOException {
+        try (InputStream raw = original.getInputStream();
+             ImageInputStream in = ImageIO.createImageInputStream(raw)) {
+            if (in == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                log.warn("변환할 수 없는 이미지 형식: {}", original.getFilename());
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    log.warn("이미지가 너무 커서 변환하지 않습니다: {} ({} pixels)", original.getFilename(), pixels);
+                    return null;
+                }
+                return toRgb(reader.read(0));
+            } catch (IIOException | RuntimeException e) {
+                log.warn("이미지를 디코딩할 수 없습니다: {}: {}", original.getFilename(), e.getMessage());
+                return null;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // JPEG는 투명도가 없으므로 흰 배경에 합성
+    private static BufferedImage toRgb(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return image;
+        }
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rgb.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+            graphics.drawImage(image, 0, 0, null);
+        } finally {
+            graphics.dispose();
+        }
+        return rgb;
+    }
+
+    /**
+     * 긴 변이 maxSize 이하가 되도록 줄입니다. 한 번에 크게 줄이면 계단 현상이 생기므로 절반씩 여러 번 줄입니다.
+     */
+    static BufferedImage downscale(BufferedImage image, int maxSize) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        double ratio = (double) maxSize / Math.max(width, height);
+        if (ratio >= 1.0) {
+            return image;
+        }
+        int targetWidth = Math.max((int) Math.round(width * ratio), 1);
+        int targetHeight = Math.max((int) Math.round(height * ratio), 1);
+
+        BufferedImage current = image;
+        while (current.getWidth() / 2 >= targetWidth && current.getHeight() / 2 >= targetHeight) {
+            current = resize(current, current.getWidth() / 2, current.getHeight() / 2);
+        }
+        if (current.getWidth() != targetWidth || current.getHeight() != targetHeight) {
+            current = resize(current, targetWidth, targetHeight);
+        }
+        return current;
+    }
+
+    private static BufferedImage resize(BufferedImage image, int width, int height) {
+        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = resized.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return resized;
+    }
+
+    // 임시 파일에 쓴 뒤 저장소에 올려, 쓰는 도중의 파일이 응답되지 않게 함. 쓴 바이트 수를 반환
+    private long writeJpeg(BufferedImage image, String key) throws IOException {
+        Path temp = imageStorage.stagingDirectory().resolve(UUID.randomUUID() + ".tmp");
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try {
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(jpegQuality);
+                param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+                writer.setOutput(out);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            long size = Files.size(temp);
+            imageStorage.put(key, temp, "image/jpeg");
+            return size;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static String variantKey(String fileName, Variant variant) {
+        return VARIANT_DIR + "/" + stem(fileName) + "_" + variant.suffix + ".jpg";
+    }
+
+    private static String variantUrl(String fileName, Variant variant) {
+        return URL_PREFIX + variantKey(fileName, variant);
+    }
+
+    private static String stem(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot > 0 ? fileName.substring(0, dot) : fileName;
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.mogwi_system.service;
+
+import com.example.mogwi_system.service.storage.ImageStorage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * 업로드 이미지를 내용의 SHA-256 값을 이름으로 {@link ImageStorage}에 저장하는 서비스입니다. (같은 이미지는 한 번만 저장)
+ * 파일 이름이 내용으로 정해지므로 URL이 가리키는 내용은 바뀌지 않습니다.
+ * 카드가 참조하는 수를 image_refs에 세어 두고, 참조가 0이 된 뒤 유예 시간이 지난 파일은 주기적으로 삭제합니다.
+ * 유예 시간 안에 업로드한 이미지를 카드에 붙여 저장해야 합니다.
+ */
+@Service
+@Slf4j
+public class ImageStoreService {
+
+    private static final String URL_PREFIX = "/images/";
+    // 내용 주소 파일 이름: sha256 hex + 확장자 (이전 UUID 이름 파일은 참조 수를 세지 않음)
+    private static final Pattern STORED_NAME = Pattern.compile("[0-9a-f]{64}(\\.[a-z0-9]{1,5})?");
+    private static final Pattern EXTENSION = Pattern.compile("\\.[a-z0-9]{1,5}");
+    private static final int LOCK_STRIPES = 64;
+    private static final int SWEEP_BATCH = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ImageProcessingService imageProcessingService;
+
+    @Autowired
+    private ImageStorage imageStorage;
+
+    // 참조가 0인 파일을 지우기 전 기다리는 시간 (업로드 후 카드 저장까지의 여유)
+    @Value("${mogwi.image-store.orphan-grace-minutes:1440}")
+    private long orphanGraceMinutes;
+
+    // 같은 이름에 대한 업로드 확정과 삭제가 겹치지 않도록 이름별로 나눈 락
+    // (이 서버 안에서만 유효. 여러 서버 사이의 경합은 image_refs의 updated_at과 유예 시간으로 막음)
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    private final AtomicLong stored = new AtomicLong();
+    private final AtomicLong deduplicated = new AtomicLong();
+    private final AtomicLong swept = new AtomicLong();
+
+    /**
+     * 저장 결과입니다.
+     *
+     * @param fileName     저장소 안의 파일 이름 (키)
+     * @param url          클라이언트가 쓸 URL (/images/...)
+     * @param size         파일 크기 (바이트)
+     * @param deduplicated 같은 내용의 파일이 이미 있어 새로 쓰지 않았으면 true
+     */
+    public record StoredImage(String fileName, String url, long size, boolean deduplicated) {
+    }
+
+    public ImageStoreService() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * 입력을 임시 파일로 쓰면서 해시를 계산하고, 같은 내용의 파일이 없을 때만 저장소에 올립니다.
+     *
+     * @param originalFilename 확장자를 가져올 원래 파일 이름 (없어도 됨)
+     */
+    public StoredImage store(InputStream input, String originalFilename) throws IOException {
+        Path temp = imageStorage.stagingDirectory().resolve(UUID.randomUUID() + ".upload");
+        try {
+            MessageDigest digest = sha256();
+            long size;
+            try (DigestInputStream in = new DigestInputStream(input, digest)) {
+                size = Files.copy(in, temp);
+            }
+            String fileName = HexFormat.of().formatHex(digest.digest()) + extension(originalFilename);
+
+            synchronized (lockFor(fileName)) {
+                // 업로드 시각을 기록해 두어 카드에 붙기 전에 정리되지 않게 함
+                jdbcTemplate.update("INSERT INTO image_refs (file_name, ref_count) VALUES (?, 0) " +
+                        "ON DUPLICATE KEY UPDATE updated_at = CURRENT_TIMESTAMP", fileName);
+                if (imageStorage.exists(fileName)) {
+                    deduplicated.incrementAndGet();
+                    return new StoredImage(fileName, URL_PREFIX + fileName, size, true);
+                }
+                imageStorage.put(fileName, temp, MediaTypeFactory.getMediaType(fileName)
+                        .map(Object::toString).orElse("application/octet-stream"));
+            }
+            stored.incrementAndGet();
+            return new StoredImage(fileName, URL_PREFIX + fileName, size, false);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 카드에 붙은 이미지의 참조 수를 늘립니다. 호출한 트랜잭션에 참여합니다.
+     *
+     * @param imageUrls 카드의 image_url 목록 (null, 외부 URL, 이전 형식 이름은 무시)
+     */
+    public void addReferences(Collection<String> imageUrls) {
+        Map<String, Integer> counts = countStoredNames(imageUrls);
+        if (counts.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(counts.size());
+        counts.forEach((fileName, count) -> rows.add(new Object[]{fileName, count, count}));
+        jdbcTemplate.batchUpdate("INSERT INTO image_refs (file_name, ref_count) VALUES (?, ?) " +
+                "ON DUPLICATE KEY UPDATE ref_count = ref_count + ?", rows);
+    }
+
+    /**
+     * 문제의 카드가 참조하는 이미지의 참조 수를 줄입니다. 카드를 삭제하기 전에, 같은 트랜잭션에서 호출해야 합니다.
+     * 파일은 유예 시간이 지난 뒤 {@link #sweep()}에서 삭제됩니다.
+     */
+    public void releaseReferences(Long problemId) {
+        List<String> imageUrls = jdbcTemplate.queryForList(
+                "SELECT image_url FROM cards WHERE problem_id = ? AND image_url IS NOT NULL", String.class, problemId);
+        Map<String, Integer> counts = countStoredNames(imageUrls);
+        if (counts.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(counts.size());
+        counts.forEach((fileName, count) -> rows.add(new Object[]{count, fileName}));
+        jdbcTemplate.batchUpdate("UPDATE image_refs SET ref_count = GREATEST(ref_count - ?, 0) WHERE file_name = ?", rows);
+    }
+
+    /**
+     * 참조가 0인 채로 유예 시간이 지난 이미지와 그 변환 파일을 삭제합니다.
+     */
+    @Scheduled(fixedDelayString = "${mogwi.image-store.sweep-interval-ms:3600000}",
+            initialDelayString = "${mogwi.image-store.sweep-interval-ms:3600000}")
+    public void sweep() {
+        Timestamp cutoff = new Timestamp(System.currentTimeMillis() - orphanGraceMinutes * 60_000);
+        List<String> candidates = jdbcTemplate.queryForList(
+                "SELECT file_name FROM image_refs WHERE ref_count = 0 AND updated_at < ? LIMIT " + SWEEP_BATCH,
+                String.class, cutoff);
+
+        int deleted = 0;
+        for (String fileName : candidates) {
+            synchronized (lockFor(fileName)) {
+                // 조회 이후 다시 참조되었거나 다시 업로드되었으면 조건에 걸려 지워지지 않음
+                Integer orphaned = jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM image_refs WHERE file_name = ? AND ref_count = 0 AND updated_at < ?",
+                        Integer.class, fileName, cutoff);
+                if (orphaned == null || orphaned == 0) {
+                    continue;
+                }
+                // 파일을 먼저 지우고 행은 성공한 뒤에 지움 (실패하면 행이 남아 다음 정리 때 다시 시도)
+                if (STORED_NAME.matcher(fileName).matches()) {
+                    try {
+                        imageStorage.delete(fileName);
+                        imageProcessingService.discard(fileName);
+                    } catch (IOException e) {
+                        log.error("참조되지 않는 이미지 삭제 실패 (다음 정리 때 다시 시도): {}: {}", fileName, e.getMessage(), e);
+                        continue;
+                    }
+                    deleted++;
+                }
+                jdbcTemplate.update(
+                        "DELETE FROM image_refs WHERE file_name = ? AND ref_count = 0 AND updated_at < ?", fileName, cutoff);
+            }
+        }
+        swept.addAndGet(deleted);
+        if (deleted > 0) {
+            log.info("참조되지 않는 이미지 {}개 삭제", deleted);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("stored", stored.get());
+        stats.put("deduplicated", deduplicated.get());
+        stats.put("swept", swept.get());
+        stats.put("storage", imageStorage.getStats());
+        return stats;
+    }
+
+    // image_url 목록을 내용 주소 파일 이름별 개수로 묶음
+    private static Map<String, Integer> countStoredNames(Collection<String> imageUrls) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (String imageUrl : imageUrls) {
+            if (imageUrl != null && imageUrl.startsWith(URL_PREFIX)) {
+                String fileName = imageUrl.substring(URL_PREFIX.length());
+                if (STORED_NAME.matcher(fileName).matches()) {
+                    counts.merge(fileName, 1, Integer::sum);
+                }
+            }
+        }
+        return counts;
+    }
+
+    private static String extension(String originalFilename) {
+        if (originalFilename == null || !originalFilename.contains(".")) {
+            return "";
+        }
+        String extension = originalFilename.substring(originalFilename.lastIndexOf('.')).toLowerCase(Locale.ROOT);
+        return EXTENSION.matcher(extension).matches() ? extension : "";
+    }
+
+    private Object lockFor(String fileName) {
+        return locks[Math.floorMod(fileName.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
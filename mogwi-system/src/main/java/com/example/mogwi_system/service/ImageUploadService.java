@@ -0,0 +1,252 @@
+package com.example.mogwi_system.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 이미지 업로드의 크기 제한, 사용자별 할당량, 동시 업로드 수 제한을 적용하는 서비스입니다.
+ * 요청 본문을 작은 버퍼로 읽으면서 바로 저장소({@link ImageStoreService})에 쓰고, 제한을 넘는 순간 중단합니다.
+ * 동시 업로드 수가 가득 차면 잠시 기다렸다가 거절하여, 느린 클라이언트가 워커 스레드와 디스크를 모두 차지하지 못하게 합니다.
+ * 할당량은 이 서버의 메모리에서 고정 시간 창(window) 단위로 셉니다. 읽기 전에 올릴 수 있는 만큼을 먼저 예약하고
+ * 끝난 뒤 쓰지 않은 만큼을 돌려주므로, 같은 키의 동시 업로드가 할당량을 함께 넘지 못합니다.
+ */
+@Service
+@Slf4j
+public class ImageUploadService {
+
+    public enum Rejection { TOO_LARGE, QUOTA_EXCEEDED, BUSY }
+
+    /**
+     * 제한에 걸려 업로드를 거절할 때 던지는 예외입니다.
+     */
+    public static class UploadRejectedException extends RuntimeException {
+
+        private final Rejection reason;
+
+        public UploadRejectedException(Rejection reason, String message) {
+            super(message);
+            this.reason = reason;
+        }
+
+        public Rejection getReason() {
+            return reason;
+        }
+    }
+
+    @Autowired
+    private ImageStoreService imageStoreService;
+
+    @Autowired
+    private ImageProcessingService imageProcessingService;
+
+    @Value("${mogwi.upload.max-file-bytes:10485760}")
+    private long maxFileBytes;
+
+    // 클라이언트(IP)별로 quota-window-ms 동안 올릴 수 있는 바이트
+    @Value("${mogwi.upload.quota-bytes:104857600}")
+    private long quotaBytes;
+
+    @Value("${mogwi.upload.quota-window-ms:86400000}")
+    private long quotaWindowMillis;
+
+    @Value("${mogwi.upload.max-concurrent:8}")
+    private int maxConcurrent;
+
+    // 동시 업로드 자리가 날 때까지 기다리는 최대 시간
+    @Value("${mogwi.upload.acquire-timeout-ms:2000}")
+    private long acquireTimeoutMillis;
+
+    private Semaphore permits;
+    private final Map<String, Usage> usages = new ConcurrentHashMap<>();
+
+    private final AtomicLong uploads = new AtomicLong();
+    private final AtomicLong uploadedBytes = new AtomicLong();
+    private final AtomicLong uploadNanos = new AtomicLong();
+    private final AtomicLong rejectedTooLarge = new AtomicLong();
+    private final AtomicLong rejectedQuota = new AtomicLong();
+    private final AtomicLong rejectedBusy = new AtomicLong();
+
+    // 키 하나의 현재 시간 창 사용량 (불변, 갱신 시 교체)
+    private record Usage(long windowStart, long bytes) {
+    }
+
+    @PostConstruct
+    void init() {
+        permits = new Semaphore(maxConcurrent, true);
+    }
+
+    /**
+     * 입력을 제한을 적용하며 저장하고, 크기별 변환을 예약합니다.
+     *
+     * @param quotaKey         할당량을 셀 키 (클라이언트 IP 등 서버가 확인한 값)
+     * @param input            요청 본문 또는 multipart 파일 스트림
+     * @param declaredLength   클라이언트가 알린 크기 (모르면 -1). 제한을 넘으면 읽기 전에 거절
+     * @param originalFilename 확장자를 가져올 원래 파일 이름
+     * @throws UploadRejectedException 크기/할당량/동시 업로드 제한에 걸린 경우
+     */
+    public ImageStoreService.StoredImage upload(String quotaKey, InputStream input, long declaredLength, String originalFilename)
+            throws IOException {
+        if (declaredLength > maxFileBytes) {
+            throw reject(Rejection.TOO_LARGE, "파일이 너무 큽니다. (최대 " + maxFileBytes + " bytes)");
+        }
+
+        acquire();
+        long startedAt = System.nanoTime();
+        try {
+            Usage reservation = reserve(quotaKey, declaredLength);
+            long reserved = reservation.bytes();
+            // 알린 크기보다 많이 보내거나 파일 한도에 닿으면 크기 초과, 남은 할당량에 닿으면 할당량 초과
+            Rejection overflow = declaredLength >= 0 || reserved >= maxFileBytes ? Rejection.TOO_LARGE : Rejection.QUOTA_EXCEEDED;
+            LimitedInputStream limited = new LimitedInputStream(input, reserved, overflow);
+            ImageStoreService.StoredImage image;
+            try {
+                image = imageStoreService.store(limited, originalFilename);
+            } finally {
+                release(quotaKey, reservation.windowStart(), reserved - Math.min(limited.count, reserved));
+            }
+            imageProcessingService.submit(image.fileName());
+
+            long elapsedNanos = System.nanoTime() - startedAt;
+            uploads.incrementAndGet();
+            uploadedBytes.addAndGet(image.size());
+            uploadNanos.addAndGet(elapsedNanos);
+            log.debug("이미지 업로드 완료: key={}, file={}, bytes={}, elapsed={}ms",
+                    quotaKey, image.fileName(), image.size(), elapsedNanos / 1_000_000);
+            return image;
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * 업로드 수, 전송량, 평균 처리량, 진행 중 업로드 수, 거절 사유별 횟수를 반환합니다.
+     */
+    public Map<String, Object> getStats() {
+        long nanos = uploadNanos.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("uploads", uploads.get());
+        stats.put("uploadedBytes", uploadedBytes.get());
+        stats.put("avgThroughputBytesPerSec", nanos > 0 ? uploadedBytes.get() * 1_000_000_000L / nanos : 0);
+        stats.put("inProgress", maxConcurrent - permits.availablePermits());
+        stats.put("rejectedTooLarge", rejectedTooLarge.get());
+        stats.put("rejectedQuota", rejectedQuota.get());
+        stats.put("rejectedBusy", rejectedBusy.get());
+        stats.put("quotaKeys", usages.size());
+        return stats;
+    }
+
+    /**
+     * 시간 창이 지난 사용량 항목을 제거합니다.
+     */
+    @Scheduled(fixedDelayString = "${mogwi.upload.quota-sweep-interval-ms:600000}")
+    public void purgeExpiredUsages() {
+        long now = System.currentTimeMillis();
+        usages.values().removeIf(usage -> now - usage.windowStart() >= quotaWindowMillis);
+    }
+
+    private void acquire() {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw reject(Rejection.BUSY, "업로드 요청이 많습니다. 잠시 후 다시 시도해 주세요.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw reject(Rejection.BUSY, "업로드가 중단되었습니다.");
+        }
+    }
+
+    /**
+     * 읽기 전에 할당량을 원자적으로 예약합니다. 크기를 알면 그만큼, 모르면 파일 한도와 남은 할당량 중 작은 만큼 예약합니다.
+     *
+     * @return 예약한 시간 창의 시작 시각과 예약한 바이트
+     */
+    private Usage reserve(String quotaKey, long declaredLength) {
+        long now = System.currentTimeMillis();
+        Usage[] reservation = new Usage[1];
+        usages.compute(quotaKey, (key, usage) -> {
+            Usage current = usage == null || now - usage.windowStart() >= quotaWindowMillis ? new Usage(now, 0) : usage;
+            long remaining = quotaBytes - current.bytes();
+            if (remaining <= 0 || declaredLength > remaining) {
+                throw reject(Rejection.QUOTA_EXCEEDED, "업로드 할당량을 초과했습니다.");
+            }
+            long reserved = declaredLength >= 0 ? declaredLength : Math.min(maxFileBytes, remaining);
+            reservation[0] = new Usage(current.windowStart(), reserved);
+            return new Usage(current.windowStart(), current.bytes() + reserved);
+        });
+        return reservation[0];
+    }
+
+    // 예약 중 쓰지 않은 바이트를 돌려줌 (그사이 시간 창이 바뀌었으면 이전 창의 예약이므로 무시)
+    private void release(String quotaKey, long windowStart, long unused) {
+        if (unused <= 0) {
+            return;
+        }
+        usages.computeIfPresent(quotaKey, (key, usage) -> usage.windowStart() == windowStart
+                ? new Usage(windowStart, Math.max(usage.bytes() - unused, 0))
+                : usage);
+    }
+
+    private UploadRejectedException reject(Rejection reason, String message) {
+        switch (reason) {
+            case TOO_LARGE -> rejectedTooLarge.incrementAndGet();
+            case QUOTA_EXCEEDED -> rejectedQuota.incrementAndGet();
+            case BUSY -> rejectedBusy.incrementAndGet();
+        }
+        return new UploadRejectedException(reason, message);
+    }
+
+    // 읽은 바이트 수를 세고, 한도를 넘으면 읽기를 중단하는 스트림
+    private final class LimitedInputStream extends FilterInputStream {
+
+        private final long limit;
+        private final Rejection overflow;
+        long count;
+
+        LimitedInputStream(InputStream in, long limit, Rejection overflow) {
+            super(in);
+            this.limit = limit;
+            this.overflow = overflow;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                advance(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, (int) Math.min(length, limit - count + 1));
+            if (n > 0) {
+                advance(n);
+            }
+            return n;
+        }
+
+        private void advance(int n) {
+            count += n;
+            if (count > limit) {
+                throw overflow == Rejection.QUOTA_EXCEEDED
+                        ? reject(Rejection.QUOTA_EXCEEDED, "업로드 할당량을 초과했습니다.")
+                        : reject(Rejection.TOO_LARGE, "파일이 너무 큽니다. (최대 " + maxFileBytes + " bytes)");
+            }
+        }
+    }
+}
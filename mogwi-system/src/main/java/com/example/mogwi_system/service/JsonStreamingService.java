@@ -0,0 +1,100 @@
+package com.example.mogwi_system.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * 큰 목록 조회 결과를 JSON 배열로 바로 흘려 보내는(streaming) 서비스입니다.
+ * 결과 행을 List/Map으로 모으지 않고, fetch size 단위로 읽어 오는 결과 집합에서 한 행씩 JsonGenerator로 씁니다.
+ * 따라서 응답 크기와 관계없이 메모리 사용량이 일정합니다.
+ * 쿼리는 응답을 쓰는 스레드에서 별도 커넥션으로 실행되므로, 호출한 컨트롤러의 트랜잭션에 참여하지 않습니다.
+ */
+@Service
+@Slf4j
+public class JsonStreamingService {
+
+    // 이 행 수마다 출력 버퍼를 클라이언트로 내보냄
+    private static final int FLUSH_EVERY_ROWS = 100;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // 결과 집합을 한 번에 읽어 올 행 수 (MariaDB 드라이버는 fetch size가 있으면 결과를 나눠서 받음)
+    @Value("${mogwi.streaming.fetch-size:500}")
+    private int fetchSize;
+
+    private NamedParameterJdbcTemplate streamingJdbcTemplate;
+
+    /**
+     * 한 행을 JSON 객체의 필드로 씁니다. (객체 시작/끝은 호출하는 쪽에서 씀)
+     */
+    @FunctionalInterface
+    public interface RowWriter {
+        void write(ResultSet rs, JsonGenerator json) throws SQLException, IOException;
+    }
+
+    @PostConstruct
+    void init() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(fetchSize);
+        streamingJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /**
+     * 쿼리 결과를 JSON 객체 배열로 쓰는 응답 본문을 만듭니다.
+     * 응답을 쓰기 시작한 뒤 오류가 나면 상태 코드를 바꿀 수 없으므로, 배열이 닫히지 않은 채로 연결이 끊깁니다.
+     *
+     * @param sql       :name 형식의 이름 있는 파라미터를 쓰는 SQL
+     * @param params    파라미터 값
+     * @param rowWriter 한 행을 객체 필드로 쓰는 함수
+     */
+    public StreamingResponseBody streamArray(String sql, Map<String, ?> params, RowWriter rowWriter) {
+        return outputStream -> {
+            long startedAt = System.currentTimeMillis();
+            int[] rows = {0};
+            // 실패 시 close()가 남은 괄호를 채워 잘린 배열이 정상 응답처럼 보이지 않도록, 배열은 성공했을 때만 닫음
+            try (JsonGenerator json = objectMapper.createGenerator(outputStream)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT)) {
+                json.writeStartArray();
+                streamingJdbcTemplate.query(sql, params, rs -> {
+                    try {
+                        json.writeStartObject();
+                        rowWriter.write(rs, json);
+                        json.writeEndObject();
+                        if (++rows[0] % FLUSH_EVERY_ROWS == 0) {
+                            json.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                json.writeEndArray();
+            } catch (UncheckedIOException e) {
+                log.warn("스트리밍 응답 중단 (rows={}): {}", rows[0], e.getCause().getMessage());
+                throw e.getCause();
+            } catch (RuntimeException e) {
+                log.error("스트리밍 응답 중 오류 발생 (rows={}): {}", rows[0], e.getMessage(), e);
+                throw e;
+            }
+            log.debug("스트리밍 응답 완료: rows={}, elapsed={}ms", rows[0], System.currentTimeMillis() - startedAt);
+        };
+    }
+}
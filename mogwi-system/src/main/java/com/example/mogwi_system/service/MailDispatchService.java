@@ -0,0 +1,220 @@
+package com.example.mogwi_system.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 이메일을 요청 스레드 밖에서 발송하는 큐 기반 디스패처입니다.
+ * 제한된 크기의 큐와 고정된 수의 워커 스레드를 사용하며, 워커는 큐에 쌓인 메일을 묶어서
+ * 한 번의 SMTP 연결로 발송합니다. 실패한 메일은 지수 백오프로 재시도하고, 발송 상태는 작업 ID로 조회할 수 있습니다.
+ */
+@Service
+@Slf4j
+public class MailDispatchService {
+
+    public enum MailStatus { QUEUED, SENDING, SENT, FAILED }
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Value("${mogwi.mail.queue-capacity:500}")
+    private int queueCapacity;
+
+    @Value("${mogwi.mail.workers:2}")
+    private int workerCount;
+
+    // 한 번의 SMTP 연결로 보낼 최대 메일 수
+    @Value("${mogwi.mail.batch-size:20}")
+    private int batchSize;
+
+    @Value("${mogwi.mail.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${mogwi.mail.initial-backoff-ms:1000}")
+    private long initialBackoffMillis;
+
+    // 완료(SENT/FAILED)된 작업 상태를 보관하는 시간
+    @Value("${mogwi.mail.status-retention-minutes:10}")
+    private long statusRetentionMinutes;
+
+    private BlockingQueue<MailJob> queue;
+    private ExecutorService workers;
+    private ScheduledExecutorService retryScheduler;
+    private final Map<String, MailJob> jobs = new ConcurrentHashMap<>();
+    private volatile boolean running;
+
+    private static class MailJob {
+        final String id;
+        final String to;
+        final String subject;
+        final String text;
+        volatile MailStatus status = MailStatus.QUEUED;
+        volatile int attempts;
+        volatile long completedAt;
+
+        MailJob(String id, String to, String subject, String text) {
+            this.id = id;
+            this.to = to;
+            this.subject = subject;
+            this.text = text;
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "mail-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mail-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            workers.submit(this::workLoop);
+        }
+        retryScheduler.scheduleWithFixedDelay(this::purgeCompletedJobs, 1, 1, TimeUnit.MINUTES);
+        log.info("메일 디스패처 시작: workers={}, queueCapacity={}, batchSize={}", workerCount, queueCapacity, batchSize);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        workers.shutdownNow();
+        retryScheduler.shutdownNow();
+    }
+
+    /**
+     * 메일 발송을 큐에 등록하고 작업 ID를 반환합니다.
+     *
+     * @return 작업 ID (큐가 가득 차 등록하지 못하면 null)
+     */
+    public String submit(String to, String subject, String text) {
+        MailJob job = new MailJob(UUID.randomUUID().toString(), to, subject, text);
+        jobs.put(job.id, job);
+        if (!queue.offer(job)) {
+            jobs.remove(job.id);
+            log.warn("메일 큐가 가득 차 발송 요청을 거절했습니다: to={}", to);
+            return null;
+        }
+        return job.id;
+    }
+
+    /**
+     * 작업 ID의 발송 상태를 조회합니다. (알 수 없거나 보관 기간이 지난 작업이면 null)
+     */
+    public MailStatus getStatus(String jobId) {
+        MailJob job = jobs.get(jobId);
+        return job != null ? job.status : null;
+    }
+
+    private void workLoop() {
+        while (running) {
+            try {
+                List<MailJob> batch = new ArrayList<>(batchSize);
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+                sendBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("메일 디스패처 워커 오류: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private void sendBatch(List<MailJob> batch) {
+        Map<MimeMessage, MailJob> messages = new IdentityHashMap<>();
+        for (MailJob job : batch) {
+            job.status = MailStatus.SENDING;
+            job.attempts++;
+            try {
+                MimeMessage message = mailSender.createMimeMessage();
+                MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+                helper.setTo(job.to);
+                helper.setSubject(job.subject);
+                helper.setText(job.text);
+                messages.put(message, job);
+            } catch (Exception e) {
+                log.error("메일 메시지 생성 실패: jobId={}, to={}: {}", job.id, job.to, e.getMessage());
+                markCompleted(job, MailStatus.FAILED);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        try {
+            // JavaMailSenderImpl은 한 번의 send 호출 안에서 하나의 SMTP 연결(Transport)을 재사용합니다.
+            mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+            messages.values().forEach(job -> markCompleted(job, MailStatus.SENT));
+            log.info("메일 {}건 발송 완료", messages.size());
+        } catch (MailSendException e) {
+            // 일부만 실패한 경우 실패한 메일만 재시도 (실패 목록이 비어 있으면 전체 실패로 간주)
+            Map<Object, Exception> failed = e.getFailedMessages();
+            messages.forEach((message, job) -> {
+                if (failed.isEmpty() || failed.containsKey(message)) {
+                    scheduleRetry(job);
+                } else {
+                    markCompleted(job, MailStatus.SENT);
+                }
+            });
+            log.warn("메일 발송 실패: batch={}, failed={}, reason={}", messages.size(), failed.isEmpty() ? messages.size() : failed.size(), e.getMessage());
+        } catch (Exception e) {
+            log.warn("메일 {}건 발송 실패: {}", messages.size(), e.getMessage());
+            messages.values().forEach(this::scheduleRetry);
+        }
+    }
+
+    private void scheduleRetry(MailJob job) {
+        if (job.attempts >= maxAttempts) {
+            markCompleted(job, MailStatus.FAILED);
+            log.error("메일 발송 최종 실패: jobId={}, to={}, attempts={}", job.id, job.to, job.attempts);
+            return;
+        }
+        job.status = MailStatus.QUEUED;
+        long delay = initialBackoffMillis * (1L << (job.attempts - 1));
+        retryScheduler.schedule(() -> {
+            if (!queue.offer(job)) {
+                markCompleted(job, MailStatus.FAILED);
+                log.error("메일 재시도 등록 실패 (큐 가득 참): jobId={}", job.id);
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void markCompleted(MailJob job, MailStatus status) {
+        job.status = status;
+        job.completedAt = System.currentTimeMillis();
+    }
+
+    private void purgeCompletedJobs() {
+        long threshold = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(statusRetentionMinutes);
+        jobs.values().removeIf(job -> job.completedAt > 0 && job.completedAt < threshold);
+    }
+}
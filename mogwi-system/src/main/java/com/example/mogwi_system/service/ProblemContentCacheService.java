@@ -0,0 +1,243 @@
+package com.example.mogwi_system.service;
+
+import com.example.mogwi_system.dto.ProblemContent;
+import com.example.mogwi_system.support.TransactionCallbacks;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 문제 세트의 변하지 않는 내용(제목, 설명, 작성자, 카테고리, 카드 목록)을 메모리에 보관하는 캐시입니다.
+ * 문제 내용은 생성 후 수정되지 않으므로 삭제 시에만 무효화합니다.
+ * 직렬화된 JSON과 그 SHA-256 값(강한 ETag)을 함께 보관하여, 재조회 시 DB 조회와 재직렬화 없이 응답합니다.
+ * 카드 이미지는 원본 image_url을 보관하고 응답할 때 크기별 URL로 바꿉니다. 변환이 끝나 URL이 바뀌면 JSON과 ETag를 다시 만듭니다.
+ * 캐시 크기는 카드 수 기준 가중치의 합으로 제한하며, 넘으면 가장 오래 사용되지 않은 문제부터 제거합니다.
+ */
+@Service
+@Slf4j
+public class ProblemContentCacheService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CategoryCacheService categoryCacheService;
+
+    @Autowired
+    private ImageProcessingService imageProcessingService;
+
+    private final long maxWeight;
+    private final Map<Long, Entry> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalWeight;
+    // 무효화할 때마다 증가하는 세대 번호와 문제별 마지막 무효화 세대 (cache 락으로 보호)
+    // 적재 중에 무효화된 문제는 적재 결과를 넣지 않음. 진행 중인 적재가 없으면 비움
+    private long generation;
+    private final Map<Long, Long> invalidatedAt = new HashMap<>();
+    private int loading;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * 응답할 문제 내용입니다.
+     *
+     * @param content 카드 이미지 URL을 크기별 URL로 바꾼 문제 내용
+     * @param json    content를 직렬화한 JSON
+     * @param etag    json의 SHA-256으로 만든 강한 ETag (따옴표 포함)
+     */
+    public record CachedContent(ProblemContent content, byte[] json, String etag) {
+    }
+
+    // 캐시 항목: DB에서 읽은 내용(원본 image_url)과 마지막으로 만든 응답
+    private static final class Entry {
+        final ProblemContent source;
+        final int weight;
+        volatile CachedContent view;
+
+        Entry(ProblemContent source) {
+            this.source = source;
+            this.weight = source.cards().size() + 1;
+        }
+    }
+
+    public ProblemContentCacheService(@Value("${mogwi.problem-cache.max-weight:50000}") long maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * 문제 내용을 조회합니다. 캐시에 없으면 DB에서 읽어 캐시에 넣습니다.
+     *
+     * @return 문제 내용 (문제가 없으면 empty)
+     */
+    public Optional<CachedContent> get(Long problemId) {
+        Entry cached;
+        long startGeneration = 0;
+        synchronized (cache) {
+            cached = cache.get(problemId);
+            if (cached == null) {
+                startGeneration = generation;
+                loading++;
+            }
+        }
+        if (cached != null) {
+            // URL 변환은 저장소를 조회할 수 있으므로 락 밖에서 수행
+            hits.incrementAndGet();
+            return Optional.of(view(problemId, cached));
+        }
+
+        misses.incrementAndGet();
+        Entry loaded = null;
+        try {
+            loaded = load(problemId).map(Entry::new).orElse(null);
+        } finally {
+            finishLoad(problemId, startGeneration, loaded);
+        }
+        return loaded != null ? Optional.of(view(problemId, loaded)) : Optional.empty();
+    }
+
+    /**
+     * 문제 삭제 시 캐시 항목을 제거합니다. (커밋 전 재적재 대비 커밋 후에도 한 번 더)
+     */
+    public void invalidate(Long problemId) {
+        remove(problemId);
+        TransactionCallbacks.afterCommit(() -> remove(problemId));
+    }
+
+    /**
+     * 캐시 상태(항목 수, 가중치, 적중/미적중, 제거 횟수)를 반환합니다.
+     */
+    public Map<String, Object> getStats() {
+        int size;
+        long weight;
+        synchronized (cache) {
+            size = cache.size();
+            weight = totalWeight;
+        }
+        return Map.of("size", size, "weight", weight, "maxWeight", maxWeight,
+                "hits", hits.get(), "misses", misses.get(), "evictions", evictions.get());
+    }
+
+    // 적재를 마치고, 적재 중에 무효화되지 않았으면 캐시에 넣음
+    private void finishLoad(Long problemId, long startGeneration, Entry content) {
+        synchronized (cache) {
+            Long invalidated = invalidatedAt.get(problemId);
+            if (content != null && (invalidated == null || invalidated <= startGeneration)) {
+                put(problemId, content);
+            }
+            if (--loading == 0) {
+                invalidatedAt.clear();
+            }
+        }
+    }
+
+    private void put(Long problemId, Entry content) {
+        synchronized (cache) {
+            Entry previous = cache.put(problemId, content);
+            totalWeight += content.weight - (previous != null ? previous.weight : 0);
+
+            // 가중치 합이 한도를 넘으면 가장 오래 사용되지 않은 항목부터 제거 (방금 넣은 항목은 유지)
+            Iterator<Map.Entry<Long, Entry>> iterator = cache.entrySet().iterator();
+            while (totalWeight > maxWeight && iterator.hasNext()) {
+                Map.Entry<Long, Entry> eldest = iterator.next();
+                if (eldest.getKey().equals(problemId)) {
+                    break;
+                }
+                totalWeight -= eldest.getValue().weight;
+                iterator.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private void remove(Long problemId) {
+        synchronized (cache) {
+            if (loading > 0) {
+                invalidatedAt.put(problemId, ++generation);
+            }
+            Entry removed = cache.remove(problemId);
+            if (removed != null) {
+                totalWeight -= removed.weight;
+            }
+        }
+    }
+
+    // 카드 이미지를 현재 준비된 크기별 URL로 바꾼 응답. URL이 지난 응답과 같으면 JSON과 ETag를 다시 만들지 않음
+    private CachedContent view(Long problemId, Entry entry) {
+        List<ProblemContent.Card> cards = new ArrayList<>(entry.source.cards().size());
+        for (ProblemContent.Card card : entry.source.cards()) {
+            cards.add(card.imageUrl() != null ? card.withImage(imageProcessingService.resolve(card.imageUrl())) : card);
+        }
+        ProblemContent resolved = entry.source.withCards(List.copyOf(cards));
+
+        CachedContent view = entry.view;
+        if (view != null && view.content().equals(resolved)) {
+            return view;
+        }
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(resolved);
+            String etag = "\"" + HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json)) + "\"";
+            view = new CachedContent(resolved, json, etag);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("문제 내용 직렬화 실패: problemId=" + problemId, e);
+        }
+        entry.view = view;
+        return view;
+    }
+
+    private Optional<ProblemContent> load(Long problemId) {
+        List<Object[]> problemResults = entityManager.createNativeQuery(
+                        "SELECT p.id, p.title, p.description, u.username AS author_name, u.userid AS author_id, p.card_count, " +
+                                "(SELECT GROUP_CONCAT(pc.category_id ORDER BY pc.category_id) FROM problem_categories pc WHERE pc.problem_id = p.id) AS category_ids " +
+                                "FROM problems p " +
+                                "JOIN users u ON p.author_id = u.id " +
+                                "WHERE p.id = ?1")
+                .setParameter(1, problemId)
+                .getResultList();
+        if (problemResults.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Object[] row = problemResults.get(0);
+
+        // 카드 리스트 조회 (정답 컬럼은 'correct'임, 'answer' 아님)
+        List<Object[]> cardResults = entityManager.createNativeQuery(
+                        "SELECT question, correct, image_url FROM cards WHERE problem_id = ?1 ORDER BY id ASC")
+                .setParameter(1, problemId)
+                .getResultList();
+        List<ProblemContent.Card> cards = new ArrayList<>(cardResults.size());
+        for (Object[] cardRow : cardResults) {
+            cards.add(new ProblemContent.Card((String) cardRow[0], (String) cardRow[1], (String) cardRow[2], null, null));
+        }
+        ProblemContent content = new ProblemContent(
+                ((Number) row[0]).longValue(),
+                (String) row[1],
+                (String) row[2],
+                (String) row[3],
+                (String) row[4],
+                row[5] != null ? ((Number) row[5]).intValue() : 0,
+                categoryCacheService.toTags(row[6]),
+                List.copyOf(cards));
+        return Optional.of(content);
+    }
+}
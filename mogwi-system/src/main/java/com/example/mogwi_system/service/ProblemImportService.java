@@ -0,0 +1,117 @@
+package com.example.mogwi_system.service;
+
+import com.example.mogwi_system.service.search.ProblemSearchService;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 문제(problems)와 카테고리 연결(problem_categories), 카드(cards)를 JDBC 배치로 저장하는 서비스입니다.
+ * 카드/카테고리를 행마다 INSERT하지 않고 한 번의 배치로 전송하며, 문제 ID는 생성 키로 바로 받습니다.
+ */
+@Service
+@Slf4j
+@Transactional
+public class ProblemImportService {
+
+    // 한 번의 배치로 전송할 최대 행 수
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProblemSearchService problemSearchService;
+
+    @Autowired
+    private ImageStoreService imageStoreService;
+
+    /**
+     * 저장할 문제 한 세트입니다.
+     */
+    public record ProblemDraft(String title, String description, boolean isPublic,
+                               List<Long> categoryIds, List<CardDraft> cards) {
+    }
+
+    /**
+     * 저장할 카드 한 장입니다.
+     */
+    public record CardDraft(String question, String answer, String imageUrl) {
+    }
+
+    /**
+     * 문제 한 세트를 저장하고 생성된 문제 ID를 반환합니다.
+     *
+     * @param authorInternalId 작성자의 내부 사용자 ID (users.id)
+     */
+    public Long create(Long authorInternalId, ProblemDraft draft) {
+        // 1. problems 삽입 후 생성 키(auto_increment ID) 조회
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO problems (title, description, author_id, card_count, is_public) VALUES (?, ?, ?, ?, ?)",
+                    Statement.RETURN_GENERATED_KEYS);
+            ps.setString(1, draft.title());
+            ps.setString(2, draft.description() != null && !draft.description().isEmpty() ? draft.description() : null);
+            ps.setLong(3, authorInternalId);
+            ps.setInt(4, draft.cards().size());
+            ps.setInt(5, draft.isPublic() ? 1 : 0);
+            return ps;
+        }, keyHolder);
+        Long problemId = keyHolder.getKey().longValue();
+
+        // 2. problem_categories 배치 삽입
+        List<Object[]> categoryRows = new ArrayList<>(draft.categoryIds().size());
+        for (Long categoryId : draft.categoryIds()) {
+            categoryRows.add(new Object[]{problemId, categoryId});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO problem_categories (problem_id, category_id) VALUES (?, ?)", categoryRows);
+
+        // 3. cards 배치 삽입 (BATCH_SIZE 단위로 나누어 전송)
+        List<Object[]> cardRows = new ArrayList<>(draft.cards().size());
+        List<String> cardTexts = new ArrayList<>(draft.cards().size() * 2);
+        List<String> imageUrls = new ArrayList<>();
+        for (CardDraft card : draft.cards()) {
+            String imageUrl = card.imageUrl() != null && !card.imageUrl().isEmpty() ? card.imageUrl() : null;
+            cardRows.add(new Object[]{problemId, card.question(), card.answer(), imageUrl});
+            if (imageUrl != null) {
+                imageUrls.add(imageUrl);
+            }
+            cardTexts.add(card.question());
+            cardTexts.add(card.answer());
+        }
+        for (int from = 0; from < cardRows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate("INSERT INTO cards (problem_id, question, correct, image_url) VALUES (?, ?, ?, ?)",
+                    cardRows.subList(from, Math.min(from + BATCH_SIZE, cardRows.size())));
+        }
+        imageStoreService.addReferences(imageUrls);
+
+        // 4. 공개 문제는 커밋 후 검색 색인에 추가
+        if (draft.isPublic()) {
+            problemSearchService.indexProblem(problemId, draft.title(), draft.description(), cardTexts);
+        }
+        return problemId;
+    }
+
+    /**
+     * 여러 문제 세트를 하나의 트랜잭션으로 저장합니다. 하나라도 실패하면 모두 롤백됩니다.
+     *
+     * @return 입력 순서대로 생성된 문제 ID 목록
+     */
+    public List<Long> createAll(Long authorInternalId, List<ProblemDraft> drafts) {
+        List<Long> problemIds = new ArrayList<>(drafts.size());
+        for (ProblemDraft draft : drafts) {
+            problemIds.add(create(authorInternalId, draft));
+        }
+        return problemIds;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.mogwi_system.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * 사용자별 문제 학습 진행 카운터(user_problem_progress)를 관리하는 서비스입니다.
+ * 카드 상태가 바뀔 때마다 perfect/학습한 카드 수를 증감하여, 문제 상태(new/ongoing/completed)를
+ * 문제의 모든 카드 상태를 다시 읽지 않고 O(1)로 계산합니다.
+ */
+@Service
+@Slf4j
+@Transactional
+public class ProblemProgressService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * 카드 상태 전이를 진행 카운터에 반영하고, 그 결과로 계산된 문제 상태를 반환합니다.
+     * user_card_status 쓰기가 끝난 뒤 같은 트랜잭션에서 호출해야 합니다.
+     *
+     * @param previousStatus 이전 카드 상태 (처음 학습한 카드면 null)
+     * @param newStatus      새 카드 상태 ('perfect', 'vague', 'forgotten')
+     * @return 문제 상태 ('new', 'ongoing', 'completed')
+     */
+    public String applyTransition(Long userId, Long problemId, String previousStatus, String newStatus) {
+        int perfectDelta = ("perfect".equals(newStatus) ? 1 : 0) - ("perfect".equals(previousStatus) ? 1 : 0);
+        int studiedDelta = previousStatus == null ? 1 : 0;
+        return applyDelta(userId, problemId, perfectDelta, studiedDelta);
+    }
+
+    /**
+     * 여러 카드 상태 전이를 합산한 증감분을 진행 카운터에 한 번에 반영하고, 계산된 문제 상태를 반환합니다.
+     * user_card_status 쓰기가 끝난 뒤 같은 트랜잭션에서 호출해야 합니다.
+     *
+     * @param perfectDelta perfect 카드 수 증감분
+     * @param studiedDelta 처음 학습한 카드 수
+     * @return 문제 상태 ('new', 'ongoing', 'completed')
+     */
+    public String applyDelta(Long userId, Long problemId, int perfectDelta, int studiedDelta) {
+        int updated = entityManager.createNativeQuery(
+                        "UPDATE user_problem_progress SET perfect_count = perfect_count + ?1, studied_count = studied_count + ?2 " +
+                                "WHERE user_id = ?3 AND problem_id = ?4")
+                .setParameter(1, perfectDelta)
+                .setParameter(2, studiedDelta)
+                .setParameter(3, userId)
+                .setParameter(4, problemId)
+                .executeUpdate();
+
+        if (updated == 0) {
+            // 카운터가 아직 없는 (user, problem)은 현재 카드 상태로 한 번만 초기화 (방금 쓴 상태 포함)
+            initialize(userId, problemId);
+        }
+        return getProblemStatus(userId, problemId);
+    }
+
+    /**
+     * 진행 카운터와 문제의 카드 수로 문제 상태를 계산합니다.
+     * 카드가 없으면 'new', 모든 카드가 perfect이면 'completed', 그 외에는 'ongoing'입니다.
+     */
+    public String getProblemStatus(Long userId, Long problemId) {
+        List<?> result = entityManager.createNativeQuery(
+                        "SELECT COALESCE(upp.perfect_count, 0), p.card_count FROM problems p " +
+                                "LEFT JOIN user_problem_progress upp ON upp.problem_id = p.id AND upp.user_id = ?1 " +
+                                "WHERE p.id = ?2")
+                .setParameter(1, userId)
+                .setParameter(2, problemId)
+                .getResultList();
+        if (result.isEmpty()) {
+            return "new";
+        }
+        Object[] row = (Object[]) result.get(0);
+        int perfectCount = ((Number) row[0]).intValue();
+        int cardCount = row[1] != null ? ((Number) row[1]).intValue() : 0;
+
+        if (cardCount == 0) {
+            return "new";
+        }
+        return perfectCount >= cardCount ? "completed" : "ongoing";
+    }
+
+    /**
+     * 문제 삭제 시 모든 사용자의 진행 카운터를 제거합니다.
+     */
+    public void remove(Long problemId) {
+        entityManager.createNativeQuery("DELETE FROM user_problem_progress WHERE problem_id = ?1")
+                .setParameter(1, problemId)
+                .executeUpdate();
+    }
+
+    private void initialize(Long userId, Long problemId) {
+        entityManager.createNativeQuery(
+                        "INSERT INTO user_problem_progress (user_id, problem_id, perfect_count, studied_count) " +
+                                "SELECT ?1, ?2, " +
+                                "COALESCE(SUM(CASE WHEN ucs.card_status = 'perfect' THEN 1 ELSE 0 END), 0), COUNT(ucs.id) " +
+                                "FROM user_card_status ucs WHERE ucs.user_id = ?1 AND ucs.problem_id = ?2 " +
+                                "ON DUPLICATE KEY UPDATE perfect_count = VALUES(perfect_count), studied_count = VALUES(studied_count)")
+                .setParameter(1, userId)
+                .setParameter(2, problemId)
+                .executeUpdate();
+        log.debug("user_problem_progress 초기화: userId={}, problemId={}", userId, problemId);
+    }
+}
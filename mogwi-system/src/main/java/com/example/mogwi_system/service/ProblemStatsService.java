@@ -0,0 +1,107 @@
+package com.example.mogwi_system.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import com.example.mogwi_system.support.TransactionCallbacks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * 문제별 좋아요/스크랩 수를 problem_stats 테이블에 미리 계산해 두는 서비스입니다.
+ * 좋아요/스크랩 토글 시 증감분만 반영하고, 주기적으로 user_problem_status 기준으로 재집계하여 오차를 보정합니다.
+ */
+@Service
+@Slf4j
+@Transactional
+public class ProblemStatsService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    /**
+     * 문제의 좋아요/스크랩 카운터를 증감합니다. (음수가 되지 않도록 0에서 멈춤)
+     *
+     * @param problemId  문제 ID
+     * @param likeDelta  좋아요 증감분 (-1, 0, 1)
+     * @param scrapDelta 스크랩 증감분 (-1, 0, 1)
+     */
+    public void adjust(Long problemId, int likeDelta, int scrapDelta) {
+        if (likeDelta == 0 && scrapDelta == 0) {
+            return;
+        }
+        entityManager.createNativeQuery(
+                        "INSERT INTO problem_stats (problem_id, like_count, scrap_count) VALUES (?1, GREATEST(?2, 0), GREATEST(?3, 0)) " +
+                                "ON DUPLICATE KEY UPDATE like_count = GREATEST(like_count + ?2, 0), scrap_count = GREATEST(scrap_count + ?3, 0)")
+                .setParameter(1, problemId)
+                .setParameter(2, likeDelta)
+                .setParameter(3, scrapDelta)
+                .executeUpdate();
+        log.debug("problem_stats 갱신: problemId={}, likeDelta={}, scrapDelta={}", problemId, likeDelta, scrapDelta);
+        // 인기 문제 순위는 커밋된 증감만 반영
+        TransactionCallbacks.afterCommit(() -> trendingService.adjust(problemId, likeDelta, scrapDelta));
+    }
+
+    /**
+     * 문제의 현재 좋아요/스크랩 수를 조회합니다.
+     *
+     * @param problemId 문제 ID
+     * @return [좋아요 수, 스크랩 수] (통계 행이 없으면 0)
+     */
+    public long[] getCounts(Long problemId) {
+        List<?> result = entityManager.createNativeQuery(
+                        "SELECT like_count, scrap_count FROM problem_stats WHERE problem_id = ?1")
+                .setParameter(1, problemId)
+                .getResultList();
+        if (result.isEmpty()) {
+            return new long[]{0L, 0L};
+        }
+        Object[] row = (Object[]) result.get(0);
+        return new long[]{((Number) row[0]).longValue(), ((Number) row[1]).longValue()};
+    }
+
+    /**
+     * 문제 삭제 시 통계 행을 함께 제거합니다.
+     */
+    public void remove(Long problemId) {
+        entityManager.createNativeQuery("DELETE FROM problem_stats WHERE problem_id = ?1")
+                .setParameter(1, problemId)
+                .executeUpdate();
+        TransactionCallbacks.afterCommit(() -> trendingService.remove(problemId));
+    }
+
+    /**
+     * user_problem_status 전체를 다시 집계하여 problem_stats를 보정합니다.
+     * 기동 직후(기존 데이터 반영)와 설정된 주기마다 실행됩니다.
+     * 집계 도중 커밋된 토글은 다음 보정 때 반영될 수 있습니다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${mogwi.stats.reconcile-interval-ms:3600000}",
+            initialDelayString = "${mogwi.stats.reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        long startedAt = System.currentTimeMillis();
+        int upserted = entityManager.createNativeQuery(
+                        "INSERT INTO problem_stats (problem_id, like_count, scrap_count) " +
+                                "SELECT p.id, " +
+                                "COALESCE(SUM(CASE WHEN ups.is_liked = 1 THEN 1 ELSE 0 END), 0), " +
+                                "COALESCE(SUM(CASE WHEN ups.is_scrapped = 1 THEN 1 ELSE 0 END), 0) " +
+                                "FROM problems p " +
+                                "LEFT JOIN user_problem_status ups ON ups.problem_id = p.id " +
+                                "GROUP BY p.id " +
+                                "ON DUPLICATE KEY UPDATE like_count = VALUES(like_count), scrap_count = VALUES(scrap_count)")
+                .executeUpdate();
+        int removed = entityManager.createNativeQuery(
+                        "DELETE ps FROM problem_stats ps LEFT JOIN problems p ON p.id = ps.problem_id WHERE p.id IS NULL")
+                .executeUpdate();
+        log.info("problem_stats 재집계 완료: upserted={}, removed={}, elapsed={}ms", upserted, removed, System.currentTimeMillis() - startedAt);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.mogwi_system.service;
+
+import org.springframework.stereotype.Service;
+
+/**
+ * SM-2 알고리즘으로 카드의 다음 복습 간격을 계산하는 스케줄러입니다. (DB 접근 없음)
+ * 카드 상태를 SM-2 답 품질로 바꿔 계산합니다: perfect = 5, vague = 3, forgotten = 1.
+ * forgotten이면 반복 횟수를 0으로 돌리고 다음 날 다시 복습하며, 그 외에는 1일 -> 6일 -> 이전 간격 x 용이도(ease factor)로 늘립니다.
+ */
+@Service
+public class SpacedRepetitionScheduler {
+
+    public static final double DEFAULT_EASE_FACTOR = 2.5;
+    public static final double MIN_EASE_FACTOR = 1.3;
+    public static final int MAX_INTERVAL_DAYS = 365;
+
+    /**
+     * 카드 한 장의 복습 스케줄 상태입니다.
+     *
+     * @param repetitions  연속으로 기억한 횟수
+     * @param intervalDays 다음 복습까지의 간격 (일)
+     * @param easeFactor   용이도 (클수록 간격이 빠르게 늘어남)
+     */
+    public record ReviewState(int repetitions, int intervalDays, double easeFactor) {
+
+        /**
+         * 처음 학습하는 카드의 상태입니다.
+         */
+        public static final ReviewState INITIAL = new ReviewState(0, 0, DEFAULT_EASE_FACTOR);
+    }
+
+    /**
+     * 답에 따라 다음 스케줄 상태를 계산합니다.
+     *
+     * @param previous   이전 상태 (처음 학습한 카드면 null)
+     * @param cardStatus 'perfect', 'vague', 'forgotten'
+     * @return 다음 상태 (intervalDays일 뒤가 다음 복습 시점)
+     * @throws IllegalArgumentException 카드 상태 값이 잘못된 경우
+     */
+    public ReviewState next(ReviewState previous, String cardStatus) {
+        ReviewState state = previous != null ? previous : ReviewState.INITIAL;
+        int quality = quality(cardStatus);
+
+        double easeFactor = state.easeFactor() + (0.1 - (5 - quality) * (0.08 + (5 - quality) * 0.02));
+        easeFactor = Math.max(easeFactor, MIN_EASE_FACTOR);
+
+        if (quality < 3) {
+            return new ReviewState(0, 1, easeFactor);
+        }
+
+        int repetitions = state.repetitions() + 1;
+        int intervalDays;
+        if (repetitions == 1) {
+            intervalDays = 1;
+        } else if (repetitions == 2) {
+            intervalDays = 6;
+        } else {
+            intervalDays = (int) Math.round(state.intervalDays() * state.easeFactor());
+        }
+        return new ReviewState(repetitions, Math.min(Math.max(intervalDays, 1), MAX_INTERVAL_DAYS), easeFactor);
+    }
+
+    private int quality(String cardStatus) {
+        if (cardStatus == null) {
+            throw new IllegalArgumentException("카드 상태가 없습니다.");
+        }
+        return switch (cardStatus) {
+            case "perfect" -> 5;
+            case "vague" -> 3;
+            case "forgotten" -> 1;
+            default -> throw new IllegalArgumentException("유효하지 않은 카드 상태입니다: " + cardStatus);
+        };
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.mogwi_system.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 카드 학습 이벤트 로그(study_events)와 사용자별 일별 집계(user_daily_study)를 관리하는 서비스입니다.
+ * user_card_status는 카드의 마지막 상태만 남기므로, 학습 기록은 이벤트로 따로 쌓고
+ * 같은 트랜잭션에서 일별 카운터를 증가시켜 리포트가 작은 범위 조회만 하도록 합니다.
+ */
+@Service
+@Slf4j
+@Transactional
+public class StudyEventService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * 카드 상태 변경 한 건입니다.
+     *
+     * @param previousStatus 이전 카드 상태 (처음 학습한 카드면 null)
+     * @param newStatus      새 카드 상태 ('perfect', 'vague', 'forgotten')
+     */
+    public record StudyEvent(Long cardId, String previousStatus, String newStatus) {
+    }
+
+    /**
+     * 카드 상태 변경 한 건을 이벤트 로그에 추가하고 오늘의 일별 카운터에 반영합니다.
+     *
+     * @param previousStatus 이전 카드 상태 (처음 학습한 카드면 null)
+     * @param newStatus      새 카드 상태 ('perfect', 'vague', 'forgotten')
+     */
+    public void record(Long userId, Long problemId, Long cardId, String previousStatus, String newStatus) {
+        recordAll(userId, problemId, List.of(new StudyEvent(cardId, previousStatus, newStatus)));
+    }
+
+    /**
+     * 한 문제의 카드 상태 변경 여러 건을 배치로 이벤트 로그에 추가하고, 합산한 값으로 오늘의 일별 카운터를 한 번에 증가시킵니다.
+     */
+    public void recordAll(Long userId, Long problemId, List<StudyEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> rows = new ArrayList<>(events.size());
+        int perfect = 0;
+        int vague = 0;
+        int forgotten = 0;
+        for (StudyEvent event : events) {
+            rows.add(new Object[]{userId, problemId, event.cardId(), event.previousStatus(), event.newStatus()});
+            switch (event.newStatus()) {
+                case "perfect" -> perfect++;
+                case "vague" -> vague++;
+                case "forgotten" -> forgotten++;
+                default -> {
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO study_events (user_id, problem_id, card_id, previous_status, card_status) VALUES (?, ?, ?, ?, ?)", rows);
+
+        jdbcTemplate.update(
+                "INSERT INTO user_daily_study (user_id, study_date, perfect_count, vague_count, forgotten_count) " +
+                        "VALUES (?, CURDATE(), ?, ?, ?) " +
+                        "ON DUPLICATE KEY UPDATE perfect_count = perfect_count + VALUES(perfect_count), " +
+                        "vague_count = vague_count + VALUES(vague_count), forgotten_count = forgotten_count + VALUES(forgotten_count)",
+                userId, perfect, vague, forgotten);
+    }
+
+    /**
+     * 일별 집계가 비어 있으면 (최초 배포 시) 기존 user_card_status의 마지막 학습일 기준으로 한 번 채웁니다.
+     * 이전 기록은 카드별 마지막 상태만 남아 있으므로 그 이상은 복원할 수 없습니다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedFromCardStatus() {
+        Number existing = (Number) entityManager.createNativeQuery(
+                        "SELECT (SELECT COUNT(*) FROM user_daily_study) + (SELECT COUNT(*) FROM study_events)")
+                .getSingleResult();
+        if (existing.longValue() > 0) {
+            return;
+        }
+
+        int seeded = entityManager.createNativeQuery(
+                        "INSERT INTO user_daily_study (user_id, study_date, perfect_count, vague_count, forgotten_count) " +
+                                "SELECT user_id, DATE(updated_at), " +
+                                "SUM(CASE WHEN card_status = 'perfect' THEN 1 ELSE 0 END), " +
+                                "SUM(CASE WHEN card_status = 'vague' THEN 1 ELSE 0 END), " +
+                                "SUM(CASE WHEN card_status = 'forgotten' THEN 1 ELSE 0 END) " +
+                                "FROM user_card_status WHERE updated_at IS NOT NULL " +
+                                "GROUP BY user_id, DATE(updated_at)")
+                .executeUpdate();
+        log.info("user_daily_study 초기 집계 완료: {}건", seeded);
+    }
+}
@@ -0,0 +1,338 @@
+package com.example.mogwi_system.service;
+
+import com.example.mogwi_system.dto.CardView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 서버 측 학습 세션을 관리하는 서비스입니다.
+ * 세션을 열 때 문제의 카드와 사용자의 카드 상태를 한 번만 읽어 학습 순서대로 메모리에 보관하고,
+ * 클라이언트는 다음 카드들을 미리 받아 둡니다(prefetch). 카드 답은 세션 버퍼에 쌓았다가
+ * 일정 개수가 모이거나, 일정 시간이 지나거나, 세션을 닫을 때 {@link CardStatusService}로 한 번에 저장합니다.
+ * 저장에 실패한 답은 버퍼에 남겨 지수 백오프로 다시 시도하고, 정해진 횟수를 넘기면 로그에 남기고 버립니다.
+ * 세션은 이 서버의 메모리에만 있으므로 여러 서버를 쓰면 같은 서버로 요청이 가도록(sticky) 해야 합니다.
+ */
+@Service
+@Slf4j
+public class StudySessionService {
+
+    // 학습 순서: 사라진 카드 -> 희미한 카드 -> 새 카드 -> 완벽한 카드 (같은 상태는 카드 ID 순)
+    private static final List<String> STUDY_ORDER = List.of("forgotten", "vague", "new", "perfect");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private CardStatusService cardStatusService;
+
+    @Autowired
+    private ImageProcessingService imageProcessingService;
+
+    @Value("${mogwi.study-session.max-sessions:10000}")
+    private int maxSessions;
+
+    // 버퍼에 이 개수만큼 답이 쌓이면 바로 저장
+    @Value("${mogwi.study-session.flush-threshold:20}")
+    private int flushThreshold;
+
+    // 버퍼의 가장 오래된 답이 이 시간보다 오래되면 주기 작업에서 저장
+    @Value("${mogwi.study-session.flush-after-ms:5000}")
+    private long flushAfterMillis;
+
+    // 이 시간 동안 요청이 없으면 버퍼를 저장하고 세션을 닫음
+    @Value("${mogwi.study-session.idle-timeout-ms:1800000}")
+    private long idleTimeoutMillis;
+
+    // 저장에 실패한 답을 다시 시도하는 최대 횟수 (넘기면 로그에 남기고 버림)
+    @Value("${mogwi.study-session.max-flush-attempts:5}")
+    private int maxFlushAttempts;
+
+    // 저장 실패 후 다음 시도까지 기다리는 시간 (실패할 때마다 두 배)
+    @Value("${mogwi.study-session.flush-retry-backoff-ms:1000}")
+    private long flushRetryBackoffMillis;
+
+    // 세션 하나의 버퍼에 쌓아 둘 수 있는 최대 답 수 (저장이 계속 실패할 때 메모리 사용을 제한)
+    @Value("${mogwi.study-session.max-buffered-answers:500}")
+    private int maxBufferedAnswers;
+
+    private final Map<String, StudySession> sessions = new ConcurrentHashMap<>();
+    // 한도 검사와 등록이 겹치지 않도록 세션 자리를 먼저 예약하는 카운터
+    private final AtomicInteger openSessions = new AtomicInteger();
+    private final AtomicLong droppedAnswers = new AtomicLong();
+
+    private static class StudySession {
+        final String id;
+        final Long userId;
+        final Long problemId;
+        final List<CardView> queue;
+        final Map<Long, CardView> cardsById = new HashMap<>();
+        // 다음에 내려줄 카드 위치
+        int cursor;
+        int answered;
+        List<CardStatusService.CardAnswer> buffer = new ArrayList<>();
+        long oldestBufferedAt;
+        // 연속 저장 실패 횟수와 다음 저장을 시도할 수 있는 시각
+        int failedFlushes;
+        long nextFlushAt;
+        volatile long lastAccessAt = System.currentTimeMillis();
+        String problemStatus;
+
+        StudySession(String id, Long userId, Long problemId, List<CardView> queue) {
+            this.id = id;
+            this.userId = userId;
+            this.problemId = problemId;
+            this.queue = queue;
+            queue.forEach(card -> cardsById.put(card.id(), card));
+        }
+    }
+
+    /**
+     * 학습 세션을 엽니다.
+     *
+     * @param userId   내부 사용자 ID (users.id)
+     * @param prefetch 처음에 함께 내려줄 카드 수
+     * @param dueOnly  true이면 아직 학습하지 않았거나 복습 시점(due_at)이 지난 카드만 세션에 담음
+     * @return 세션 정보와 첫 카드 목록 (학습할 카드가 없거나 세션 수가 한도에 도달하면 empty)
+     */
+    public Optional<Map<String, Object>> open(Long userId, Long problemId, int prefetch, boolean dueOnly) {
+        if (openSessions.incrementAndGet() > maxSessions) {
+            openSessions.decrementAndGet();
+            log.warn("학습 세션 수가 한도({})에 도달하여 세션을 열 수 없습니다: userId={}, problemId={}", maxSessions, userId, problemId);
+            return Optional.empty();
+        }
+        boolean registered = false;
+        try {
+            Optional<Map<String, Object>> result = openReserved(userId, problemId, prefetch, dueOnly);
+            registered = result.isPresent();
+            return result;
+        } finally {
+            if (!registered) {
+                openSessions.decrementAndGet();
+            }
+        }
+    }
+
+    // 세션 자리를 예약한 뒤 호출
+    private Optional<Map<String, Object>> openReserved(Long userId, Long problemId, int prefetch, boolean dueOnly) {
+        List<Object[]> rows = entityManager.createNativeQuery(
+                        "SELECT c.id, c.question, c.correct, c.image_url, IFNULL(ucs.card_status, 'new') AS card_status " +
+                                "FROM cards c " +
+                                "LEFT JOIN user_card_status ucs ON c.id = ucs.card_id AND c.problem_id = ucs.problem_id AND ucs.user_id = ?2 " +
+                                "WHERE c.problem_id = ?1 " +
+                                (dueOnly ? "AND (ucs.id IS NULL OR ucs.due_at <= CURRENT_TIMESTAMP) " : "") +
+                                "ORDER BY c.id ASC")
+                .setParameter(1, problemId)
+                .setParameter(2, userId)
+                .getResultList();
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+
+        List<CardView> queue = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            queue.add(CardView.of(((Number) row[0]).longValue(), (String) row[1], (String) row[2],
+                    imageProcessingService.resolve((String) row[3]), row[4].toString()));
+        }
+        queue.sort(Comparator.comparingInt(card -> STUDY_ORDER.indexOf(card.cardStatus())));
+
+        StudySession session = new StudySession(UUID.randomUUID().toString(), userId, problemId, queue);
+        sessions.put(session.id, session);
+        log.info("학습 세션 시작: sessionId={}, userId={}, problemId={}, cards={}, dueOnly={}", session.id, userId, problemId, queue.size(), dueOnly);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("sessionId", session.id);
+        result.put("problemId", problemId);
+        result.put("totalCards", queue.size());
+        synchronized (session) {
+            result.put("cards", takeCards(session, prefetch));
+        }
+        return Optional.of(result);
+    }
+
+    /**
+     * 아직 내려주지 않은 다음 카드들을 반환합니다. (DB 조회 없음)
+     *
+     * @return 다음 카드 목록 (세션이 없으면 empty)
+     */
+    public Optional<List<CardView>> nextCards(String sessionId, int count) {
+        StudySession session = touch(sessionId);
+        if (session == null) {
+            return Optional.empty();
+        }
+        synchronized (session) {
+            return Optional.of(takeCards(session, count));
+        }
+    }
+
+    /**
+     * 카드 답을 세션 버퍼에 추가합니다. 버퍼가 가득 차면 바로 저장합니다.
+     *
+     * @return 세션 진행 정보 (세션이 없으면 empty)
+     * @throws IllegalArgumentException 세션 문제의 카드가 아니거나 상태 값이 잘못된 경우
+     * @throws IllegalStateException    저장이 계속 실패해 버퍼가 가득 찬 경우
+     */
+    public Optional<Map<String, Object>> answer(String sessionId, Long cardId, String cardStatus) {
+        if (!CardStatusService.CARD_STATUSES.contains(cardStatus)) {
+            throw new IllegalArgumentException("유효하지 않은 카드 상태입니다: " + cardStatus);
+        }
+        StudySession session = touch(sessionId);
+        if (session == null) {
+            return Optional.empty();
+        }
+
+        synchronized (session) {
+            if (!session.cardsById.containsKey(cardId)) {
+                throw new IllegalArgumentException("세션 문제에 속하지 않은 카드입니다: " + cardId);
+            }
+            if (session.buffer.size() >= maxBufferedAnswers) {
+                throw new IllegalStateException("저장 대기 중인 답이 너무 많습니다. 잠시 후 다시 시도해 주세요.");
+            }
+            if (session.buffer.isEmpty()) {
+                session.oldestBufferedAt = System.currentTimeMillis();
+            }
+            session.buffer.add(new CardStatusService.CardAnswer(cardId, cardStatus));
+            session.answered++;
+            if (session.buffer.size() >= flushThreshold && System.currentTimeMillis() >= session.nextFlushAt) {
+                flush(session);
+            }
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("answered", session.answered);
+            result.put("buffered", session.buffer.size());
+            result.put("remaining", session.queue.size() - session.cursor);
+            if (session.problemStatus != null) {
+                result.put("problemStatus", session.problemStatus);
+            }
+            return Optional.of(result);
+        }
+    }
+
+    /**
+     * 버퍼에 남은 답을 저장하고 세션을 닫습니다.
+     *
+     * @return 저장 후 문제 상태 (세션이 없으면 empty)
+     */
+    public Optional<String> close(String sessionId) {
+        StudySession session = sessions.get(sessionId);
+        if (session == null) {
+            return Optional.empty();
+        }
+        synchronized (session) {
+            flush(session);
+            if (!session.buffer.isEmpty()) {
+                // 세션을 남겨 두어 다시 닫기를 시도할 수 있게 함
+                throw new IllegalStateException("학습 세션의 답을 저장하지 못했습니다: sessionId=" + sessionId);
+            }
+            removeSession(session);
+            log.info("학습 세션 종료: sessionId={}, answered={}", sessionId, session.answered);
+            return Optional.of(session.problemStatus != null
+                    ? session.problemStatus
+                    : cardStatusService.applyCardStatuses(session.userId, session.problemId, List.of()));
+        }
+    }
+
+    /**
+     * 오래 머문 버퍼를 저장하고, 유휴 세션을 정리합니다.
+     */
+    @Scheduled(fixedDelayString = "${mogwi.study-session.sweep-interval-ms:1000}")
+    public void flushPending() {
+        long now = System.currentTimeMillis();
+        for (StudySession session : sessions.values()) {
+            boolean idle = now - session.lastAccessAt > idleTimeoutMillis;
+            synchronized (session) {
+                if (!session.buffer.isEmpty() && now >= session.nextFlushAt
+                        && (idle || now - session.oldestBufferedAt >= flushAfterMillis)) {
+                    flush(session);
+                }
+                if (idle && session.buffer.isEmpty()) {
+                    removeSession(session);
+                    log.info("유휴 학습 세션 정리: sessionId={}, answered={}", session.id, session.answered);
+                }
+            }
+        }
+    }
+
+    /**
+     * 열린 세션 수와 저장 대기 중인 답 수를 반환합니다.
+     */
+    public Map<String, Object> getStats() {
+        int buffered = 0;
+        for (StudySession session : sessions.values()) {
+            synchronized (session) {
+                buffered += session.buffer.size();
+            }
+        }
+        return Map.of("sessions", sessions.size(), "maxSessions", maxSessions, "bufferedAnswers", buffered,
+                "droppedAnswers", droppedAnswers.get());
+    }
+
+    private void removeSession(StudySession session) {
+        if (sessions.remove(session.id, session)) {
+            openSessions.decrementAndGet();
+        }
+    }
+
+    private StudySession touch(String sessionId) {
+        StudySession session = sessions.get(sessionId);
+        if (session != null) {
+            session.lastAccessAt = System.currentTimeMillis();
+        }
+        return session;
+    }
+
+    // session 락을 잡은 상태에서 호출
+    private List<CardView> takeCards(StudySession session, int count) {
+        int end = Math.min(session.cursor + Math.max(count, 0), session.queue.size());
+        // 세션이 보관하는 불변 카드를 그대로 내려줌 (subList는 세션 큐를 참조하므로 복사)
+        List<CardView> cards = new ArrayList<>(session.queue.subList(session.cursor, end));
+        session.cursor = end;
+        return cards;
+    }
+
+    // session 락을 잡은 상태에서 호출. 저장에 실패하면 답을 버퍼에 남겨 백오프 후 다시 시도하고,
+    // max-flush-attempts번 연속 실패하면 (문제 삭제 등으로 다시 해도 성공할 수 없는 경우) 로그에 남기고 버림
+    private void flush(StudySession session) {
+        if (session.buffer.isEmpty()) {
+            return;
+        }
+        List<CardStatusService.CardAnswer> pending = session.buffer;
+        session.buffer = new ArrayList<>();
+        try {
+            session.problemStatus = cardStatusService.applyCardStatuses(session.userId, session.problemId, pending);
+            session.failedFlushes = 0;
+            session.nextFlushAt = 0;
+        } catch (Exception e) {
+            session.failedFlushes++;
+            if (session.failedFlushes >= maxFlushAttempts) {
+                droppedAnswers.addAndGet(pending.size());
+                log.error("학습 세션 답 저장 {}회 실패로 답을 버립니다: sessionId={}, userId={}, problemId={}, answers={}: {}",
+                        session.failedFlushes, session.id, session.userId, session.problemId, pending, e.getMessage(), e);
+                session.failedFlushes = 0;
+                session.nextFlushAt = 0;
+                return;
+            }
+            session.nextFlushAt = System.currentTimeMillis() + flushRetryBackoffMillis * (1L << (session.failedFlushes - 1));
+            log.warn("학습 세션 답 저장 실패 ({}회), 나중에 다시 시도합니다: sessionId={}, answers={}: {}",
+                    session.failedFlushes, session.id, pending.size(), e.getMessage());
+            pending.addAll(session.buffer);
+            session.buffer = pending;
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.example.mogwi_system.service;
+
+import com.example.mogwi_system.dto.TrendingProblem;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 좋아요/스크랩이 많은 공개 문제 순위(전체, 카테고리별)를 메모리에 유지하는 서비스입니다.
+ * 순위마다 정렬된 집합을 두고, 좋아요/스크랩 증감이 커밋될 때마다 해당 문제만 다시 끼워 넣으므로
+ * 조회는 DB 없이 상위 K개를 앞에서부터 읽기만 합니다.
+ * 놓친 증감이 있어도 주기적으로 problem_stats 기준으로 전체를 다시 만들어 보정합니다.
+ */
+@Service
+@Slf4j
+public class TrendingService {
+
+    public enum Metric { LIKES, SCRAPS }
+
+    // 카테고리와 구분되는 전체 순위 키 (categories.id는 1부터 시작)
+    private static final long GLOBAL = 0L;
+
+    private static final Comparator<Entry> BY_LIKES = Comparator.<Entry>comparingInt(entry -> entry.likes).reversed()
+            .thenComparing(Comparator.<Entry>comparingLong(entry -> entry.problemId).reversed());
+    private static final Comparator<Entry> BY_SCRAPS = Comparator.<Entry>comparingInt(entry -> entry.scraps).reversed()
+            .thenComparing(Comparator.<Entry>comparingLong(entry -> entry.problemId).reversed());
+
+    private static final String LOAD_SQL =
+            "SELECT p.id, p.title, u.username, p.card_count, ps.like_count, ps.scrap_count, " +
+                    "(SELECT GROUP_CONCAT(pc.category_id ORDER BY pc.category_id) FROM problem_categories pc WHERE pc.problem_id = p.id) AS category_ids " +
+                    "FROM problem_stats ps " +
+                    "JOIN problems p ON p.id = ps.problem_id " +
+                    "LEFT JOIN users u ON u.id = p.author_id " +
+                    "WHERE p.is_public = true AND (ps.like_count > 0 OR ps.scrap_count > 0)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CategoryCacheService categoryCacheService;
+
+    // 순위에 올릴 수 없는 (비공개이거나 삭제된) 문제 ID. 증감마다 다시 조회하지 않도록 보관
+    private final Set<Long> excluded = ConcurrentHashMap.newKeySet();
+
+    // 아래 필드는 this 락으로 보호
+    private Map<Long, Entry> entries = new HashMap<>();
+    private Map<Metric, Map<Long, TreeSet<Entry>>> rankings = emptyRankings();
+
+    // 순위 집합 안에 있는 동안에는 정렬 키(likes, scraps)를 바꾸지 않고, 빼낸 뒤 바꿔서 다시 넣음
+    private static final class Entry {
+        final long problemId;
+        final String title;
+        final String author;
+        final Object cardCount;
+        final String categoryIds;
+        final List<Long> categories;
+        int likes;
+        int scraps;
+
+        Entry(long problemId, String title, String author, Object cardCount, String categoryIds, int likes, int scraps) {
+            this.problemId = problemId;
+            this.title = title;
+            this.author = author;
+            this.cardCount = cardCount;
+            this.categoryIds = categoryIds;
+            this.categories = parseIds(categoryIds);
+            this.likes = likes;
+            this.scraps = scraps;
+        }
+    }
+
+    /**
+     * problem_stats 기준으로 순위를 다시 만듭니다. 기동 직후와 설정된 주기마다 실행됩니다.
+     * 다시 만드는 동안 커밋된 증감은 다음 보정 때 반영될 수 있습니다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${mogwi.trending.reconcile-interval-ms:600000}",
+            initialDelayString = "${mogwi.trending.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        long startedAt = System.currentTimeMillis();
+        List<Entry> loaded = jdbcTemplate.query(LOAD_SQL, (rs, rowNum) -> toEntry(
+                rs.getLong(1), rs.getString(2), rs.getString(3), rs.getObject(4), rs.getString(7), rs.getInt(5), rs.getInt(6)));
+
+        Map<Long, Entry> newEntries = new HashMap<>();
+        Map<Metric, Map<Long, TreeSet<Entry>>> newRankings = emptyRankings();
+        for (Entry entry : loaded) {
+            newEntries.put(entry.problemId, entry);
+            insert(newRankings, entry);
+        }
+        synchronized (this) {
+            entries = newEntries;
+            rankings = newRankings;
+        }
+        excluded.clear();
+        log.info("인기 문제 순위 재구성 완료: problems={}, elapsed={}ms", loaded.size(), System.currentTimeMillis() - startedAt);
+    }
+
+    /**
+     * 커밋된 좋아요/스크랩 증감을 순위에 반영합니다. 처음 보는 문제는 제목/카테고리를 한 번 조회합니다.
+     */
+    public void adjust(Long problemId, int likeDelta, int scrapDelta) {
+        if ((likeDelta == 0 && scrapDelta == 0) || excluded.contains(problemId)) {
+            return;
+        }
+        synchronized (this) {
+            Entry entry = entries.get(problemId);
+            if (entry != null) {
+                remove(rankings, entry);
+                entry.likes = Math.max(entry.likes + likeDelta, 0);
+                entry.scraps = Math.max(entry.scraps + scrapDelta, 0);
+                insert(rankings, entry);
+                return;
+            }
+        }
+
+        // 순위에 없던 문제: 현재 카운터와 함께 읽어 오므로 증감분을 따로 더하지 않음 (이미 커밋된 값)
+        List<Entry> loaded = jdbcTemplate.query(LOAD_SQL + " AND p.id = ?", (rs, rowNum) -> toEntry(
+                rs.getLong(1), rs.getString(2), rs.getString(3), rs.getObject(4), rs.getString(7), rs.getInt(5), rs.getInt(6)), problemId);
+        if (loaded.isEmpty()) {
+            if (!isPublic(problemId)) {
+                excluded.add(problemId);
+            }
+            return;
+        }
+        synchronized (this) {
+            if (!entries.containsKey(problemId)) {
+                Entry entry = loaded.get(0);
+                entries.put(problemId, entry);
+                insert(rankings, entry);
+            }
+        }
+    }
+
+    /**
+     * 삭제된 문제를 순위에서 제거합니다.
+     */
+    public synchronized void remove(Long problemId) {
+        Entry entry = entries.remove(problemId);
+        if (entry != null) {
+            remove(rankings, entry);
+        }
+        excluded.add(problemId);
+    }
+
+    /**
+     * 상위 문제 목록을 반환합니다. (DB 조회 없음)
+     *
+     * @param categoryId 카테고리 ID (전체 순위면 null)
+     * @param limit      최대 문제 수
+     * @return 문제 목록
+     */
+    public List<TrendingProblem> top(Metric metric, Long categoryId, int limit) {
+        List<Entry> top = new ArrayList<>(limit);
+        List<int[]> counts = new ArrayList<>(limit);
+        synchronized (this) {
+            TreeSet<Entry> ranking = rankings.get(metric).get(categoryId != null ? categoryId : GLOBAL);
+            if (ranking != null) {
+                for (Entry entry : ranking) {
+                    if (top.size() >= limit) {
+                        break;
+                    }
+                    top.add(entry);
+                    counts.add(new int[]{entry.likes, entry.scraps});
+                }
+            }
+        }
+
+        List<TrendingProblem> problems = new ArrayList<>(top.size());
+        for (int i = 0; i < top.size(); i++) {
+            Entry entry = top.get(i);
+            problems.add(new TrendingProblem(entry.problemId, entry.title, entry.author,
+                    entry.cardCount instanceof Number number ? number.intValue() : 0,
+                    counts.get(i)[0], counts.get(i)[1], categoryCacheService.toTags(entry.categoryIds)));
+        }
+        return problems;
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("problems", entries.size());
+        stats.put("excluded", excluded.size());
+        return stats;
+    }
+
+    private boolean isPublic(Long problemId) {
+        List<Boolean> result = jdbcTemplate.queryForList("SELECT is_public FROM problems WHERE id = ?", Boolean.class, problemId);
+        return !result.isEmpty() && Boolean.TRUE.equals(result.get(0));
+    }
+
+    private static Entry toEntry(long problemId, String title, String author, Object cardCount, String categoryIds, int likes, int scraps) {
+        return new Entry(problemId, title, author, cardCount, categoryIds, likes, scraps);
+    }
+
+    private static void insert(Map<Metric, Map<Long, TreeSet<Entry>>> rankings, Entry entry) {
+        if (entry.likes > 0) {
+            addTo(rankings.get(Metric.LIKES), entry, BY_LIKES);
+        }
+        if (entry.scraps > 0) {
+            addTo(rankings.get(Metric.SCRAPS), entry, BY_SCRAPS);
+        }
+    }
+
+    private static void addTo(Map<Long, TreeSet<Entry>> byKey, Entry entry, Comparator<Entry> order) {
+        byKey.computeIfAbsent(GLOBAL, key -> new TreeSet<>(order)).add(entry);
+        for (Long categoryId : entry.categories) {
+            byKey.computeIfAbsent(categoryId, key -> new TreeSet<>(order)).add(entry);
+        }
+    }
+
+    private static void remove(Map<Metric, Map<Long, TreeSet<Entry>>> rankings, Entry entry) {
+        for (Map<Long, TreeSet<Entry>> byKey : rankings.values()) {
+            removeFrom(byKey, GLOBAL, entry);
+            for (Long categoryId : entry.categories) {
+                removeFrom(byKey, categoryId, entry);
+            }
+        }
+    }
+
+    private static void removeFrom(Map<Long, TreeSet<Entry>> byKey, Long key, Entry entry) {
+        TreeSet<Entry> ranking = byKey.get(key);
+        if (ranking != null && ranking.remove(entry) && ranking.isEmpty()) {
+            byKey.remove(key);
+        }
+    }
+
+    private static Map<Metric, Map<Long, TreeSet<Entry>>> emptyRankings() {
+        Map<Metric, Map<Long, TreeSet<Entry>>> rankings = new EnumMap<>(Metric.class);
+        for (Metric metric : Metric.values()) {
+            rankings.put(metric, new HashMap<>());
+        }
+        return rankings;
+    }
+
+    private static List<Long> parseIds(String concatenatedIds) {
+        List<Long> ids = new ArrayList<>();
+        if (concatenatedIds == null) {
+            return ids;
+        }
+        for (String id : concatenatedIds.split(",")) {
+            if (!id.isBlank()) {
+                ids.add(Long.valueOf(id.trim()));
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.mogwi_system.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.NoResultException;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 외부 사용자 ID(users.userid) -> 내부 사용자 ID(users.id) 매핑을 메모리에 보관하는 공용 캐시입니다.
+ * 최대 크기를 넘으면 가장 오래 사용되지 않은 항목부터 제거(LRU)하고, 각 항목은 TTL이 지나면 다시 조회합니다.
+ * 존재하지 않는 사용자도 TTL 동안 캐시하므로, 회원가입 시 {@link #invalidate(String)}로 무효화해야 합니다.
+ */
+@Service
+@Slf4j
+public class UserIdCacheService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Map<String, CachedUserId> cache;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    // id가 null이면 "존재하지 않는 사용자"를 캐시한 항목
+    private record CachedUserId(Long id, long expiresAt) {
+    }
+
+    public UserIdCacheService(
+            @Value("${mogwi.user-cache.max-size:10000}") int maxSize,
+            @Value("${mogwi.user-cache.ttl-seconds:600}") long ttlSeconds) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedUserId> eldest) {
+                return size() > UserIdCacheService.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * 외부 사용자 ID에 해당하는 내부 사용자 ID를 조회합니다.
+     *
+     * @return 내부 사용자 ID (사용자가 없으면 empty)
+     */
+    public Optional<Long> find(String userId) {
+        if (userId == null || userId.isEmpty()) {
+            return Optional.empty();
+        }
+
+        long now = System.currentTimeMillis();
+        synchronized (cache) {
+            CachedUserId cached = cache.get(userId);
+            if (cached != null && cached.expiresAt() > now) {
+                hits.incrementAndGet();
+                return Optional.ofNullable(cached.id());
+            }
+        }
+
+        misses.incrementAndGet();
+        List<?> result = entityManager.createNativeQuery("SELECT id FROM users WHERE userid = ?1")
+                .setParameter(1, userId)
+                .getResultList();
+        Long id = result.isEmpty() ? null : ((Number) result.get(0)).longValue();
+
+        synchronized (cache) {
+            cache.put(userId, new CachedUserId(id, now + ttlMillis));
+        }
+        return Optional.ofNullable(id);
+    }
+
+    /**
+     * 외부 사용자 ID에 해당하는 내부 사용자 ID를 조회합니다.
+     * 기존 컨트롤러의 getInternalUserId와 동일하게, 사용자가 없으면 NoResultException을 던집니다.
+     */
+    public Long resolve(String userId) throws NoResultException {
+        return find(userId).orElseThrow(() -> new NoResultException("No user found for userid: " + userId));
+    }
+
+    /**
+     * 특정 외부 사용자 ID의 캐시 항목을 제거합니다. (회원가입 등 users 테이블 변경 시)
+     */
+    public void invalidate(String userId) {
+        synchronized (cache) {
+            cache.remove(userId);
+        }
+    }
+
+    /**
+     * 캐시 상태(항목 수, 적중/미적중 횟수)를 반환합니다.
+     */
+    public Map<String, Object> getStats() {
+        int size;
+        synchronized (cache) {
+            size = cache.size();
+        }
+        return Map.of("size", size, "maxSize", maxSize, "hits", hits.get(), "misses", misses.get());
+    }
+}
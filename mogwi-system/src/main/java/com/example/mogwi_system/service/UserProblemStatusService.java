@@ -0,0 +1,137 @@
+package com.example.mogwi_system.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * 사용자별 문제 상태(user_problem_status)의 좋아요/스크랩/학습 상태를 쓰는 서비스입니다.
+ * (user_id, problem_id) 유니크 인덱스를 전제로, 조회 후 INSERT/UPDATE 하던 쓰기를 단일 문장의
+ * INSERT ... ON DUPLICATE KEY UPDATE 또는 조건부 UPDATE로 처리하여 동시 요청에도 중복 행이나
+ * 잘못된 좋아요/스크랩 증감분이 생기지 않도록 합니다.
+ */
+@Service
+@Slf4j
+@Transactional
+public class UserProblemStatusService {
+
+    /**
+     * 토글 가능한 user_problem_status 컬럼입니다.
+     */
+    public enum Flag {
+        LIKED("is_liked"),
+        SCRAPPED("is_scrapped");
+
+        private final String column;
+
+        Flag(String column) {
+            this.column = column;
+        }
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * 좋아요/스크랩 값을 지정한 값으로 설정하고, problem_stats에 반영할 증감분을 반환합니다.
+     * 값이 실제로 바뀐 경우에만 UPDATE가 행을 찾도록 조건을 두어, 동시에 같은 값을 설정해도 증감분은 한 번만 계산됩니다.
+     *
+     * @return 증감분 (-1, 0, 1)
+     */
+    public int setFlag(Long userId, Long problemId, Flag flag, boolean value) {
+        if (updateFlagIfChanged(userId, problemId, flag, value) > 0) {
+            return value ? 1 : -1;
+        }
+        if (!value) {
+            // 행이 없거나 이미 해제된 상태
+            return 0;
+        }
+        int inserted = entityManager.createNativeQuery(
+                        "INSERT IGNORE INTO user_problem_status (user_id, problem_id, " + flag.column + ", problem_status, created_at, updated_at) " +
+                                "VALUES (?1, ?2, 1, 'new', NOW(), NOW())")
+                .setParameter(1, userId)
+                .setParameter(2, problemId)
+                .executeUpdate();
+        if (inserted > 0) {
+            return 1;
+        }
+        // 그 사이 다른 요청이 행을 만든 경우: 유니크 인덱스 잠금이 풀린 뒤 한 번 더 조건부로 갱신
+        return updateFlagIfChanged(userId, problemId, flag, true) > 0 ? 1 : 0;
+    }
+
+    /**
+     * 좋아요/스크랩 값을 한 문장으로 뒤집고, 뒤집힌 값을 반환합니다. (행이 없으면 1로 생성)
+     * 갱신한 행은 트랜잭션이 끝날 때까지 잠겨 있으므로, 이어서 읽은 값은 이 요청이 쓴 값입니다.
+     *
+     * @return 토글 후 값 (true: 좋아요/스크랩 상태)
+     */
+    public boolean toggleFlag(Long userId, Long problemId, Flag flag) {
+        entityManager.createNativeQuery(
+                        "INSERT INTO user_problem_status (user_id, problem_id, " + flag.column + ", problem_status, created_at, updated_at) " +
+                                "VALUES (?1, ?2, 1, 'new', NOW(), NOW()) " +
+                                "ON DUPLICATE KEY UPDATE " + flag.column + " = 1 - IFNULL(" + flag.column + ", 0), updated_at = NOW()")
+                .setParameter(1, userId)
+                .setParameter(2, problemId)
+                .executeUpdate();
+        Object value = entityManager.createNativeQuery(
+                        "SELECT IFNULL(" + flag.column + ", 0) FROM user_problem_status WHERE user_id = ?1 AND problem_id = ?2")
+                .setParameter(1, userId)
+                .setParameter(2, problemId)
+                .getSingleResult();
+        return ((Number) value).intValue() == 1;
+    }
+
+    /**
+     * 사용자의 문제 학습 상태를 저장합니다. (레코드가 없으면 좋아요/스크랩 0으로 생성)
+     */
+    public void saveProblemStatus(Long userId, Long problemId, String problemStatus) {
+        entityManager.createNativeQuery(
+                        "INSERT INTO user_problem_status (user_id, problem_id, problem_status, is_liked, is_scrapped, created_at, updated_at) " +
+                                "VALUES (?1, ?2, ?3, 0, 0, NOW(), NOW()) " +
+                                "ON DUPLICATE KEY UPDATE problem_status = VALUES(problem_status), updated_at = NOW()")
+                .setParameter(1, userId)
+                .setParameter(2, problemId)
+                .setParameter(3, problemStatus)
+                .executeUpdate();
+    }
+
+    /**
+     * 사용자의 문제 학습 상태를 반환합니다. 레코드가 없으면 'new' 상태로 생성합니다.
+     *
+     * @return 문제 상태 ('new', 'ongoing', 'completed')
+     */
+    public String getOrCreateProblemStatus(Long userId, Long problemId) {
+        List<String> existing = entityManager.createNativeQuery(
+                        "SELECT problem_status FROM user_problem_status WHERE user_id = ?1 AND problem_id = ?2", String.class)
+                .setParameter(1, userId)
+                .setParameter(2, problemId)
+                .getResultList();
+        if (!existing.isEmpty()) {
+            return existing.get(0);
+        }
+        // 동시에 다른 요청이 먼저 만들었으면 기존 행을 그대로 둠
+        entityManager.createNativeQuery(
+                        "INSERT INTO user_problem_status (user_id, problem_id, problem_status, is_liked, is_scrapped, created_at, updated_at) " +
+                                "VALUES (?1, ?2, 'new', 0, 0, NOW(), NOW()) " +
+                                "ON DUPLICATE KEY UPDATE user_id = user_id")
+                .setParameter(1, userId)
+                .setParameter(2, problemId)
+                .executeUpdate();
+        log.debug("user_problem_status 생성: userId={}, problemId={}", userId, problemId);
+        return "new";
+    }
+
+    private int updateFlagIfChanged(Long userId, Long problemId, Flag flag, boolean value) {
+        return entityManager.createNativeQuery(
+                        "UPDATE user_problem_status SET " + flag.column + " = ?1, updated_at = NOW() " +
+                                "WHERE user_id = ?2 AND problem_id = ?3 AND IFNULL(" + flag.column + ", 0) <> ?1")
+                .setParameter(1, value ? 1 : 0)
+                .setParameter(2, userId)
+                .setParameter(3, problemId)
+                .executeUpdate();
+    }
+}
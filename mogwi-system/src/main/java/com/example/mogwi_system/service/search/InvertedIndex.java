@@ -0,0 +1,180 @@
+package com.example.mogwi_system.service.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 문서 ID 기준의 간단한 인메모리 역색인입니다.
+ * 단어 단위 토큰과 글자 bigram을 함께 색인하여, 조사가 붙은 한국어 단어("자바스크립트를")도 부분 검색("자바")이 되도록 합니다.
+ * 점수는 필드 가중치를 반영한 BM25 유사 방식(tf 포화 + idf)으로 계산합니다.
+ */
+public class InvertedIndex {
+
+    private static final float TF_SATURATION = 1.2f;
+
+    // term -> (docId -> 필드 가중치가 반영된 빈도)
+    private final Map<String, Map<Long, Float>> postings = new HashMap<>();
+    // docId -> 색인된 term 목록 (삭제/재색인 시 사용)
+    private final Map<Long, Set<String>> docTerms = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 색인할 필드 텍스트와 가중치입니다.
+     */
+    public record Field(String text, float boost) {
+    }
+
+    /**
+     * 검색 결과 (문서 ID와 점수)입니다.
+     */
+    public record Hit(long docId, float score) {
+    }
+
+    /**
+     * 문서를 색인합니다. 같은 ID의 문서가 이미 있으면 교체합니다.
+     */
+    public void add(long docId, List<Field> fields) {
+        Map<String, Float> weights = new HashMap<>();
+        for (Field field : fields) {
+            if (field.text() == null || field.text().isBlank()) {
+                continue;
+            }
+            for (String term : analyze(field.text())) {
+                weights.merge(term, field.boost(), Float::sum);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(docId);
+            for (Map.Entry<String, Float> entry : weights.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), k -> new HashMap<>()).put(docId, entry.getValue());
+            }
+            docTerms.put(docId, weights.keySet());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 문서를 색인에서 제거합니다.
+     */
+    public void remove(long docId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(docId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 모든 문서를 제거합니다.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            docTerms.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docTerms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 질의어로 문서를 검색하여 점수 내림차순(동점이면 최신 ID 우선)으로 최대 limit개 반환합니다.
+     */
+    public List<Hit> search(String query, int limit) {
+        if (query == null || query.isBlank() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        Set<String> terms = analyze(query);
+
+        Map<Long, Float> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int docCount = docTerms.size();
+            for (String term : terms) {
+                Map<Long, Float> docs = postings.get(term);
+                if (docs == null) {
+                    continue;
+                }
+                float idf = (float) Math.log(1 + (docCount - docs.size() + 0.5) / (docs.size() + 0.5));
+                for (Map.Entry<Long, Float> entry : docs.entrySet()) {
+                    float weight = entry.getValue();
+                    scores.merge(entry.getKey(), idf * weight / (weight + TF_SATURATION), Float::sum);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Hit> hits = new ArrayList<>(scores.size());
+        scores.forEach((docId, score) -> hits.add(new Hit(docId, score)));
+        hits.sort((a, b) -> a.score() != b.score()
+                ? Float.compare(b.score(), a.score())
+                : Long.compare(b.docId(), a.docId()));
+        return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+
+    /**
+     * 텍스트를 소문자 단어 토큰과 글자 bigram으로 분해합니다.
+     */
+    static Set<String> analyze(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        String normalized = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean wordChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                addToken(normalized.substring(start, i), terms);
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    private static void addToken(String token, Set<String> terms) {
+        terms.add(token);
+        if (token.length() > 2) {
+            for (int i = 0; i + 2 <= token.length(); i++) {
+                terms.add(token.substring(i, i + 2));
+            }
+        }
+    }
+
+    private void removeInternal(long docId) {
+        Set<String> terms = docTerms.remove(docId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Float> docs = postings.get(term);
+            if (docs != null) {
+                docs.remove(docId);
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+}
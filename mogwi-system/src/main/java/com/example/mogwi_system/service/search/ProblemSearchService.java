@@ -0,0 +1,101 @@
+package com.example.mogwi_system.service.search;
+
+import com.example.mogwi_system.support.TransactionCallbacks;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * 공개 문제의 제목, 설명, 카드 질문/정답을 인메모리 역색인으로 관리하는 검색 서비스입니다.
+ * 기동 시 DB에서 전체 색인을 만들고, 문제 생성/삭제 시 트랜잭션 커밋 후 색인을 갱신합니다.
+ */
+@Service
+@Slf4j
+public class ProblemSearchService {
+
+    // 필드별 가중치 (제목 > 설명 > 카드 내용)
+    private static final float TITLE_BOOST = 3.0f;
+    private static final float DESCRIPTION_BOOST = 1.5f;
+    private static final float CARD_BOOST = 1.0f;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final InvertedIndex index = new InvertedIndex();
+
+    /**
+     * DB의 공개 문제 전체로 색인을 다시 만듭니다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        long startedAt = System.currentTimeMillis();
+
+        Map<Long, List<InvertedIndex.Field>> documents = new HashMap<>();
+        List<Object[]> problems = entityManager.createNativeQuery(
+                        "SELECT id, title, description FROM problems WHERE is_public = true")
+                .getResultList();
+        for (Object[] row : problems) {
+            List<InvertedIndex.Field> fields = new ArrayList<>();
+            fields.add(new InvertedIndex.Field((String) row[1], TITLE_BOOST));
+            fields.add(new InvertedIndex.Field((String) row[2], DESCRIPTION_BOOST));
+            documents.put(((Number) row[0]).longValue(), fields);
+        }
+
+        try (Stream<Object[]> cards = entityManager.createNativeQuery(
+                        "SELECT c.problem_id, c.question, c.correct FROM cards c " +
+                                "JOIN problems p ON p.id = c.problem_id WHERE p.is_public = true")
+                .getResultStream()) {
+            cards.forEach(row -> {
+                List<InvertedIndex.Field> fields = documents.get(((Number) row[0]).longValue());
+                if (fields != null) {
+                    fields.add(new InvertedIndex.Field((String) row[1], CARD_BOOST));
+                    fields.add(new InvertedIndex.Field((String) row[2], CARD_BOOST));
+                }
+            });
+        }
+
+        index.clear();
+        documents.forEach(index::add);
+        log.info("문제 검색 색인 생성 완료: {}개 문제, {}ms", index.size(), System.currentTimeMillis() - startedAt);
+    }
+
+    /**
+     * 새로 생성된 공개 문제를 현재 트랜잭션 커밋 후 색인에 추가합니다.
+     *
+     * @param cardTexts 카드 질문/정답 텍스트 목록
+     */
+    public void indexProblem(Long problemId, String title, String description, List<String> cardTexts) {
+        List<InvertedIndex.Field> fields = new ArrayList<>();
+        fields.add(new InvertedIndex.Field(title, TITLE_BOOST));
+        fields.add(new InvertedIndex.Field(description, DESCRIPTION_BOOST));
+        for (String text : cardTexts) {
+            fields.add(new InvertedIndex.Field(text, CARD_BOOST));
+        }
+        TransactionCallbacks.afterCommit(() -> index.add(problemId, fields));
+    }
+
+    /**
+     * 삭제된 문제를 현재 트랜잭션 커밋 후 색인에서 제거합니다.
+     */
+    public void removeProblem(Long problemId) {
+        TransactionCallbacks.afterCommit(() -> index.remove(problemId));
+    }
+
+    /**
+     * 질의어와 관련도가 높은 순서로 문제 검색 결과를 반환합니다.
+     */
+    public List<InvertedIndex.Hit> search(String query, int limit) {
+        return index.search(query, limit);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.mogwi_system.service.storage;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * 업로드 이미지(원본과 변환 파일)를 보관하는 저장소입니다.
+ * 기본 구현은 이 서버의 디스크({@link LocalImageStorage})이고, 여러 서버가 같은 이미지를 봐야 하면
+ * mogwi.storage.type=s3로 S3 호환 객체 저장소({@link S3ImageStorage})를 사용합니다.
+ * 키는 /images/ 뒤의 상대 경로입니다. (예: "{sha256}.png", "variants/{sha256}_card.jpg")
+ */
+public interface ImageStorage {
+
+    /**
+     * 업로드 중인 임시 파일을 둘 디렉토리입니다.
+     * 로컬 저장소는 저장 디렉토리 아래의 제공되지 않는 디렉토리를 돌려주어 {@link #put}이 같은 파일시스템 안의 이름 변경으로 끝납니다.
+     */
+    Path stagingDirectory() throws IOException;
+
+    boolean exists(String key) throws IOException;
+
+    /**
+     * 임시 파일을 키 위치에 저장합니다. 같은 키가 있으면 덮어씁니다.
+     * 저장 후 source가 남아 있을 수 있으므로 호출한 쪽에서 지워야 합니다.
+     */
+    void put(String key, Path source, String contentType) throws IOException;
+
+    /**
+     * 키의 리소스를 돌려줍니다. 없는 키면 exists()가 false인 리소스입니다.
+     */
+    Resource resource(String key);
+
+    void delete(String key) throws IOException;
+
+    Map<String, Object> getStats();
+}
@@ -0,0 +1,89 @@
+package com.example.mogwi_system.service.storage;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 이 서버의 디스크에 이미지를 저장하는 구현입니다. (기본값)
+ * 응답은 파일 리소스이므로 큰 파일은 sendfile로 전송됩니다.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "mogwi.storage.type", havingValue = "local", matchIfMissing = true)
+public class LocalImageStorage implements ImageStorage {
+
+    // 운영체제에 관계없이 쓸 수 있도록 기본값은 실행 디렉토리 아래로 둠
+    @Value("${mogwi.storage.local.dir:${user.dir}/data/images}")
+    private String dir;
+
+    private Path baseDir;
+
+    // 업로드/변환 중인 임시 파일 디렉토리 (저장 디렉토리 아래라 이동은 이름 변경으로 끝나고,
+    // '.'으로 시작해 이미지 키에 해당하지 않으므로 /images/로 제공되지 않음)
+    private Path stagingDir;
+
+    @PostConstruct
+    void init() throws IOException {
+        baseDir = Paths.get(dir).toAbsolutePath().normalize();
+        stagingDir = baseDir.resolve(".staging");
+        Files.createDirectories(stagingDir);
+        log.info("이미지 저장소: 로컬 디스크 {}", baseDir);
+    }
+
+    @Override
+    public Path stagingDirectory() {
+        return stagingDir;
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.exists(path(key));
+    }
+
+    @Override
+    public void put(String key, Path source, String contentType) throws IOException {
+        Path target = path(key);
+        Files.createDirectories(target.getParent());
+        Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public Resource resource(String key) {
+        return new FileSystemResource(path(key));
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(path(key));
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("type", "local");
+        stats.put("dir", baseDir.toString());
+        return stats;
+    }
+
+    // 키가 저장 디렉토리 밖을 가리키지 못하게 함
+    private Path path(String key) {
+        Path path = baseDir.resolve(key).normalize();
+        if (!path.startsWith(baseDir)) {
+            throw new IllegalArgumentException("잘못된 이미지 키: " + key);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,336 @@
+package com.example.mogwi_system.service.storage;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.EOFException;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * S3 호환 객체 저장소(AWS S3, MinIO 등)에 이미지를 저장하는 구현입니다. 여러 서버가 같은 버킷을 공유할 수 있습니다.
+ * multipart-threshold-bytes 이상인 파일은 multipart upload로 나누어 여러 조각을 동시에 올립니다.
+ * MinIO처럼 가상 호스트 방식 주소를 쓰지 않는 서버를 위해 기본값은 path-style 주소입니다.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "mogwi.storage.type", havingValue = "s3")
+public class S3ImageStorage implements ImageStorage {
+
+    // S3가 허용하는 가장 작은 조각 크기 (마지막 조각 제외)
+    static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+
+    // 비워 두면 AWS 기본 주소
+    @Value("${mogwi.storage.s3.endpoint:}")
+    private String endpoint;
+
+    @Value("${mogwi.storage.s3.region:us-east-1}")
+    private String region;
+
+    @Value("${mogwi.storage.s3.bucket:mogwi}")
+    private String bucket;
+
+    // 버킷 안에서 이미지 키 앞에 붙일 경로
+    @Value("${mogwi.storage.s3.prefix:images/}")
+    private String prefix;
+
+    // 비워 두면 AWS 기본 자격 증명 (환경 변수, 인스턴스 프로필 등)
+    @Value("${mogwi.storage.s3.access-key:}")
+    private String accessKey;
+
+    @Value("${mogwi.storage.s3.secret-key:}")
+    private String secretKey;
+
+    @Value("${mogwi.storage.s3.path-style:true}")
+    private boolean pathStyle;
+
+    @Value("${mogwi.storage.s3.multipart-threshold-bytes:16777216}")
+    private long multipartThreshold;
+
+    @Value("${mogwi.storage.s3.part-size-bytes:8388608}")
+    private long partSize;
+
+    // 조각 업로드 스레드 수 (모든 업로드가 공유, 메모리 사용량은 parallelism x part-size)
+    @Value("${mogwi.storage.s3.upload-parallelism:4}")
+    private int parallelism;
+
+    @Value("${mogwi.storage.s3.staging-dir:${java.io.tmpdir}/mogwi-images}")
+    private String stagingDir;
+
+    private S3Client s3;
+    private ExecutorService partUploader;
+    private Path stagingPath;
+
+    private final AtomicLong puts = new AtomicLong();
+    private final AtomicLong multipartPuts = new AtomicLong();
+    private final AtomicLong uploadedParts = new AtomicLong();
+    private final AtomicLong uploadedBytes = new AtomicLong();
+    private final AtomicLong abortedUploads = new AtomicLong();
+
+    @PostConstruct
+    void init() throws IOException {
+        S3ClientBuilder builder = S3Client.builder()
+                .region(Region.of(region))
+                .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(pathStyle).build());
+        if (!endpoint.isEmpty()) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        if (!accessKey.isEmpty()) {
+            builder.credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey)));
+        }
+        s3 = builder.build();
+
+        partSize = Math.max(partSize, MIN_PART_SIZE);
+        multipartThreshold = Math.max(multipartThreshold, partSize);
+        partUploader = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "s3-part-upload");
+            thread.setDaemon(true);
+            return thread;
+        });
+        stagingPath = Paths.get(stagingDir).toAbsolutePath().normalize();
+        Files.createDirectories(stagingPath);
+        log.info("이미지 저장소: S3 {}/{}{} (partSize={}, parallelism={})",
+                endpoint.isEmpty() ? "aws" : endpoint, bucket, prefix, partSize, parallelism);
+    }
+
+    @PreDestroy
+    void stop() {
+        partUploader.shutdownNow();
+        s3.close();
+    }
+
+    @Override
+    public Path stagingDirectory() {
+        return stagingPath;
+    }
+
+    @Override
+    public boolean exists(String key) throws IOException {
+        return head(key) != null;
+    }
+
+    @Override
+    public void put(String key, Path source, String contentType) throws IOException {
+        long size = Files.size(source);
+        try {
+            if (size < multipartThreshold) {
+                s3.putObject(b -> b.bucket(bucket).key(objectKey(key)).contentType(contentType).contentLength(size),
+                        RequestBody.fromFile(source));
+            } else {
+                multipartUpload(key, source, size, contentType);
+                multipartPuts.incrementAndGet();
+            }
+        } catch (S3Exception e) {
+            throw new IOException("S3 업로드 실패: " + key + ": " + e.getMessage(), e);
+        }
+        puts.incrementAndGet();
+        uploadedBytes.addAndGet(size);
+    }
+
+    @Override
+    public Resource resource(String key) {
+        return new S3ObjectResource(key);
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        try {
+            s3.deleteObject(b -> b.bucket(bucket).key(objectKey(key)));
+        } catch (S3Exception e) {
+            throw new IOException("S3 삭제 실패: " + key + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("type", "s3");
+        stats.put("bucket", bucket);
+        stats.put("puts", puts.get());
+        stats.put("multipartPuts", multipartPuts.get());
+        stats.put("uploadedParts", uploadedParts.get());
+        stats.put("uploadedBytes", uploadedBytes.get());
+        stats.put("abortedUploads", abortedUploads.get());
+        return stats;
+    }
+
+    // 조각을 나누어 동시에 올리고 완료합니다. 하나라도 실패하면 업로드를 취소하여 남은 조각이 과금되지 않게 함
+    private void multipartUpload(String key, Path source, long size, String contentType) throws IOException {
+        String objectKey = objectKey(key);
+        String uploadId = s3.createMultipartUpload(b -> b.bucket(bucket).key(objectKey).contentType(contentType)).uploadId();
+        try {
+            int partCount = (int) ((size + partSize - 1) / partSize);
+            List<Future<CompletedPart>> futures = new ArrayList<>(partCount);
+            for (int i = 0; i < partCount; i++) {
+                int partNumber = i + 1;
+                long offset = i * partSize;
+                long length = Math.min(partSize, size - offset);
+                futures.add(partUploader.submit(() -> uploadPart(objectKey, uploadId, source, partNumber, offset, length)));
+            }
+
+            List<CompletedPart> parts = new ArrayList<>(partCount);
+            for (Future<CompletedPart> future : futures) {
+                parts.add(future.get());
+            }
+            s3.completeMultipartUpload(b -> b.bucket(bucket).key(objectKey).uploadId(uploadId)
+                    .multipartUpload(m -> m.parts(parts)));
+            log.debug("S3 multipart 업로드 완료: {} ({} bytes, {} parts)", key, size, partCount);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort(objectKey, uploadId);
+            throw new IOException("S3 업로드가 중단되었습니다: " + key, e);
+        } catch (ExecutionException | RuntimeException e) {
+            abort(objectKey, uploadId);
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            throw new IOException("S3 multipart 업로드 실패: " + key + ": " + cause.getMessage(), cause);
+        }
+    }
+
+    private CompletedPart uploadPart(String objectKey, String uploadId, Path source, int partNumber, long offset, long length)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) length);
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) {
+                    throw new EOFException("조각을 읽는 중 파일이 끝났습니다: part " + partNumber);
+                }
+            }
+        }
+        buffer.flip();
+        String eTag = s3.uploadPart(b -> b.bucket(bucket).key(objectKey).uploadId(uploadId)
+                .partNumber(partNumber).contentLength(length), RequestBody.fromByteBuffer(buffer)).eTag();
+        uploadedParts.incrementAndGet();
+        return CompletedPart.builder().partNumber(partNumber).eTag(eTag).build();
+    }
+
+    private void abort(String objectKey, String uploadId) {
+        abortedUploads.incrementAndGet();
+        try {
+            s3.abortMultipartUpload(b -> b.bucket(bucket).key(objectKey).uploadId(uploadId));
+        } catch (RuntimeException e) {
+            log.warn("S3 multipart 업로드 취소 실패: {} ({}): {}", objectKey, uploadId, e.getMessage());
+        }
+    }
+
+    // 없는 키면 null
+    private HeadObjectResponse head(String key) throws IOException {
+        try {
+            return s3.headObject(b -> b.bucket(bucket).key(objectKey(key)));
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return null;
+            }
+            throw new IOException("S3 조회 실패: " + key + ": " + e.getMessage(), e);
+        }
+    }
+
+    private String objectKey(String key) {
+        return prefix + key;
+    }
+
+    /**
+     * 버킷의 객체 하나입니다. 크기와 수정 시각은 처음 필요할 때 HEAD 요청 한 번으로 가져옵니다.
+     * 요청마다 새로 만들어지므로 캐시된 메타데이터가 오래 남지 않습니다.
+     */
+    private final class S3ObjectResource extends AbstractResource {
+
+        private final String key;
+        private HeadObjectResponse metadata;
+        private boolean loaded;
+
+        S3ObjectResource(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public boolean exists() {
+            try {
+                return metadata() != null;
+            } catch (IOException e) {
+                log.warn("{}", e.getMessage());
+                return false;
+            }
+        }
+
+        @Override
+        public long contentLength() throws IOException {
+            return requireMetadata().contentLength();
+        }
+
+        @Override
+        public long lastModified() throws IOException {
+            return requireMetadata().lastModified().toEpochMilli();
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            try {
+                return s3.getObject(b -> b.bucket(bucket).key(objectKey(key)));
+            } catch (S3Exception e) {
+                if (e.statusCode() == 404) {
+                    throw new FileNotFoundException(getDescription());
+                }
+                throw new IOException("S3 읽기 실패: " + key + ": " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public String getFilename() {
+            return key.substring(key.lastIndexOf('/') + 1);
+        }
+
+        @Override
+        public String getDescription() {
+            return "s3://" + bucket + "/" + objectKey(key);
+        }
+
+        private HeadObjectResponse metadata() throws IOException {
+            if (!loaded) {
+                metadata = head(key);
+                loaded = true;
+            }
+            return metadata;
+        }
+
+        private HeadObjectResponse requireMetadata() throws IOException {
+            HeadObjectResponse response = metadata();
+            if (response == null) {
+                throw new FileNotFoundException(getDescription());
+            }
+            return response;
+        }
+    }
+}
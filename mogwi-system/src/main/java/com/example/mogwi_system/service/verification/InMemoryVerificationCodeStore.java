@@ -0,0 +1,129 @@
+package com.example.mogwi_system.service.verification;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 인증코드를 메모리에 보관하는 저장소입니다. (단일 서버용 기본 구현)
+ * 최대 크기를 넘으면 가장 먼저 저장된 코드부터 제거하고, 만료된 코드는 주기적으로 정리합니다.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "mogwi.verification.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryVerificationCodeStore implements VerificationCodeStore {
+
+    private final int maxSize;
+    private final Map<String, Entry> codes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private record Entry(String code, long expiresAt) {
+    }
+
+    public InMemoryVerificationCodeStore(@Value("${mogwi.verification.max-size:10000}") int maxSize) {
+        this.maxSize = maxSize;
+        // 저장 순서(삽입 순서)를 유지하여 가장 오래된 코드부터 제거
+        this.codes = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > InMemoryVerificationCodeStore.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public void save(String usermail, String code, Duration ttl) {
+        Entry entry = new Entry(code, System.currentTimeMillis() + ttl.toMillis());
+        synchronized (codes) {
+            // 재발송 시 순서 맨 뒤로 이동하도록 제거 후 다시 삽입
+            codes.remove(usermail);
+            codes.put(usermail, entry);
+        }
+    }
+
+    @Override
+    public VerifyResult verify(String usermail, String inputCode) {
+        long now = System.currentTimeMillis();
+        synchronized (codes) {
+            Entry entry = codes.get(usermail);
+            if (entry == null || entry.expiresAt() <= now) {
+                if (entry != null) {
+                    codes.remove(usermail);
+                    expirations.incrementAndGet();
+                }
+                misses.incrementAndGet();
+                return VerifyResult.EXPIRED;
+            }
+
+            hits.incrementAndGet();
+            if (!entry.code().equals(inputCode)) {
+                return VerifyResult.MISMATCH;
+            }
+            codes.remove(usermail);
+            return VerifyResult.OK;
+        }
+    }
+
+    @Override
+    public void remove(String usermail) {
+        synchronized (codes) {
+            codes.remove(usermail);
+        }
+    }
+
+    /**
+     * 만료된 인증코드를 정리합니다.
+     */
+    @Scheduled(fixedDelayString = "${mogwi.verification.sweep-interval-ms:60000}")
+    public void sweepExpired() {
+        long now = System.currentTimeMillis();
+        int removed = 0;
+        synchronized (codes) {
+            Iterator<Entry> iterator = codes.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().expiresAt() <= now) {
+                    iterator.remove();
+                    removed++;
+                }
+            }
+        }
+        if (removed > 0) {
+            expirations.addAndGet(removed);
+            log.debug("만료된 인증코드 {}건 정리", removed);
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        int size;
+        synchronized (codes) {
+            size = codes.size();
+        }
+        long lookups = hits.get() + misses.get();
+        return Map.of(
+                "store", "memory",
+                "size", size,
+                "maxSize", maxSize,
+                "hits", hits.get(),
+                "misses", misses.get(),
+                "hitRate", lookups == 0 ? 0.0 : (double) hits.get() / lookups,
+                "expirations", expirations.get(),
+                "evictions", evictions.get());
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.mogwi_system.service.verification;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 인증코드를 DB(verification_codes)에 보관하는 저장소입니다.
+ * 여러 서버가 같은 DB를 사용하면 어느 서버에서 발송한 코드든 다른 서버에서 확인할 수 있습니다.
+ * 조회 적중/미적중 등 통계는 서버별로 집계됩니다.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "mogwi.verification.store", havingValue = "jdbc")
+public class JdbcVerificationCodeStore implements VerificationCodeStore {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${mogwi.verification.max-size:10000}")
+    private int maxSize;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    @Override
+    public void save(String usermail, String code, Duration ttl) {
+        jdbcTemplate.update(
+                "INSERT INTO verification_codes (usermail, code, expires_at) VALUES (?, ?, ?) " +
+                        "ON DUPLICATE KEY UPDATE code = VALUES(code), expires_at = VALUES(expires_at)",
+                usermail, code, System.currentTimeMillis() + ttl.toMillis());
+    }
+
+    @Override
+    public VerifyResult verify(String usermail, String inputCode) {
+        long now = System.currentTimeMillis();
+
+        // 일치하는 유효한 코드를 삭제하는 것으로 확인 (동시에 여러 번 확인해도 한 번만 성공)
+        int deleted = jdbcTemplate.update(
+                "DELETE FROM verification_codes WHERE usermail = ? AND code = ? AND expires_at > ?",
+                usermail, inputCode, now);
+        if (deleted > 0) {
+            hits.incrementAndGet();
+            return VerifyResult.OK;
+        }
+
+        List<Long> expiresAt = jdbcTemplate.queryForList(
+                "SELECT expires_at FROM verification_codes WHERE usermail = ?", Long.class, usermail);
+        if (expiresAt.isEmpty() || expiresAt.get(0) <= now) {
+            misses.incrementAndGet();
+            return VerifyResult.EXPIRED;
+        }
+        hits.incrementAndGet();
+        return VerifyResult.MISMATCH;
+    }
+
+    @Override
+    public void remove(String usermail) {
+        jdbcTemplate.update("DELETE FROM verification_codes WHERE usermail = ?", usermail);
+    }
+
+    /**
+     * 만료된 인증코드를 정리하고, 최대 크기를 넘은 경우 만료가 가장 이른 코드부터 제거합니다.
+     */
+    @Scheduled(fixedDelayString = "${mogwi.verification.sweep-interval-ms:60000}")
+    public void sweepExpired() {
+        int expired = jdbcTemplate.update("DELETE FROM verification_codes WHERE expires_at <= ?", System.currentTimeMillis());
+        expirations.addAndGet(expired);
+
+        Integer size = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM verification_codes", Integer.class);
+        if (size != null && size > maxSize) {
+            int evicted = jdbcTemplate.update(
+                    "DELETE FROM verification_codes ORDER BY expires_at LIMIT ?", size - maxSize);
+            evictions.addAndGet(evicted);
+        }
+        if (expired > 0) {
+            log.debug("만료된 인증코드 {}건 정리", expired);
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Integer size = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM verification_codes", Integer.class);
+        long lookups = hits.get() + misses.get();
+        return Map.of(
+                "store", "jdbc",
+                "size", size != null ? size : 0,
+                "maxSize", maxSize,
+                "hits", hits.get(),
+                "misses", misses.get(),
+                "hitRate", lookups == 0 ? 0.0 : (double) hits.get() / lookups,
+                "expirations", expirations.get(),
+                "evictions", evictions.get());
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.mogwi_system.service.verification;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * 이메일 인증코드 저장소입니다.
+ * 기본 구현은 단일 서버용 메모리 저장소({@link InMemoryVerificationCodeStore})이며,
+ * 여러 서버가 인증코드를 공유해야 하면 mogwi.verification.store=jdbc로 DB 저장소({@link JdbcVerificationCodeStore})를 사용합니다.
+ */
+public interface VerificationCodeStore {
+
+    enum VerifyResult { OK, MISMATCH, EXPIRED }
+
+    /**
+     * 이메일의 인증코드를 저장합니다. 같은 이메일의 기존 코드는 덮어씁니다.
+     */
+    void save(String usermail, String code, Duration ttl);
+
+    /**
+     * 입력한 코드를 확인합니다. 일치하면 코드는 일회용이므로 저장소에서 제거합니다.
+     *
+     * @return 코드가 없거나 만료되었으면 EXPIRED, 다르면 MISMATCH, 일치하면 OK
+     */
+    VerifyResult verify(String usermail, String inputCode);
+
+    /**
+     * 이메일의 인증코드를 제거합니다.
+     */
+    void remove(String usermail);
+
+    /**
+     * 저장소 상태(항목 수, 조회 적중/미적중, 만료/용량 초과로 제거된 수)를 반환합니다.
+     */
+    Map<String, Object> getStats();
+}
@@ -0,0 +1,43 @@
+package com.example.mogwi_system.support;
+
+import com.example.mogwi_system.service.storage.ImageStorage;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * /images/** 요청 경로를 {@link ImageStorage}의 키로 찾는 리졸버입니다.
+ * 디렉토리 위치 대신 저장소 구현(로컬 디스크, S3)에서 리소스를 가져오므로 처리기는 저장소 종류를 알 필요가 없습니다.
+ */
+public class ImageStorageResourceResolver extends AbstractResourceResolver {
+
+    // 업로드 이미지 이름과 변환 파일 경로만 허용 (경로 조작 방지)
+    private static final Pattern IMAGE_KEY = Pattern.compile("(variants/)?[A-Za-z0-9_-]+(\\.[A-Za-z0-9]+)?");
+
+    private final ImageStorage imageStorage;
+
+    public ImageStorageResourceResolver(ImageStorage imageStorage) {
+        this.imageStorage = imageStorage;
+    }
+
+    @Override
+    protected Resource resolveResourceInternal(@Nullable HttpServletRequest request, String requestPath,
+                                               List<? extends Resource> locations, ResourceResolverChain chain) {
+        if (!IMAGE_KEY.matcher(requestPath).matches()) {
+            return null;
+        }
+        Resource resource = imageStorage.resource(requestPath);
+        return resource.exists() ? resource : null;
+    }
+
+    @Override
+    protected String resolveUrlPathInternal(String resourceUrlPath, List<? extends Resource> locations,
+                                            ResourceResolverChain chain) {
+        return IMAGE_KEY.matcher(resourceUrlPath).matches() ? resourceUrlPath : null;
+    }
+}
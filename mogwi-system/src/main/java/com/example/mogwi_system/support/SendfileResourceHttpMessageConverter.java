@@ -0,0 +1,69 @@
+package com.example.mogwi_system.support;
+
+import jakarta.servlet.ServletResponseWrapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.ResourceHttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * 파일 리소스의 본문을 Tomcat sendfile로 보내는 변환기입니다.
+ * 본문을 JVM에서 복사하지 않고, 응답 헤더만 쓴 뒤 커넥터가 커널에서 파일을 소켓으로 바로 전송합니다.
+ * 커넥터가 sendfile을 지원하지 않거나, 작은 파일이거나, 응답이 래핑된 경우에는 기존처럼 스트림으로 복사합니다.
+ * (Range 요청의 부분 응답은 이 변환기를 거치지 않습니다.)
+ */
+public class SendfileResourceHttpMessageConverter extends ResourceHttpMessageConverter {
+
+    // Tomcat Globals의 sendfile 요청 속성 이름
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final long minSendfileBytes;
+
+    /**
+     * @param minSendfileBytes 이 크기 이상인 파일만 sendfile로 전송 (작은 파일은 복사가 더 빠름)
+     */
+    public SendfileResourceHttpMessageConverter(long minSendfileBytes) {
+        this.minSendfileBytes = minSendfileBytes;
+    }
+
+    @Override
+    protected void writeContent(Resource resource, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        HttpServletRequest request = currentRequest();
+        if (request != null && resource.isFile() && isUnwrapped(outputMessage)
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            File file = resource.getFile();
+            long length = file.length();
+            if (length >= minSendfileBytes) {
+                // Content-Length는 이미 설정되어 있고, 응답이 커밋될 때 커넥터가 속성을 읽어 파일을 전송함
+                request.setAttribute(SENDFILE_FILENAME, file.getAbsolutePath());
+                request.setAttribute(SENDFILE_START, 0L);
+                request.setAttribute(SENDFILE_END, length);
+                return;
+            }
+        }
+        super.writeContent(resource, outputMessage);
+    }
+
+    private static HttpServletRequest currentRequest() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                ? attributes.getRequest()
+                : null;
+    }
+
+    // 필터가 응답 본문을 가로채는 경우(래퍼) 커넥터가 직접 파일을 보내면 안 됨
+    private static boolean isUnwrapped(HttpOutputMessage outputMessage) {
+        return outputMessage instanceof ServletServerHttpResponse response
+                && !(response.getServletResponse() instanceof ServletResponseWrapper);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.mogwi_system.support;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 트랜잭션 커밋 이후에 실행해야 하는 작업(인메모리 인덱스/캐시 갱신 등)을 등록하는 유틸리티입니다.
+ */
+public final class TransactionCallbacks {
+
+    private TransactionCallbacks() {
+    }
+
+    /**
+     * 현재 트랜잭션이 커밋된 뒤 작업을 실행합니다. 롤백되면 실행하지 않습니다.
+     * 활성 트랜잭션이 없으면 즉시 실행합니다.
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
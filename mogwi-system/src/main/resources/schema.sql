@@ -0,0 +1,95 @@
+-- 애플리케이션 기동 시 실행되는 보조 스키마 (spring.sql.init.mode=always)
+-- 기존 테이블(users, problems, cards, ...)은 수동으로 관리되므로 여기서는 파생 테이블만 생성합니다.
+
+-- 문제별 좋아요/스크랩 카운터 (user_problem_status 집계를 미리 계산해 둔 값)
+CREATE TABLE IF NOT EXISTS problem_stats (
+    problem_id BIGINT NOT NULL PRIMARY KEY,
+    like_count INT NOT NULL DEFAULT 0,
+    scrap_count INT NOT NULL DEFAULT 0,
+    updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
+
+-- 사용자별 문제 학습 진행 카운터 (카드 상태 변경 시 증감, 문제 상태를 O(1)로 계산하기 위함)
+CREATE TABLE IF NOT EXISTS user_problem_progress (
+    user_id BIGINT NOT NULL,
+    problem_id BIGINT NOT NULL,
+    perfect_count INT NOT NULL DEFAULT 0,
+    studied_count INT NOT NULL DEFAULT 0,
+    updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (user_id, problem_id),
+    INDEX idx_user_problem_progress_problem (problem_id)
+);
+
+-- 이메일 인증코드 (mogwi.verification.store=jdbc일 때 여러 서버가 공유, expires_at은 epoch millis)
+CREATE TABLE IF NOT EXISTS verification_codes (
+    usermail VARCHAR(255) NOT NULL PRIMARY KEY,
+    code VARCHAR(16) NOT NULL,
+    expires_at BIGINT NOT NULL,
+    INDEX idx_verification_codes_expires_at (expires_at)
+);
+
+-- 카드 학습 이벤트 로그 (추가만 하고 수정하지 않음, user_card_status와 달리 학습 이력이 남음)
+CREATE TABLE IF NOT EXISTS study_events (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    problem_id BIGINT NOT NULL,
+    card_id BIGINT NOT NULL,
+    previous_status VARCHAR(20) NULL,
+    card_status VARCHAR(20) NOT NULL,
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_study_events_user_created (user_id, created_at)
+);
+
+-- 사용자별 일별 학습 집계 (study_events 기록 시 함께 증가, 리포트는 이 테이블을 범위 조회)
+CREATE TABLE IF NOT EXISTS user_daily_study (
+    user_id BIGINT NOT NULL,
+    study_date DATE NOT NULL,
+    perfect_count INT NOT NULL DEFAULT 0,
+    vague_count INT NOT NULL DEFAULT 0,
+    forgotten_count INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, study_date)
+);
+
+-- 사용자별 문제/카드 상태는 (사용자, 문제) / (사용자, 카드)당 한 행만 유지 (upsert의 기준 키)
+-- 인덱스를 만들기 전에 기존 중복 행을 합칩니다. 중복이 없으면 아무 행도 바뀌지 않습니다.
+-- 문제 상태: 좋아요/스크랩은 중복 행 중 하나라도 켜져 있으면 유지하고, 학습 상태는 가장 최근에 수정된 행을 남김
+-- (updated_at = updated_at은 ON UPDATE로 수정 시각이 바뀌어 최근 행 판단이 흐려지지 않게 함)
+UPDATE user_problem_status ups
+JOIN (SELECT user_id, problem_id, MAX(is_liked) AS is_liked, MAX(is_scrapped) AS is_scrapped
+      FROM user_problem_status
+      GROUP BY user_id, problem_id
+      HAVING COUNT(*) > 1) dup ON dup.user_id = ups.user_id AND dup.problem_id = ups.problem_id
+SET ups.is_liked = dup.is_liked, ups.is_scrapped = dup.is_scrapped, ups.updated_at = ups.updated_at;
+
+DELETE older FROM user_problem_status older
+JOIN user_problem_status newer ON newer.user_id = older.user_id AND newer.problem_id = older.problem_id
+    AND (COALESCE(newer.updated_at, '1970-01-01'), newer.id) > (COALESCE(older.updated_at, '1970-01-01'), older.id);
+
+-- 카드 상태: 가장 최근에 수정된 행(최신 상태)을 남김
+DELETE older FROM user_card_status older
+JOIN user_card_status newer ON newer.user_id = older.user_id AND newer.card_id = older.card_id
+    AND (COALESCE(newer.updated_at, '1970-01-01'), newer.id) > (COALESCE(older.updated_at, '1970-01-01'), older.id);
+
+-- ADD ... IF NOT EXISTS는 MariaDB 문법입니다. (MySQL에서는 인덱스가 없을 때만 IF NOT EXISTS 없이 실행)
+ALTER TABLE user_problem_status ADD UNIQUE INDEX IF NOT EXISTS uk_user_problem_status_user_problem (user_id, problem_id);
+
+ALTER TABLE user_card_status ADD UNIQUE INDEX IF NOT EXISTS uk_user_card_status_user_card (user_id, card_id);
+
+-- 카드 복습 스케줄 (SM-2, SpacedRepetitionScheduler가 카드 상태를 쓸 때 함께 계산)
+-- 기존 행은 컬럼 추가 시점의 due_at을 받아 바로 복습 대상이 됩니다.
+ALTER TABLE user_card_status
+    ADD COLUMN IF NOT EXISTS repetitions INT NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS interval_days INT NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS ease_factor DOUBLE NOT NULL DEFAULT 2.5,
+    ADD COLUMN IF NOT EXISTS due_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    ADD INDEX IF NOT EXISTS idx_user_card_status_user_due (user_id, due_at);
+
+-- 업로드 이미지 참조 수 (파일 이름 = 내용의 SHA-256, 카드 저장/문제 삭제 시 증감)
+-- ref_count가 0인 채로 유예 시간이 지난 파일은 ImageStoreService가 정리합니다.
+CREATE TABLE IF NOT EXISTS image_refs (
+    file_name VARCHAR(80) NOT NULL PRIMARY KEY,
+    ref_count INT NOT NULL DEFAULT 0,
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    INDEX idx_image_refs_orphans (ref_count, updated_at)
+);
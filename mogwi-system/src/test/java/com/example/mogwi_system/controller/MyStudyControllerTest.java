@@ -0,0 +1,94 @@
+package com.example.mogwi_system.controller;
+
+import com.example.mogwi_system.dto.CategoryTag;
+import com.example.mogwi_system.dto.ProblemSummary;
+import com.example.mogwi_system.service.CategoryCacheService;
+import com.example.mogwi_system.service.UserIdCacheService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MyStudyControllerTest {
+
+	@Mock
+	private EntityManager entityManager;
+
+	@Mock
+	private UserIdCacheService userIdCacheService;
+
+	@Spy
+	private CategoryCacheService categoryCacheService = new CategoryCacheService();
+
+	@InjectMocks
+	private MyStudyController myStudyController;
+
+	private final Query problemQuery = mock(Query.class, RETURNS_SELF);
+	private final Query categoryQuery = mock(Query.class, RETURNS_SELF);
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(categoryCacheService, "entityManager", entityManager);
+		when(userIdCacheService.resolve("user")).thenReturn(1L);
+		when(entityManager.createNativeQuery(anyString())).thenAnswer(invocation ->
+				invocation.<String>getArgument(0).contains("FROM categories") ? categoryQuery : problemQuery);
+		when(categoryQuery.getResultList()).thenReturn(List.of(
+				new Object[]{1L, "영어", "#FF0000"},
+				new Object[]{2L, "단어", null}));
+	}
+
+	@Test
+	void scrappedProblemsUseConstantNumberOfQueries() {
+		givenScrappedProblems(1, "1,2");
+		myStudyController.getScrappedProblems("user");
+
+		givenScrappedProblems(300, "1,2");
+		myStudyController.getScrappedProblems("user");
+
+		// 목록 조회 2회 + 카테고리 캐시 적재 1회 (문제 수와 무관)
+		verify(entityManager, times(3)).createNativeQuery(anyString());
+	}
+
+	@Test
+	void scrappedProblemsAreStitchedWithCachedCategories() {
+		List<Object[]> rows = new ArrayList<>();
+		rows.add(new Object[]{1L, "문제 1", "작성자", "author", 10, 0, 0, 0, 1, "1,2"});
+		rows.add(new Object[]{2L, "문제 2", "작성자", "author", 10, 0, 0, 0, 1, null});
+		when(problemQuery.getResultList()).thenReturn(rows);
+
+		List<ProblemSummary> body = myStudyController.getScrappedProblems("user").getBody();
+
+		assertThat(body).hasSize(2);
+		assertThat(body.get(0).categories()).containsExactly(
+				new CategoryTag("영어", "#FF0000"),
+				new CategoryTag("단어", "#CCCCCC"));
+		assertThat(body.get(1).categories()).isEmpty();
+		assertThat(body.get(0).scrapped()).isTrue();
+	}
+
+	private void givenScrappedProblems(int count, String categoryIds) {
+		List<Object[]> rows = new ArrayList<>();
+		for (long id = 1; id <= count; id++) {
+			rows.add(new Object[]{id, "문제 " + id, "작성자", "author", 10, 0, 0, 0, 1, categoryIds});
+		}
+		when(problemQuery.getResultList()).thenReturn(rows);
+	}
+}
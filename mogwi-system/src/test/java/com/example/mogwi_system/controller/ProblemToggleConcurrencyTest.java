@@ -0,0 +1,145 @@
+package com.example.mogwi_system.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * 같은 사용자가 같은 문제의 좋아요를 동시에 여러 번 눌러도 user_problem_status 행이 하나만 남고,
+ * problem_stats 카운터가 최종 좋아요 상태와 일치하는지 확인합니다. (실제 DB 필요)
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProblemToggleConcurrencyTest {
+
+	private static final int THREADS = 16;
+	private static final int REQUESTS = 64;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private String userId;
+	private Long internalUserId;
+	private Long problemId;
+
+	@BeforeEach
+	void setUp() {
+		userId = "toggle-" + UUID.randomUUID().toString().substring(0, 8);
+		internalUserId = insert("INSERT INTO users (userid, userpass, username, usermail, created_at) VALUES (?, 'x', ?, ?, NOW())",
+				userId, userId, userId + "@test.mogwi");
+		problemId = insert("INSERT INTO problems (title, description, author_id, card_count, is_public) VALUES (?, NULL, ?, 0, 1)",
+				"concurrency", internalUserId);
+	}
+
+	@AfterEach
+	void tearDown() {
+		jdbcTemplate.update("DELETE FROM user_problem_status WHERE problem_id = ?", problemId);
+		jdbcTemplate.update("DELETE FROM problem_stats WHERE problem_id = ?", problemId);
+		jdbcTemplate.update("DELETE FROM problems WHERE id = ?", problemId);
+		jdbcTemplate.update("DELETE FROM users WHERE id = ?", internalUserId);
+	}
+
+	@Test
+	void concurrentTogglesKeepOneRowAndConsistentCounter() throws Exception {
+		int succeeded = hammer(i -> put("/api/mystudy/problems/{problemId}/toggle-like", problemId)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"userId\":\"" + userId + "\"}"));
+
+		assertThat(countRows()).isEqualTo(1);
+		assertThat(isLiked()).isEqualTo(succeeded % 2);
+		assertThat(likeCount()).isEqualTo(isLiked());
+	}
+
+	@Test
+	void concurrentLikeUpdatesKeepOneRowAndConsistentCounter() throws Exception {
+		hammer(i -> post("/api/like/{problemId}", problemId)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"userId\":\"" + userId + "\",\"liked\":" + (i % 3 != 0) + "}"));
+
+		assertThat(countRows()).isEqualTo(1);
+		assertThat(likeCount()).isEqualTo(isLiked());
+	}
+
+	/**
+	 * 요청을 동시에 보내고 200 응답을 받은 요청 수를 반환합니다.
+	 */
+	private int hammer(IntFunction<RequestBuilder> request) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Integer>> results = new ArrayList<>();
+		try {
+			for (int i = 0; i < REQUESTS; i++) {
+				int index = i;
+				results.add(executor.submit(() -> {
+					start.await();
+					return mockMvc.perform(request.apply(index)).andReturn().getResponse().getStatus();
+				}));
+			}
+			start.countDown();
+			int succeeded = 0;
+			for (Future<Integer> result : results) {
+				if (result.get() == 200) {
+					succeeded++;
+				}
+			}
+			return succeeded;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private int countRows() {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_problem_status WHERE user_id = ? AND problem_id = ?",
+				Integer.class, internalUserId, problemId);
+	}
+
+	private int isLiked() {
+		return jdbcTemplate.queryForObject("SELECT IFNULL(is_liked, 0) FROM user_problem_status WHERE user_id = ? AND problem_id = ?",
+				Integer.class, internalUserId, problemId);
+	}
+
+	private int likeCount() {
+		List<Integer> result = jdbcTemplate.queryForList("SELECT like_count FROM problem_stats WHERE problem_id = ?",
+				Integer.class, problemId);
+		return result.isEmpty() ? 0 : result.get(0);
+	}
+
+	private Long insert(String sql, Object... args) {
+		KeyHolder keyHolder = new GeneratedKeyHolder();
+		jdbcTemplate.update(connection -> {
+			PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+			for (int i = 0; i < args.length; i++) {
+				ps.setObject(i + 1, args[i]);
+			}
+			return ps;
+		}, keyHolder);
+		return keyHolder.getKey().longValue();
+	}
+}
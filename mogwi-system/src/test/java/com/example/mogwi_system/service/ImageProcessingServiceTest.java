@@ -0,0 +1,85 @@
+package com.example.mogwi_system.service;
+
+import com.example.mogwi_system.service.storage.ImageStorage;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ImageProcessingServiceTest {
+
+	@Test
+	void downscaleFitsLongerSideAndKeepsAspectRatio() {
+		BufferedImage photo = new BufferedImage(4032, 3024, BufferedImage.TYPE_INT_RGB);
+
+		BufferedImage card = ImageProcessingService.downscale(photo, 960);
+
+		assertThat(card.getWidth()).isEqualTo(960);
+		assertThat(card.getHeight()).isEqualTo(720);
+	}
+
+	@Test
+	void downscaleHandlesPortraitImages() {
+		BufferedImage portrait = new BufferedImage(1000, 3000, BufferedImage.TYPE_INT_RGB);
+
+		BufferedImage thumb = ImageProcessingService.downscale(portrait, 240);
+
+		assertThat(thumb.getHeight()).isEqualTo(240);
+		assertThat(thumb.getWidth()).isEqualTo(80);
+	}
+
+	@Test
+	void downscaleNeverEnlargesSmallImages() {
+		BufferedImage small = new BufferedImage(120, 80, BufferedImage.TYPE_INT_RGB);
+
+		assertThat(ImageProcessingService.downscale(small, 2048)).isSameAs(small);
+	}
+
+	@Test
+	void resolveDoesNotRecheckStorageWhileConversionIsPending() throws Exception {
+		// 원본은 있고 변환 파일은 없으며, 변환 큐는 가득 차 있음
+		ImageStorage storage = mock(ImageStorage.class);
+		when(storage.exists(anyString())).thenAnswer(invocation -> !invocation.<String>getArgument(0).startsWith("variants/"));
+		ThreadPoolExecutor fullQueue = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+		fullQueue.shutdown();
+
+		ImageProcessingService service = new ImageProcessingService();
+		ReflectionTestUtils.setField(service, "imageStorage", storage);
+		ReflectionTestUtils.setField(service, "workers", fullQueue);
+		ReflectionTestUtils.setField(service, "notReadyRecheckMillis", 60_000L);
+
+		String imageUrl = "/images/" + "a".repeat(64) + ".png";
+		assertThat(service.resolve(imageUrl).card()).isEqualTo(imageUrl);
+		assertThat(service.resolve(imageUrl).card()).isEqualTo(imageUrl);
+
+		// 첫 요청에서만 THUMB 변환 파일과 원본을 확인
+		verify(storage, times(2)).exists(anyString());
+	}
+
+	@Test
+	void resolveRechecksMissingOriginalAfterInterval() throws Exception {
+		// 원본이 아직 저장소에 없으면 변환 불가로 기억하지 않고, 확인 주기가 지나면 다시 확인
+		ImageStorage storage = mock(ImageStorage.class);
+		when(storage.exists(anyString())).thenReturn(false);
+
+		ImageProcessingService service = new ImageProcessingService();
+		ReflectionTestUtils.setField(service, "imageStorage", storage);
+		ReflectionTestUtils.setField(service, "notReadyRecheckMillis", 0L);
+
+		String imageUrl = "/images/" + "b".repeat(64) + ".png";
+		service.resolve(imageUrl);
+		service.resolve(imageUrl);
+
+		verify(storage, times(4)).exists(anyString());
+	}
+}
@@ -0,0 +1,112 @@
+package com.example.mogwi_system.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ImageUploadServiceTest {
+
+	@Mock
+	private ImageStoreService imageStoreService;
+
+	@Mock
+	private ImageProcessingService imageProcessingService;
+
+	@InjectMocks
+	private ImageUploadService imageUploadService;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		ReflectionTestUtils.setField(imageUploadService, "maxFileBytes", 100L);
+		ReflectionTestUtils.setField(imageUploadService, "quotaBytes", 250L);
+		ReflectionTestUtils.setField(imageUploadService, "quotaWindowMillis", 60_000L);
+		ReflectionTestUtils.setField(imageUploadService, "maxConcurrent", 1);
+		ReflectionTestUtils.setField(imageUploadService, "acquireTimeoutMillis", 10L);
+		imageUploadService.init();
+
+		// 저장소는 스트림을 끝까지 읽고 읽은 크기를 돌려줌
+		lenient().when(imageStoreService.store(any(InputStream.class), any())).thenAnswer(invocation -> {
+			long size = invocation.<InputStream>getArgument(0).readAllBytes().length;
+			return new ImageStoreService.StoredImage("a.png", "/images/a.png", size, false);
+		});
+	}
+
+	@Test
+	void rejectsDeclaredOversizedUploadBeforeReading() throws Exception {
+		assertThatThrownBy(() -> imageUploadService.upload("user:1", body(101), 101, "a.png"))
+				.isInstanceOfSatisfying(ImageUploadService.UploadRejectedException.class,
+						e -> assertThat(e.getReason()).isEqualTo(ImageUploadService.Rejection.TOO_LARGE));
+		verify(imageStoreService, never()).store(any(), anyString());
+	}
+
+	@Test
+	void stopsReadingWhenUndeclaredBodyExceedsFileLimit() {
+		assertThatThrownBy(() -> imageUploadService.upload("user:1", body(1_000), -1, "a.png"))
+				.isInstanceOfSatisfying(ImageUploadService.UploadRejectedException.class,
+						e -> assertThat(e.getReason()).isEqualTo(ImageUploadService.Rejection.TOO_LARGE));
+	}
+
+	@Test
+	void enforcesQuotaPerKey() throws Exception {
+		imageUploadService.upload("user:1", body(100), 100, "a.png");
+		imageUploadService.upload("user:1", body(100), 100, "a.png");
+
+		assertThatThrownBy(() -> imageUploadService.upload("user:1", body(60), -1, "a.png"))
+				.isInstanceOfSatisfying(ImageUploadService.UploadRejectedException.class,
+						e -> assertThat(e.getReason()).isEqualTo(ImageUploadService.Rejection.QUOTA_EXCEEDED));
+		assertThat(imageUploadService.upload("user:2", body(60), 60, "a.png").size()).isEqualTo(60);
+		assertThat(imageUploadService.getStats()).containsEntry("uploads", 3L).containsEntry("rejectedQuota", 1L);
+	}
+
+	@Test
+	void reservesQuotaBeforeReadingSoConcurrentUploadsCannotExceedIt() throws Exception {
+		ReflectionTestUtils.setField(imageUploadService, "maxFileBytes", 200L);
+		ReflectionTestUtils.setField(imageUploadService, "maxConcurrent", 2);
+		imageUploadService.init();
+		// 첫 업로드(200)가 저장되는 도중에 같은 키로 두 번째 업로드(200)가 들어옴 (할당량 250)
+		when(imageStoreService.store(any(InputStream.class), any())).thenAnswer(invocation -> {
+			long size = invocation.<InputStream>getArgument(0).readAllBytes().length;
+			assertThatThrownBy(() -> imageUploadService.upload("ip:1", body(200), 200, "b.png"))
+					.isInstanceOfSatisfying(ImageUploadService.UploadRejectedException.class,
+							e -> assertThat(e.getReason()).isEqualTo(ImageUploadService.Rejection.QUOTA_EXCEEDED));
+			return new ImageStoreService.StoredImage("a.png", "/images/a.png", size, false);
+		});
+
+		imageUploadService.upload("ip:1", body(200), 200, "a.png");
+
+		assertThat(imageUploadService.getStats()).containsEntry("uploads", 1L).containsEntry("rejectedQuota", 1L);
+	}
+
+	@Test
+	void releasesUnusedReservationOfUndeclaredUpload() throws Exception {
+		// 크기를 모르는 업로드는 파일 한도(100)만큼 예약하고 실제로 읽은 30만 남김
+		imageUploadService.upload("ip:1", body(30), -1, "a.png");
+		imageUploadService.upload("ip:1", body(100), 100, "a.png");
+		imageUploadService.upload("ip:1", body(100), 100, "a.png");
+
+		assertThatThrownBy(() -> imageUploadService.upload("ip:1", body(30), 30, "a.png"))
+				.isInstanceOfSatisfying(ImageUploadService.UploadRejectedException.class,
+						e -> assertThat(e.getReason()).isEqualTo(ImageUploadService.Rejection.QUOTA_EXCEEDED));
+	}
+
+	private static InputStream body(int size) {
+		return new ByteArrayInputStream(new byte[size]);
+	}
+}
@@ -0,0 +1,147 @@
+package com.example.mogwi_system.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MailDispatchServiceTest {
+
+	// 테스트용 로컬 SMTP 서버
+	@RegisterExtension
+	static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+	private final RecordingMailSender mailSender = new RecordingMailSender();
+	private final MailDispatchService dispatchService = new MailDispatchService();
+
+	@BeforeEach
+	void setUp() {
+		mailSender.setHost("localhost");
+		mailSender.setPort(greenMail.getSmtp().getPort());
+		mailSender.setDefaultEncoding("UTF-8");
+
+		ReflectionTestUtils.setField(dispatchService, "mailSender", mailSender);
+		ReflectionTestUtils.setField(dispatchService, "queueCapacity", 50);
+		ReflectionTestUtils.setField(dispatchService, "workerCount", 1);
+		ReflectionTestUtils.setField(dispatchService, "batchSize", 20);
+		ReflectionTestUtils.setField(dispatchService, "maxAttempts", 3);
+		ReflectionTestUtils.setField(dispatchService, "initialBackoffMillis", 10L);
+		ReflectionTestUtils.setField(dispatchService, "statusRetentionMinutes", 10L);
+		dispatchService.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		dispatchService.stop();
+	}
+
+	@Test
+	void sendsQueuedMailInOneBatchOverOneConnection() throws Exception {
+		List<String> jobIds = submitWhileWorkerIsBusy("a@mogwi.test", "b@mogwi.test", "c@mogwi.test");
+
+		for (String jobId : jobIds) {
+			awaitStatus(jobId, MailDispatchService.MailStatus.SENT);
+		}
+		assertThat(greenMail.waitForIncomingEmail(5_000, 4)).isTrue();
+		// 먼저 보낸 메일 1건과, 그동안 쌓인 3건을 묶은 배치 1건
+		assertThat(mailSender.connections.get()).isEqualTo(2);
+		assertThat(greenMail.getReceivedMessagesForDomain("a@mogwi.test")).hasSize(1);
+		assertThat(greenMail.getReceivedMessagesForDomain("b@mogwi.test")).hasSize(1);
+		assertThat(greenMail.getReceivedMessagesForDomain("c@mogwi.test")).hasSize(1);
+	}
+
+	@Test
+	void retriesOnlyFailedMessagesOfPartiallyFailedBatch() throws Exception {
+		mailSender.failuresLeft.put("flaky@mogwi.test", new AtomicInteger(1));
+		mailSender.failuresLeft.put("broken@mogwi.test", new AtomicInteger(Integer.MAX_VALUE));
+
+		List<String> jobIds = submitWhileWorkerIsBusy("ok@mogwi.test", "flaky@mogwi.test", "broken@mogwi.test");
+
+		awaitStatus(jobIds.get(0), MailDispatchService.MailStatus.SENT);
+		awaitStatus(jobIds.get(1), MailDispatchService.MailStatus.SENT);
+		awaitStatus(jobIds.get(2), MailDispatchService.MailStatus.FAILED);
+		// 성공한 메일은 다시 보내지 않고, 한 번 실패한 메일은 재시도로 한 번만 도착
+		assertThat(greenMail.getReceivedMessagesForDomain("ok@mogwi.test")).hasSize(1);
+		assertThat(greenMail.getReceivedMessagesForDomain("flaky@mogwi.test")).hasSize(1);
+		assertThat(greenMail.getReceivedMessagesForDomain("broken@mogwi.test")).isEmpty();
+	}
+
+	// 워커가 첫 메일의 연결을 여는 동안 메일을 등록해, 등록한 메일이 한 배치로 묶이게 함
+	private List<String> submitWhileWorkerIsBusy(String... recipients) throws InterruptedException {
+		CountDownLatch gate = new CountDownLatch(1);
+		mailSender.gate = gate;
+		dispatchService.submit("first@mogwi.test", "첫 메일", "본문");
+		assertThat(mailSender.connecting.await(5, TimeUnit.SECONDS)).isTrue();
+
+		List<String> jobIds = new ArrayList<>();
+		for (String recipient : recipients) {
+			String jobId = dispatchService.submit(recipient, "인증 코드", "123456");
+			assertThat(dispatchService.getStatus(jobId)).isEqualTo(MailDispatchService.MailStatus.QUEUED);
+			jobIds.add(jobId);
+		}
+		gate.countDown();
+		return jobIds;
+	}
+
+	private void awaitStatus(String jobId, MailDispatchService.MailStatus expected) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5_000;
+		while (dispatchService.getStatus(jobId) != expected && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertThat(dispatchService.getStatus(jobId)).isEqualTo(expected);
+	}
+
+	/**
+	 * SMTP 연결 수를 세고, 지정한 수신자의 메일을 정해진 횟수만큼 실패시키는 발송기입니다.
+	 */
+	private static class RecordingMailSender extends JavaMailSenderImpl {
+
+		final AtomicInteger connections = new AtomicInteger();
+		final CountDownLatch connecting = new CountDownLatch(1);
+		final Map<String, AtomicInteger> failuresLeft = new ConcurrentHashMap<>();
+		volatile CountDownLatch gate = new CountDownLatch(0);
+
+		@Override
+		protected Transport connectTransport() throws MessagingException {
+			connections.incrementAndGet();
+			connecting.countDown();
+			try {
+				gate.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return super.connectTransport();
+		}
+
+		@Override
+		public MimeMessage createMimeMessage() {
+			return new MimeMessage(getSession()) {
+				@Override
+				public void saveChanges() throws MessagingException {
+					AtomicInteger left = failuresLeft.get(getAllRecipients()[0].toString());
+					if (left != null && left.getAndDecrement() > 0) {
+						throw new MessagingException("테스트용 발송 실패");
+					}
+					super.saveChanges();
+				}
+			};
+		}
+	}
+}
@@ -0,0 +1,108 @@
+package com.example.mogwi_system.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProblemContentCacheServiceTest {
+
+	@Mock
+	private EntityManager entityManager;
+
+	@Mock
+	private ImageProcessingService imageProcessingService;
+
+	private final CategoryCacheService categoryCacheService = new CategoryCacheService();
+	private final ProblemContentCacheService cacheService = new ProblemContentCacheService(1_000);
+
+	private final Query problemQuery = mock(Query.class, RETURNS_SELF);
+	private final Query cardQuery = mock(Query.class, RETURNS_SELF);
+	private final Query categoryQuery = mock(Query.class, RETURNS_SELF);
+
+	private Runnable duringLoad = () -> {
+	};
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(categoryCacheService, "entityManager", entityManager);
+		ReflectionTestUtils.setField(cacheService, "entityManager", entityManager);
+		ReflectionTestUtils.setField(cacheService, "objectMapper", new ObjectMapper());
+		ReflectionTestUtils.setField(cacheService, "categoryCacheService", categoryCacheService);
+		ReflectionTestUtils.setField(cacheService, "imageProcessingService", imageProcessingService);
+
+		when(entityManager.createNativeQuery(anyString())).thenAnswer(invocation -> {
+			String sql = invocation.getArgument(0);
+			if (sql.contains("FROM categories")) {
+				return categoryQuery;
+			}
+			return sql.contains("FROM cards") ? cardQuery : problemQuery;
+		});
+		when(categoryQuery.getResultList()).thenReturn(new ArrayList<>(List.<Object[]>of(new Object[]{1L, "영어", "#FF0000"})));
+		when(problemQuery.getResultList()).thenAnswer(invocation -> {
+			duringLoad.run();
+			List<Object[]> rows = new ArrayList<>();
+			rows.add(new Object[]{7L, "제목", "설명", "작성자", "author", 1, "1"});
+			return rows;
+		});
+		lenient().when(cardQuery.getResultList()).thenReturn(new ArrayList<>(List.<Object[]>of(new Object[]{"Q", "A", null})));
+	}
+
+	@Test
+	void cachesLoadedContent() {
+		cacheService.get(7L);
+		cacheService.get(7L);
+
+		assertThat(cacheService.getStats()).containsEntry("misses", 1L).containsEntry("hits", 1L).containsEntry("size", 1);
+	}
+
+	@Test
+	void doesNotCacheContentLoadedBeforeConcurrentDelete() {
+		// 적재가 DB를 읽은 뒤, 캐시에 넣기 전에 삭제가 커밋됨
+		duringLoad = () -> cacheService.invalidate(7L);
+
+		assertThat(cacheService.get(7L)).isPresent();
+		assertThat(cacheService.getStats()).containsEntry("size", 0);
+
+		// 다음 조회는 다시 DB를 읽음
+		duringLoad = () -> {
+		};
+		cacheService.get(7L);
+		assertThat(cacheService.getStats()).containsEntry("misses", 2L).containsEntry("size", 1);
+	}
+
+	@Test
+	void resolvesCardImagesWhenBuildingResponse() {
+		when(cardQuery.getResultList()).thenReturn(new ArrayList<>(List.<Object[]>of(new Object[]{"Q", "A", "/images/a.png"})));
+		when(imageProcessingService.resolve(eq("/images/a.png"))).thenReturn(
+				new ImageProcessingService.VariantUrls("/images/a.png", "/images/a.png", "/images/a.png"),
+				new ImageProcessingService.VariantUrls("/images/variants/a_thumb.jpg", "/images/variants/a_card.jpg", "/images/variants/a_full.jpg"));
+
+		ProblemContentCacheService.CachedContent before = cacheService.get(7L).orElseThrow();
+		// 변환이 끝난 뒤에는 캐시된 내용에서 크기별 URL과 새 ETag로 응답
+		ProblemContentCacheService.CachedContent after = cacheService.get(7L).orElseThrow();
+
+		assertThat(before.content().cards().get(0).imageUrl()).isEqualTo("/images/a.png");
+		assertThat(after.content().cards().get(0).imageUrl()).isEqualTo("/images/variants/a_card.jpg");
+		assertThat(after.content().cards().get(0).thumbnailUrl()).isEqualTo("/images/variants/a_thumb.jpg");
+		assertThat(after.etag()).isNotEqualTo(before.etag());
+		assertThat(cacheService.getStats()).containsEntry("misses", 1L);
+	}
+}
@@ -0,0 +1,59 @@
+package com.example.mogwi_system.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class SpacedRepetitionSchedulerTest {
+
+	private final SpacedRepetitionScheduler scheduler = new SpacedRepetitionScheduler();
+
+	@Test
+	void perfectAnswersGrowIntervalOneSixThenByEaseFactor() {
+		SpacedRepetitionScheduler.ReviewState first = scheduler.next(null, "perfect");
+		SpacedRepetitionScheduler.ReviewState second = scheduler.next(first, "perfect");
+		SpacedRepetitionScheduler.ReviewState third = scheduler.next(second, "perfect");
+
+		assertThat(first.intervalDays()).isEqualTo(1);
+		assertThat(second.intervalDays()).isEqualTo(6);
+		assertThat(third.intervalDays()).isEqualTo((int) Math.round(6 * second.easeFactor()));
+		assertThat(third.repetitions()).isEqualTo(3);
+		assertThat(third.easeFactor()).isCloseTo(2.8, within(1e-9));
+	}
+
+	@Test
+	void forgottenResetsRepetitionsAndLowersEaseFactor() {
+		SpacedRepetitionScheduler.ReviewState learned = new SpacedRepetitionScheduler.ReviewState(4, 30, 2.5);
+
+		SpacedRepetitionScheduler.ReviewState next = scheduler.next(learned, "forgotten");
+
+		assertThat(next.repetitions()).isZero();
+		assertThat(next.intervalDays()).isEqualTo(1);
+		assertThat(next.easeFactor()).isCloseTo(1.96, within(1e-9));
+	}
+
+	@Test
+	void vagueKeepsProgressButLowersEaseFactor() {
+		SpacedRepetitionScheduler.ReviewState next = scheduler.next(new SpacedRepetitionScheduler.ReviewState(2, 6, 2.5), "vague");
+
+		assertThat(next.repetitions()).isEqualTo(3);
+		assertThat(next.intervalDays()).isEqualTo(15);
+		assertThat(next.easeFactor()).isCloseTo(2.36, within(1e-9));
+	}
+
+	@Test
+	void easeFactorAndIntervalAreBounded() {
+		SpacedRepetitionScheduler.ReviewState state = new SpacedRepetitionScheduler.ReviewState(10, 300, SpacedRepetitionScheduler.MIN_EASE_FACTOR);
+
+		assertThat(scheduler.next(state, "forgotten").easeFactor()).isEqualTo(SpacedRepetitionScheduler.MIN_EASE_FACTOR);
+		assertThat(scheduler.next(state, "perfect").intervalDays()).isEqualTo(SpacedRepetitionScheduler.MAX_INTERVAL_DAYS);
+	}
+
+	@Test
+	void rejectsUnknownStatus() {
+		assertThatThrownBy(() -> scheduler.next(null, "new"))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
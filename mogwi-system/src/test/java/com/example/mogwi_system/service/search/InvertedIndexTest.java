@@ -0,0 +1,49 @@
+package com.example.mogwi_system.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvertedIndexTest {
+
+	@Test
+	void matchesKoreanWordsWithParticlesByBigram() {
+		InvertedIndex index = new InvertedIndex();
+		index.add(1L, List.of(new InvertedIndex.Field("자바스크립트를 공부하자", 1.0f)));
+		index.add(2L, List.of(new InvertedIndex.Field("파이썬 기초", 1.0f)));
+
+		List<InvertedIndex.Hit> hits = index.search("자바스크립트", 10);
+
+		assertThat(hits).extracting(InvertedIndex.Hit::docId).containsExactly(1L);
+	}
+
+	@Test
+	void ranksTitleMatchesAboveCardMatches() {
+		InvertedIndex index = new InvertedIndex();
+		index.add(1L, List.of(
+				new InvertedIndex.Field("세계 지리", 3.0f),
+				new InvertedIndex.Field("수도는 어디인가", 1.0f)));
+		index.add(2L, List.of(
+				new InvertedIndex.Field("수도 퀴즈", 3.0f),
+				new InvertedIndex.Field("프랑스", 1.0f)));
+
+		List<InvertedIndex.Hit> hits = index.search("수도", 10);
+
+		assertThat(hits).extracting(InvertedIndex.Hit::docId).containsExactly(2L, 1L);
+	}
+
+	@Test
+	void removedDocumentsAreNoLongerReturned() {
+		InvertedIndex index = new InvertedIndex();
+		index.add(1L, List.of(new InvertedIndex.Field("Spring Boot", 1.0f)));
+		index.add(2L, List.of(new InvertedIndex.Field("spring framework", 1.0f)));
+
+		index.remove(1L);
+
+		assertThat(index.search("SPRING", 10)).extracting(InvertedIndex.Hit::docId).containsExactly(2L);
+		assertThat(index.size()).isEqualTo(1);
+	}
+
+}
@@ -0,0 +1,119 @@
+package com.example.mogwi_system.service.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MinIO 같은 로컬 S3 호환 서버에 대해 실행합니다. 예:
+ * docker run -p 9000:9000 minio/minio server /data 후 MOGWI_TEST_S3_ENDPOINT=http://localhost:9000
+ * (자격 증명은 MOGWI_TEST_S3_ACCESS_KEY / MOGWI_TEST_S3_SECRET_KEY, 기본값 minioadmin)
+ */
+@EnabledIfEnvironmentVariable(named = "MOGWI_TEST_S3_ENDPOINT", matches = ".+")
+class S3ImageStorageTest {
+
+	private static final String BUCKET = "mogwi-test";
+
+	@TempDir
+	Path tempDir;
+
+	private S3ImageStorage storage;
+	private String prefix;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		prefix = "test-" + UUID.randomUUID() + "/";
+		storage = new S3ImageStorage();
+		ReflectionTestUtils.setField(storage, "endpoint", System.getenv("MOGWI_TEST_S3_ENDPOINT"));
+		ReflectionTestUtils.setField(storage, "region", "us-east-1");
+		ReflectionTestUtils.setField(storage, "bucket", BUCKET);
+		ReflectionTestUtils.setField(storage, "prefix", prefix);
+		ReflectionTestUtils.setField(storage, "accessKey", env("MOGWI_TEST_S3_ACCESS_KEY", "minioadmin"));
+		ReflectionTestUtils.setField(storage, "secretKey", env("MOGWI_TEST_S3_SECRET_KEY", "minioadmin"));
+		ReflectionTestUtils.setField(storage, "pathStyle", true);
+		ReflectionTestUtils.setField(storage, "multipartThreshold", S3ImageStorage.MIN_PART_SIZE);
+		ReflectionTestUtils.setField(storage, "partSize", S3ImageStorage.MIN_PART_SIZE);
+		ReflectionTestUtils.setField(storage, "parallelism", 3);
+		ReflectionTestUtils.setField(storage, "stagingDir", tempDir.toString());
+		storage.init();
+
+		S3Client s3 = (S3Client) ReflectionTestUtils.getField(storage, "s3");
+		try {
+			s3.createBucket(b -> b.bucket(BUCKET));
+		} catch (S3Exception e) {
+			// 이미 있는 버킷
+		}
+	}
+
+	@AfterEach
+	void tearDown() {
+		storage.stop();
+	}
+
+	@Test
+	void storesSmallFileWithSinglePut() throws Exception {
+		byte[] content = randomBytes(1024);
+
+		storage.put("a.png", write(content), "image/png");
+
+		assertThat(storage.exists("a.png")).isTrue();
+		Resource resource = storage.resource("a.png");
+		assertThat(resource.contentLength()).isEqualTo(content.length);
+		assertThat(resource.getFilename()).isEqualTo("a.png");
+		assertThat(read(resource)).isEqualTo(content);
+		assertThat(storage.getStats()).containsEntry("puts", 1L).containsEntry("multipartPuts", 0L);
+
+		storage.delete("a.png");
+		assertThat(storage.exists("a.png")).isFalse();
+		assertThat(storage.resource("a.png").exists()).isFalse();
+	}
+
+	@Test
+	void uploadsLargeFileInParallelParts() throws Exception {
+		// 5MB 조각 2개 + 마지막 1MB 조각
+		byte[] content = randomBytes((int) (S3ImageStorage.MIN_PART_SIZE * 2 + 1024 * 1024));
+
+		storage.put("variants/b_full.jpg", write(content), "image/jpeg");
+
+		assertThat(storage.getStats()).containsEntry("multipartPuts", 1L).containsEntry("uploadedParts", 3L);
+		assertThat(read(storage.resource("variants/b_full.jpg"))).isEqualTo(content);
+		storage.delete("variants/b_full.jpg");
+	}
+
+	private Path write(byte[] content) throws Exception {
+		Path file = tempDir.resolve(UUID.randomUUID() + ".upload");
+		Files.write(file, content);
+		return file;
+	}
+
+	private static byte[] read(Resource resource) throws Exception {
+		try (InputStream in = resource.getInputStream()) {
+			return in.readAllBytes();
+		}
+	}
+
+	private static byte[] randomBytes(int size) {
+		byte[] bytes = new byte[size];
+		new Random(size).nextBytes(bytes);
+		return bytes;
+	}
+
+	private static String env(String name, String defaultValue) {
+		String value = System.getenv(name);
+		return value == null || value.isEmpty() ? defaultValue : value;
+	}
+}